@@ -0,0 +1,141 @@
+package com.realestate.mapper;
+
+import com.realestate.dto.AppointmentDTO;
+import com.realestate.dto.PropertyDTO;
+import com.realestate.entity.Appointment;
+import com.realestate.entity.Property;
+import com.realestate.entity.PropertyStatus;
+import com.realestate.entity.PropertyType;
+import com.realestate.entity.User;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion d'une page d'entités en DTO : ModelMapper (configuration historique STRICT)
+ * contre les mappers MapStruct générés. Lancement : mvn -Pbenchmark test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"20", "50", "500"})
+    private int pageSize;
+
+    private ModelMapper modelMapper;
+    private PropertyMapper propertyMapper;
+    private AppointmentMapper appointmentMapper;
+    private List<Property> properties;
+    private List<Appointment> appointments;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setSkipNullEnabled(true);
+        propertyMapper = new PropertyMapperImpl();
+        appointmentMapper = new AppointmentMapperImpl();
+
+        properties = new ArrayList<>(pageSize);
+        appointments = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            User owner = new User();
+            owner.setId((long) i % 17);
+            owner.setFirstName("Prénom" + i);
+            owner.setLastName("Nom" + i);
+            owner.setEmail("user" + i + "@example.com");
+
+            Property property = new Property();
+            property.setId((long) i);
+            property.setTitle("Appartement " + i);
+            property.setDescription("Bel appartement lumineux proche du centre, numéro " + i);
+            property.setType(PropertyType.values()[i % PropertyType.values().length]);
+            property.setStatus(PropertyStatus.AVAILABLE);
+            property.setPrice(BigDecimal.valueOf(50_000 + i * 1_000L));
+            property.setSurface(40.0 + i);
+            property.setRooms(1 + i % 6);
+            property.setBedrooms(1 + i % 4);
+            property.setBathrooms(1);
+            property.setAddress(i + " rue de la Paix");
+            property.setCity(i % 2 == 0 ? "Douala" : "Yaoundé");
+            property.setCountry("Cameroun");
+            property.setLatitude(4.05 + i * 1e-4);
+            property.setLongitude(9.7 + i * 1e-4);
+            property.setImageUrls(new ArrayList<>(List.of("/uploads/" + i + "-1.jpg", "/uploads/" + i + "-2.jpg")));
+            property.setCreatedAt(LocalDateTime.now());
+            property.setOwner(owner);
+            properties.add(property);
+
+            Appointment appointment = new Appointment();
+            appointment.setId((long) i);
+            appointment.setProperty(property);
+            appointment.setVisitor(owner);
+            appointment.setStartTime(LocalDateTime.now().plusDays(i));
+            appointment.setEndTime(LocalDateTime.now().plusDays(i).plusHours(1));
+            appointment.setMessage("Visite " + i);
+            appointments.add(appointment);
+        }
+    }
+
+    @Benchmark
+    public List<PropertyDTO> propertiesWithModelMapper() {
+        List<PropertyDTO> page = new ArrayList<>(properties.size());
+        for (Property property : properties) {
+            PropertyDTO dto = modelMapper.map(property, PropertyDTO.class);
+            dto.setOwnerId(property.getOwner().getId());
+            dto.setOwnerName(property.getOwner().getFirstName() + " " + property.getOwner().getLastName());
+            page.add(dto);
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<PropertyDTO> propertiesWithMapStruct() {
+        List<PropertyDTO> page = new ArrayList<>(properties.size());
+        for (Property property : properties) {
+            page.add(propertyMapper.toDto(property));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> appointmentsWithModelMapper() {
+        List<AppointmentDTO> page = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            AppointmentDTO dto = modelMapper.map(appointment, AppointmentDTO.class);
+            dto.setVisitorName(appointment.getVisitor().getFirstName() + " " + appointment.getVisitor().getLastName());
+            page.add(dto);
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> appointmentsWithMapStruct() {
+        List<AppointmentDTO> page = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            page.add(appointmentMapper.toDto(appointment));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,141 @@
+package com.realestate.search;
+
+import com.realestate.entity.Listing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extraction des critères d'une question de l'assistant, telle que l'enchaîne AIQueryService.
+ * Ancienne version : ville cherchée par CityAutocomplete.findMentionedCity (recherche approchée sur tout
+ * le texte) puis expressions régulières compilées à chaque appel. Nouvelle version : IntentExtractor
+ * (automate d'Aho–Corasick, un seul passage), avec la même recherche approchée en repli quand aucune
+ * ville n'est citée exactement. Les allocations se comparent avec le profileur GC de JMH :
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.include=IntentExtractorBenchmark, options JMH -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntentExtractorBenchmark {
+
+    private static final String[] QUESTIONS = {
+            "Je cherche un appartement à Douala à moins de 150 000 FCFA",
+            "Appartement à louer à Yaoundé entre 100 000 et 200 000 FCFA, 3 chambres, au moins 80 m²",
+            "Quelles maisons avez-vous à Bafoussam ?",
+            "studio max 75.000 à Ngaoundéré",
+            "Villa de 5 chambres à vendre à Kribi, budget maximum 250000000",
+            "Appartement meublé à Yaonde",
+            "Bonjour, que proposez-vous en ce moment ?"
+    };
+
+    // Nombre de villes du référentiel
+    @Param({"10", "500"})
+    private int cityCount;
+
+    private CityAutocomplete cityAutocomplete;
+    private IntentExtractor extractor;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String[] names = {"Yaoundé", "Douala", "Bamenda", "Bafoussam", "Garoua", "Maroua", "Ngaoundéré", "Bertoua",
+                "Ebolowa", "Kribi"};
+        List<CityRegistry.Entry> cities = new ArrayList<>(cityCount);
+        for (int i = 0; i < cityCount; i++) {
+            cities.add(new CityRegistry.Entry((long) i + 1, i < names.length ? names[i] : "Localité " + i, "Cameroun"));
+        }
+        CityRegistry cityRegistry = new CityRegistry(null);
+        cityRegistry.load(cities);
+        cityAutocomplete = new CityAutocomplete(cityRegistry, null);
+        cityAutocomplete.rebuild();
+        extractor = new IntentExtractor(cityRegistry);
+        extractor.rebuild();
+    }
+
+    @Benchmark
+    public Object legacyRegex() {
+        return legacyExtract(nextQuestion());
+    }
+
+    @Benchmark
+    public Object ahoCorasick() {
+        String question = nextQuestion();
+        QueryIntent intent = extractor.extract(question);
+        if (intent.getCityId() == null) {
+            return cityAutocomplete.findMentionedCity(question);
+        }
+        return intent;
+    }
+
+    private String nextQuestion() {
+        next = (next + 1) % QUESTIONS.length;
+        return QUESTIONS[next];
+    }
+
+    /**
+     * Copie de AIQueryService.extractParameters avant IntentExtractor (journalisation retirée)
+     */
+    private LegacyParameters legacyExtract(String question) {
+        LegacyParameters params = new LegacyParameters();
+        String normalizedQuestion = question.toLowerCase();
+
+        params.cityName = cityAutocomplete.findMentionedCity(question);
+
+        Pattern pricePattern = Pattern.compile("(moins de|maximum|max|jusqu'à)\\s*(\\d+(?:[\\s.]?\\d+)*)");
+        Matcher priceMatcher = pricePattern.matcher(normalizedQuestion);
+        if (priceMatcher.find()) {
+            String priceStr = priceMatcher.group(2).replaceAll("[\\s.]", "");
+            try {
+                params.maxPrice = new BigDecimal(priceStr);
+            } catch (NumberFormatException e) {
+                // ignoré
+            }
+        }
+
+        if (normalizedQuestion.contains("appartement")) {
+            params.propertyType = Listing.PropertyType.APARTMENT;
+        } else if (normalizedQuestion.contains("maison")) {
+            params.propertyType = Listing.PropertyType.HOUSE;
+        } else if (normalizedQuestion.contains("villa")) {
+            params.propertyType = Listing.PropertyType.VILLA;
+        } else if (normalizedQuestion.contains("studio")) {
+            params.propertyType = Listing.PropertyType.STUDIO;
+        }
+
+        Pattern roomPattern = Pattern.compile("(\\d+)\\s*chambre");
+        Matcher roomMatcher = roomPattern.matcher(normalizedQuestion);
+        if (roomMatcher.find()) {
+            try {
+                params.minRooms = Integer.parseInt(roomMatcher.group(1));
+            } catch (NumberFormatException e) {
+                // ignoré
+            }
+        }
+        return params;
+    }
+
+    private static final class LegacyParameters {
+        String cityName;
+        BigDecimal maxPrice;
+        Listing.PropertyType propertyType;
+        Integer minRooms;
+    }
+}
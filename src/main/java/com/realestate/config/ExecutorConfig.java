@@ -0,0 +1,60 @@
+package com.realestate.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pools de threads de l'application, tous bornés (threads et file d'attente) et arrêtés par Spring.
+ * Une tâche refusée lève TaskRejectedException : l'appelant échoue tout de suite au lieu de s'empiler.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String AI_DATABASE_EXECUTOR = "aiDatabaseExecutor";
+    public static final String LISTING_IMPORT_EXECUTOR = "listingImportExecutor";
+
+    /**
+     * Exécuteur par défaut de Spring Boot (réponses asynchrones MVC, StreamingResponseBody), qui n'est plus
+     * créé automatiquement dès qu'un autre exécuteur est déclaré
+     */
+    @Lazy
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Recherche et historique de l'assistant : borné par le pool JDBC, au plus threads connexions
+     * prises par l'assistant
+     */
+    @Bean(name = AI_DATABASE_EXECUTOR)
+    public ThreadPoolTaskExecutor aiDatabaseExecutor(@Value("${ai.database-threads:4}") int threads,
+                                                     @Value("${ai.database-queue-capacity:100}") int queueCapacity) {
+        return boundedExecutor("ai-db-", threads, queueCapacity);
+    }
+
+    /**
+     * Un seul import à la fois : deux imports simultanés se disputeraient la base sans aller plus vite
+     */
+    @Bean(name = LISTING_IMPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor listingImportExecutor(@Value("${file.import-queue-capacity:20}") int queueCapacity) {
+        return boundedExecutor("listing-import-", 1, queueCapacity);
+    }
+
+    private static ThreadPoolTaskExecutor boundedExecutor(String threadNamePrefix, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
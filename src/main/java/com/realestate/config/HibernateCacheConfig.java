@@ -0,0 +1,68 @@
+package com.realestate.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Cache de second niveau Hibernate : JCache servi par Caffeine, dans le tas.
+ * Chaque région a sa taille et sa durée de vie (app.cache.regions.&lt;région&gt;.max-size / ttl) ;
+ * une région absente fait échouer le démarrage plutôt que d'être créée sans limite.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String PROPERTY_REGION = "property";
+    public static final String LISTING_REGION = "listing";
+    public static final String CITY_REGION = "city";
+    public static final String USER_REGION = "user";
+    public static final List<String> ENTITY_REGIONS = List.of(PROPERTY_REGION, LISTING_REGION, CITY_REGION, USER_REGION);
+
+    private static final String REGION_PREFIX = "app.cache.regions.";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        for (String region : ENTITY_REGIONS) {
+            createRegion(cacheManager, region, environment);
+        }
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, environment);
+
+        // Horodatage des dernières écritures par table : ni éviction ni expiration, sinon le cache
+        // de requêtes servirait des résultats périmés
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, Environment environment) {
+        long maxSize = environment.getRequiredProperty(REGION_PREFIX + region + ".max-size", Long.class);
+        Duration ttl = environment.getRequiredProperty(REGION_PREFIX + region + ".ttl", Duration.class);
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -1,9 +1,11 @@
 package com.realestate.controller;
 
+import com.realestate.dto.AIAnswerCacheStatsDTO;
 import com.realestate.dto.AIQueryRequest;
 import com.realestate.dto.AIQueryResponse;
 import com.realestate.entity.AIQuery;
 import com.realestate.entity.User;
+import com.realestate.service.AIAnswerCache;
 import com.realestate.service.AIQueryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -11,13 +13,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/ai")
@@ -28,34 +37,61 @@ public class AIController {
     private static final Logger logger = LoggerFactory.getLogger(AIController.class);
 
     private final AIQueryService aiQueryService;
+    private final AIAnswerCache answerCache;
+    private final Duration requestTimeout;
 
-    public AIController(AIQueryService aiQueryService) {
+    public AIController(AIQueryService aiQueryService,
+                        AIAnswerCache answerCache,
+                        @Value("${ai.request-timeout:60s}") Duration requestTimeout) {
         this.aiQueryService = aiQueryService;
+        this.answerCache = answerCache;
+        this.requestTimeout = requestTimeout;
     }
 
     @PostMapping("/query")
     @Operation(summary = "Poser une question à l'assistant IA",
               description = "Envoyez une question en langage naturel sur l'immobilier")
-    public ResponseEntity<AIQueryResponse> askQuestion(
+    public DeferredResult<ResponseEntity<AIQueryResponse>> askQuestion(
             @Valid @RequestBody AIQueryRequest request,
             @AuthenticationPrincipal User user) {
         
         logger.info("AI query received from user {}: {}", user.getId(), request.getQuestion());
-        
-        try {
-            AIQueryResponse response = aiQueryService.processQuery(request, user);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error processing AI query for user {}: {}", user.getId(), e.getMessage());
-            
-            AIQueryResponse errorResponse = new AIQueryResponse(
-                "Je suis désolé, une erreur s'est produite. Veuillez réessayer.",
-                null,
-                0,
-                0
-            );
-            return ResponseEntity.ok(errorResponse);
-        }
+
+        // Le thread de la requête est libéré tout de suite ; la réponse est écrite à la fin du traitement
+        DeferredResult<ResponseEntity<AIQueryResponse>> result =
+                new DeferredResult<>(requestTimeout.toMillis(), errorResponse());
+        result.onTimeout(() -> logger.warn("AI query for user {} timed out after {}", user.getId(), requestTimeout));
+
+        aiQueryService.processQuery(request, user).whenComplete((response, e) -> {
+            if (e != null) {
+                logger.error("Error processing AI query for user {}: {}", user.getId(), e.getMessage());
+                result.setResult(errorResponse());
+            } else {
+                result.setResult(ResponseEntity.ok(response));
+            }
+        });
+        return result;
+    }
+
+    @PostMapping(value = "/query/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Poser une question à l'assistant IA (réponse en flux)",
+              description = "Server-Sent Events : \"listings\" (biens trouvés), puis \"token\" (fragments de la réponse), " +
+                      "puis \"done\" (réponse complète) ou \"error\"")
+    public Flux<ServerSentEvent<AIQueryResponse>> streamQuestion(
+            @Valid @RequestBody AIQueryRequest request,
+            @AuthenticationPrincipal User user) {
+
+        logger.info("Streaming AI query received from user {}: {}", user.getId(), request.getQuestion());
+        return aiQueryService.streamQuery(request, user);
+    }
+
+    private static ResponseEntity<AIQueryResponse> errorResponse() {
+        return ResponseEntity.ok(new AIQueryResponse(
+            "Je suis désolé, une erreur s'est produite. Veuillez réessayer.",
+            null,
+            0,
+            0
+        ));
     }
 
     @GetMapping("/history")
@@ -85,4 +121,12 @@ public class AIController {
         
         return ResponseEntity.ok(queries);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/admin/cache")
+    @Operation(summary = "Statistiques du cache de réponses IA",
+              description = "Taux de succès, invalidations, appels au modèle, durée et tokens économisés (ADMIN seulement)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AIAnswerCacheStatsDTO> getAnswerCacheStats() {
+        return ResponseEntity.ok(answerCache.stats());
+    }
+}
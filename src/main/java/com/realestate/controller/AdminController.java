@@ -5,6 +5,9 @@ import com.realestate.dto.UserDTO;
 import com.realestate.entity.Property;
 import com.realestate.entity.User;
 import com.realestate.dto.AdminStatsDTO;
+import com.realestate.dto.CacheRegionStatsDTO;
+import com.realestate.dto.CacheStatsDTO;
+import com.realestate.search.SearchResultCache;
 import com.realestate.service.AdminService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -25,9 +28,11 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final SearchResultCache searchResultCache;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, SearchResultCache searchResultCache) {
         this.adminService = adminService;
+        this.searchResultCache = searchResultCache;
     }
 
     @GetMapping("/users")
@@ -90,4 +95,16 @@ public class AdminController {
     public ResponseEntity<AdminStatsDTO> getStats() {
         return ResponseEntity.ok(adminService.getPlatformStats());
     }
+
+    @GetMapping("/cache/search")
+    @Operation(summary = "Statistiques du cache des résultats de recherche")
+    public ResponseEntity<CacheStatsDTO> getSearchCacheStats() {
+        return ResponseEntity.ok(searchResultCache.stats());
+    }
+
+    @GetMapping("/cache/entities")
+    @Operation(summary = "Statistiques du cache de second niveau Hibernate, par région")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getEntityCacheStats() {
+        return ResponseEntity.ok(adminService.getEntityCacheStats());
+    }
 }
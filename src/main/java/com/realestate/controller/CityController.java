@@ -0,0 +1,47 @@
+package com.realestate.controller;
+
+import com.realestate.dto.CityDTO;
+import com.realestate.service.CityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cities")
+@RequiredArgsConstructor
+@Tag(name = "Cities", description = "API des villes")
+public class CityController {
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final CityService cityService;
+
+    @GetMapping("/suggest")
+    @Operation(
+        summary = "Autocomplétion des villes",
+        description = "Villes dont le nom ou l'un de ses mots commence par la saisie (accents et casse ignorés), " +
+                      "avec leur nombre d'annonces actives"
+    )
+    public ResponseEntity<List<CityDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(cityService.suggest(q, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS)));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Ajouter une ville")
+    public ResponseEntity<CityDTO> createCity(@Valid @RequestBody CityDTO cityDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(cityService.createCity(cityDTO));
+    }
+}
@@ -0,0 +1,225 @@
+package com.realestate.controller;
+
+import com.realestate.dto.ExportFormat;
+import com.realestate.dto.ImportJobDTO;
+import com.realestate.dto.ListingDTO;
+import com.realestate.dto.ListingSearchResponse;
+import com.realestate.dto.ListingSummaryDTO;
+import com.realestate.dto.MapClustersDTO;
+import com.realestate.dto.ScrollResponse;
+import com.realestate.dto.ScrollSort;
+import com.realestate.entity.Listing;
+import com.realestate.search.ListingFilter;
+import com.realestate.service.ListingImportService;
+import com.realestate.service.ListingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/listings")
+@RequiredArgsConstructor
+@Tag(name = "Listings", description = "API de consultation des annonces")
+public class ListingController {
+
+    private static final int MAX_SCROLL_SIZE = 50;
+    private static final int MAX_GEO_RESULTS = 200;
+    private static final double MAX_RADIUS_KM = 100;
+    private static final int MAX_SIMILAR_RESULTS = 20;
+
+    private final ListingService listingService;
+    private final ListingImportService listingImportService;
+
+    @GetMapping
+    @Operation(
+        summary = "Rechercher des annonces actives",
+        description = "Retourne une page d'annonces actives correspondant aux filtres, accompagnée des " +
+                      "compteurs par ville, type de bien, type de transaction et tranche de prix. q recherche des mots " +
+                      "du titre ou de la ville sans tenir compte des accents ; fuzzy=true tolère aussi les fautes de frappe"
+    )
+    public ResponseEntity<ListingSearchResponse> searchListings(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Listing.PropertyType propertyType,
+            @RequestParam(required = false) Listing.TransactionType transactionType,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer minSurface,
+            @RequestParam(required = false) Integer maxSurface,
+            @RequestParam(required = false) Integer minRooms,
+            @RequestParam(required = false) Integer maxRooms,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "true") boolean facets,
+            @Parameter(hidden = true) @PageableDefault(size = 10) Pageable pageable) {
+
+        ListingFilter filter = new ListingFilter(city, propertyType, transactionType,
+                minPrice, maxPrice, minSurface, maxSurface, minRooms, maxRooms, q, fuzzy);
+        return ResponseEntity.ok(listingService.searchListings(filter, pageable, facets));
+    }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Exporter les annonces actives",
+        description = "Exporte en flux (CSV ou NDJSON) toutes les annonces actives correspondant aux filtres, " +
+                      "sans pagination. q cherche une sous-chaîne du titre."
+    )
+    public ResponseEntity<StreamingResponseBody> exportListings(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Listing.PropertyType propertyType,
+            @RequestParam(required = false) Listing.TransactionType transactionType,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer minSurface,
+            @RequestParam(required = false) Integer maxSurface,
+            @RequestParam(required = false) Integer minRooms,
+            @RequestParam(required = false) Integer maxRooms,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+
+        ListingFilter filter = new ListingFilter(city, propertyType, transactionType,
+                minPrice, maxPrice, minSurface, maxSurface, minRooms, maxRooms, q, false);
+        StreamingResponseBody body = output -> listingService.exportListings(filter, format, output);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"listings." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "Importer des annonces en masse",
+        description = "Enregistre le fichier (CSV avec les colonnes de l'export, ou NDJSON / tableau JSON) et lance " +
+                      "l'import en arrière-plan. La ville est désignée par cityName. Les lignes invalides sont " +
+                      "rejetées sans interrompre l'import ; la progression se suit sur /import/{id}."
+    )
+    public ResponseEntity<ImportJobDTO> importListings(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestHeader("Authorization") String token) {
+        return ResponseEntity.accepted().body(listingImportService.startImport(file, format, token));
+    }
+
+    @GetMapping("/import/{id}")
+    @Operation(summary = "Progression d'un import d'annonces")
+    public ResponseEntity<ImportJobDTO> getImport(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String token) {
+        return ResponseEntity.ok(listingImportService.getImport(id, token));
+    }
+
+    @PostMapping("/import/{id}/resume")
+    @Operation(
+        summary = "Reprendre un import échoué",
+        description = "Repart de la première ligne qui suit le dernier lot enregistré"
+    )
+    public ResponseEntity<ImportJobDTO> resumeImport(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String token) {
+        return ResponseEntity.accepted().body(listingImportService.resumeImport(id, token));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(
+        summary = "Parcourir les annonces actives par curseur",
+        description = "Pagination par curseur (keyset) sans comptage : passer le nextCursor de la réponse " +
+                      "précédente pour obtenir la tranche suivante. includeTotal=true ajoute un total approximatif."
+    )
+    public ResponseEntity<ScrollResponse<ListingDTO>> scrollListings(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Listing.PropertyType propertyType,
+            @RequestParam(required = false) Listing.TransactionType transactionType,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer minSurface,
+            @RequestParam(required = false) Integer maxSurface,
+            @RequestParam(required = false) Integer minRooms,
+            @RequestParam(required = false) Integer maxRooms,
+            @RequestParam(defaultValue = "NEWEST") ScrollSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        return ResponseEntity.ok(
+            listingService.scrollWithFilters(city, propertyType, transactionType, minPrice, maxPrice,
+                minSurface, maxSurface, minRooms, maxRooms,
+                sort, cursor, Math.min(Math.max(size, 1), MAX_SCROLL_SIZE), includeTotal)
+        );
+    }
+
+    @GetMapping("/nearby")
+    @Operation(
+        summary = "Annonces autour d'un point",
+        description = "Retourne les annonces actives situées dans un rayon (km) autour du point, " +
+                      "les plus proches en premier, avec leur distance"
+    )
+    public ResponseEntity<List<ListingDTO>> findNearby(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        return ResponseEntity.ok(listingService.findNearby(lat, lng, Math.min(radiusKm, MAX_RADIUS_KM),
+                Math.min(Math.max(limit, 1), MAX_GEO_RESULTS)));
+    }
+
+    @GetMapping("/within")
+    @Operation(
+        summary = "Annonces dans une zone de carte",
+        description = "Retourne les annonces actives situées dans le rectangle (south, west, north, east), " +
+                      "triées par distance au point de référence (centre de la zone par défaut)"
+    )
+    public ResponseEntity<List<ListingDTO>> findWithinBounds(
+            @RequestParam double south,
+            @RequestParam double west,
+            @RequestParam double north,
+            @RequestParam double east,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        return ResponseEntity.ok(listingService.findWithinBounds(south, west, north, east, lat, lng,
+                Math.min(Math.max(limit, 1), MAX_GEO_RESULTS)));
+    }
+
+    @GetMapping("/clusters")
+    @Operation(
+        summary = "Clusters de marqueurs pour la carte",
+        description = "Regroupe les annonces actives de la zone par cellule de grille selon le niveau de zoom " +
+                      "(0-18) : nombre d'annonces, barycentre, prix minimum et médian. Le zoom est réduit " +
+                      "si nécessaire pour borner le nombre de clusters renvoyés."
+    )
+    public ResponseEntity<MapClustersDTO> getMapClusters(
+            @RequestParam double south,
+            @RequestParam double west,
+            @RequestParam double north,
+            @RequestParam double east,
+            @RequestParam int zoom) {
+
+        return ResponseEntity.ok(listingService.getMapClusters(south, west, north, east, zoom));
+    }
+
+    @GetMapping("/{id}/similar")
+    @Operation(
+        summary = "Annonces similaires",
+        description = "Annonces actives les plus proches de l'annonce (prix, surface, pièces, position, type, ville), " +
+                      "avec un score de similarité entre 0 et 1"
+    )
+    public ResponseEntity<List<ListingSummaryDTO>> findSimilarListings(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "6") int limit) {
+
+        return ResponseEntity.ok(listingService.findSimilarListings(id, Math.min(Math.max(limit, 1), MAX_SIMILAR_RESULTS)));
+    }
+}
@@ -1,6 +1,10 @@
 package com.realestate.controller;
 
+import com.realestate.dto.ExportFormat;
 import com.realestate.dto.PropertyDTO;
+import com.realestate.dto.PropertySummaryDTO;
+import com.realestate.dto.ScrollResponse;
+import com.realestate.dto.ScrollSort;
 import com.realestate.entity.PropertyType;
 import com.realestate.service.PropertyService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,11 +15,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -26,12 +32,15 @@ import java.util.List;
 @Tag(name = "Properties", description = "API pour la gestion des biens immobiliers")
 public class PropertyController {
 
+    private static final int MAX_SCROLL_SIZE = 50;
+
     private final PropertyService propertyService;
 
     @GetMapping
     @Operation(
         summary = "Rechercher des biens immobiliers",
-        description = "Retourne une page de biens immobiliers correspondant aux critères de recherche"
+        description = "Retourne une page de biens immobiliers correspondant aux critères de recherche. " +
+                      "Avec des mots-clés, sort=relevance classe les résultats par pertinence (BM25, titre renforcé)"
     )
     public ResponseEntity<Page<PropertyDTO>> searchProperties(
             @RequestParam(required = false) String query,
@@ -48,6 +57,76 @@ public class PropertyController {
         );
     }
 
+    @GetMapping("/summaries")
+    @Operation(
+        summary = "Rechercher des biens immobiliers (résumés)",
+        description = "Mêmes critères que la recherche, chaque bien réduit aux colonnes des listes " +
+                      "et à sa première image"
+    )
+    public ResponseEntity<Page<PropertySummaryDTO>> searchPropertySummaries(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Double minSurface,
+            @RequestParam(required = false) Integer rooms,
+            @RequestParam(required = false) PropertyType type,
+            @Parameter(hidden = true) @PageableDefault(size = 10) Pageable pageable) {
+        
+        return ResponseEntity.ok(
+            propertyService.searchPropertySummaries(query, city, minPrice, maxPrice, minSurface, rooms, type, pageable)
+        );
+    }
+
+    @GetMapping("/scroll")
+    @Operation(
+        summary = "Parcourir les biens immobiliers par curseur",
+        description = "Pagination par curseur (keyset) sans comptage : passer le nextCursor de la réponse " +
+                      "précédente pour obtenir la tranche suivante. includeTotal=true ajoute un total approximatif."
+    )
+    public ResponseEntity<ScrollResponse<PropertySummaryDTO>> scrollProperties(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Double minSurface,
+            @RequestParam(required = false) Integer rooms,
+            @RequestParam(required = false) PropertyType type,
+            @RequestParam(defaultValue = "NEWEST") ScrollSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        return ResponseEntity.ok(
+            propertyService.scrollProperties(query, city, minPrice, maxPrice, minSurface, rooms, type,
+                sort, cursor, Math.min(Math.max(size, 1), MAX_SCROLL_SIZE), includeTotal)
+        );
+    }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Exporter les biens immobiliers",
+        description = "Exporte en flux (CSV ou NDJSON) tous les biens correspondant aux critères de recherche, " +
+                      "sans pagination"
+    )
+    public ResponseEntity<StreamingResponseBody> exportProperties(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Double minSurface,
+            @RequestParam(required = false) Integer rooms,
+            @RequestParam(required = false) PropertyType type,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        
+        StreamingResponseBody body = output -> propertyService.exportProperties(
+            query, city, minPrice, maxPrice, minSurface, rooms, type, format, output);
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"properties." + format.getExtension() + "\"")
+            .body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtenir les détails d'un bien immobilier")
     public ResponseEntity<PropertyDTO> getProperty(@PathVariable Long id) {
@@ -123,4 +202,16 @@ public class PropertyController {
         
         return ResponseEntity.ok(propertyService.getUserProperties(token));
     }
+
+    @GetMapping("/my-properties/summaries")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(
+        summary = "Obtenir la liste des biens de l'utilisateur connecté (résumés)",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<List<PropertySummaryDTO>> getUserPropertySummaries(
+            @RequestHeader("Authorization") String token) {
+        
+        return ResponseEntity.ok(propertyService.getUserPropertySummaries(token));
+    }
 }
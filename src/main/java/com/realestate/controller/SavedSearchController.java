@@ -0,0 +1,64 @@
+package com.realestate.controller;
+
+import com.realestate.dto.SavedSearchDTO;
+import com.realestate.entity.User;
+import com.realestate.service.SavedSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@RequiredArgsConstructor
+@Tag(name = "Saved Searches", description = "Recherches sauvegardées et alertes sur les nouvelles annonces")
+@SecurityRequirement(name = "bearerAuth")
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Lister mes recherches sauvegardées")
+    public ResponseEntity<List<SavedSearchDTO>> getMySavedSearches(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(savedSearchService.getUserSavedSearches(user));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Sauvegarder une recherche",
+              description = "Une notification SAVED_SEARCH_MATCH est envoyée pour chaque nouvelle annonce correspondante " +
+                            "tant que alertsEnabled vaut true ; les annonces importées en masse sont regroupées " +
+                            "en une notification SAVED_SEARCH_DIGEST par lot")
+    public ResponseEntity<SavedSearchDTO> createSavedSearch(
+            @Valid @RequestBody SavedSearchDTO savedSearchDTO,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedSearchService.createSavedSearch(savedSearchDTO, user));
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Modifier une recherche sauvegardée")
+    public ResponseEntity<SavedSearchDTO> updateSavedSearch(
+            @PathVariable Long id,
+            @Valid @RequestBody SavedSearchDTO savedSearchDTO,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(savedSearchService.updateSavedSearch(id, savedSearchDTO, user));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Supprimer une recherche sauvegardée")
+    public ResponseEntity<Void> deleteSavedSearch(@PathVariable Long id, @AuthenticationPrincipal User user) {
+        savedSearchService.deleteSavedSearch(id, user);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.realestate.dto;
+
+import lombok.Data;
+
+@Data
+public class AIAnswerCacheStatsDTO {
+    private long estimatedSize;
+    private long maximumSize;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long invalidationCount;
+    // Appels au modèle évités, avec leur durée et leurs tokens cumulés
+    private long savedModelCalls;
+    private long savedModelMillis;
+    private long savedTokens;
+}
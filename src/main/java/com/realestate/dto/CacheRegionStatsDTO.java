@@ -0,0 +1,13 @@
+package com.realestate.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheRegionStatsDTO {
+    private String region;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private double hitRate;
+}
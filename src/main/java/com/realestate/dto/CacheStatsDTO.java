@@ -0,0 +1,16 @@
+package com.realestate.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsDTO {
+    private long estimatedSize;
+    private long weightedSize;
+    private long maximumWeight;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long evictionWeight;
+    private long invalidationCount;
+}
@@ -0,0 +1,22 @@
+package com.realestate.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CityDTO {
+    private Long id;
+
+    @NotBlank(message = "City name is required")
+    private String name;
+
+    @NotBlank(message = "Country is required")
+    private String country;
+
+    // Nombre d'annonces actives, renseigné par l'autocomplétion
+    private Integer listingCount;
+}
@@ -0,0 +1,23 @@
+package com.realestate.dto;
+
+import com.realestate.entity.ImportJob;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class ImportJobDTO {
+    private Long id;
+    private ImportJob.Status status;
+    private ExportFormat format;
+    private String fileName;
+    private long processedRows;
+    private long importedRows;
+    private long rejectedRows;
+    private List<String> rejections;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
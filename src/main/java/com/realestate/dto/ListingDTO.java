@@ -0,0 +1,30 @@
+package com.realestate.dto;
+
+import com.realestate.entity.Listing;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class ListingDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private BigDecimal price;
+    private Integer surfaceArea;
+    private Integer rooms;
+    private Integer bedrooms;
+    private Integer bathrooms;
+    private Listing.PropertyType propertyType;
+    private Listing.TransactionType transactionType;
+    private Listing.Status status;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private Long cityId;
+    private String cityName;
+    private LocalDateTime createdAt;
+    // Renseignée uniquement par les recherches géographiques
+    private Double distanceKm;
+}
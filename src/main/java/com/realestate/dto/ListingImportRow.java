@@ -0,0 +1,66 @@
+package com.realestate.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.realestate.entity.Listing;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Une ligne de fichier d'import d'annonces. Les colonnes reprennent celles de l'export
+ * (id, cityId, createdAt... sont ignorés) ; la ville est désignée par son nom.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ListingImportRow {
+
+    @NotBlank(message = "title is required")
+    @Size(max = 255, message = "title must be at most 255 characters")
+    private String title;
+
+    private String description;
+
+    @NotNull(message = "price is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "price must be greater than 0")
+    @Digits(integer = 10, fraction = 2, message = "price must have at most 10 digits and 2 decimals")
+    private BigDecimal price;
+
+    @Min(value = 1, message = "surfaceArea must be at least 1")
+    private Integer surfaceArea;
+
+    @Min(value = 1, message = "rooms must be at least 1")
+    private Integer rooms;
+
+    @Min(value = 1, message = "bedrooms must be at least 1")
+    private Integer bedrooms;
+
+    @Min(value = 1, message = "bathrooms must be at least 1")
+    private Integer bathrooms;
+
+    @NotNull(message = "propertyType is required")
+    private Listing.PropertyType propertyType;
+
+    @NotNull(message = "transactionType is required")
+    private Listing.TransactionType transactionType;
+
+    @Size(max = 255, message = "address must be at most 255 characters")
+    private String address;
+
+    @NotBlank(message = "cityName is required")
+    private String cityName;
+
+    @DecimalMin(value = "-90.0", message = "latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "longitude must be between -180 and 180")
+    private Double longitude;
+}
@@ -0,0 +1,14 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingSearchResponse {
+    private Page<ListingDTO> results;
+    private SearchFacetsDTO facets;
+}
@@ -0,0 +1,38 @@
+package com.realestate.dto;
+
+import com.realestate.entity.Listing;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection légère d'une annonce (vignette), chargée directement par une requête JPQL
+ */
+@Data
+@NoArgsConstructor
+public class ListingSummaryDTO {
+    private Long id;
+    private String title;
+    private BigDecimal price;
+    private Integer surfaceArea;
+    private Integer rooms;
+    private Listing.PropertyType propertyType;
+    private Listing.TransactionType transactionType;
+    private String cityName;
+    // Score de similarité entre 0 et 1, renseigné par la recherche d'annonces similaires
+    private Double similarity;
+
+    public ListingSummaryDTO(Long id, String title, BigDecimal price, Integer surfaceArea, Integer rooms,
+                             Listing.PropertyType propertyType, Listing.TransactionType transactionType,
+                             String cityName) {
+        this.id = id;
+        this.title = title;
+        this.price = price;
+        this.surfaceArea = surfaceArea;
+        this.rooms = rooms;
+        this.propertyType = propertyType;
+        this.transactionType = transactionType;
+        this.cityName = cityName;
+    }
+}
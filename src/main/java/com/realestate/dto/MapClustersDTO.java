@@ -0,0 +1,33 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Marqueurs agrégés d'une zone de carte : un cluster par cellule de grille non vide.
+ * zoom est le niveau réellement utilisé, éventuellement réduit pour borner le nombre de cellules.
+ */
+@Data
+public class MapClustersDTO {
+    private int zoom;
+    private long totalCount;
+    private List<Cluster> clusters = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cluster {
+        private double latitude;
+        private double longitude;
+        private int count;
+        private BigDecimal minPrice;
+        private BigDecimal medianPrice;
+        // Renseigné quand le cluster ne contient qu'une annonce
+        private Long listingId;
+    }
+}
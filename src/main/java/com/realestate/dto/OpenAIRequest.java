@@ -14,6 +14,9 @@ public class OpenAIRequest {
     
     private Double temperature;
 
+    // Réponse envoyée par morceaux (Server-Sent Events), absent du JSON quand null
+    private Boolean stream;
+
     public static class Message {
         private String role;
         private String content;
@@ -52,4 +55,7 @@ public class OpenAIRequest {
 
     public Double getTemperature() { return temperature; }
     public void setTemperature(Double temperature) { this.temperature = temperature; }
+
+    public Boolean getStream() { return stream; }
+    public void setStream(Boolean stream) { this.stream = stream; }
 }
\ No newline at end of file
@@ -16,6 +16,9 @@ public class OpenAIResponse {
     public static class Choice {
         private int index;
         private Message message;
+
+        // Fragment de réponse en mode stream (objet "chat.completion.chunk")
+        private Message delta;
         
         @JsonProperty("finish_reason")
         private String finishReason;
@@ -26,6 +29,9 @@ public class OpenAIResponse {
         public Message getMessage() { return message; }
         public void setMessage(Message message) { this.message = message; }
 
+        public Message getDelta() { return delta; }
+        public void setDelta(Message delta) { this.delta = delta; }
+
         public String getFinishReason() { return finishReason; }
         public void setFinishReason(String finishReason) { this.finishReason = finishReason; }
     }
@@ -0,0 +1,57 @@
+package com.realestate.dto;
+
+import com.realestate.entity.PropertyStatus;
+import com.realestate.entity.PropertyType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection d'un bien pour les listes (recherche, défilement, mes biens), chargée en une seule
+ * requête JPQL : colonnes utiles, première image et nom du propriétaire, sans charger l'entité
+ */
+@Data
+@NoArgsConstructor
+public class PropertySummaryDTO {
+    private Long id;
+    private String title;
+    private PropertyType type;
+    private PropertyStatus status;
+    private BigDecimal price;
+    private Double surface;
+    private Integer rooms;
+    private Integer bedrooms;
+    private Integer bathrooms;
+    private String city;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private boolean featured;
+    private String coverImageUrl;
+    private Long ownerId;
+    private String ownerName;
+
+    public PropertySummaryDTO(Long id, String title, PropertyType type, PropertyStatus status, BigDecimal price,
+                              Double surface, Integer rooms, Integer bedrooms, Integer bathrooms,
+                              String city, String address, Double latitude, Double longitude, boolean featured,
+                              String coverImageUrl, Long ownerId, String ownerFirstName, String ownerLastName) {
+        this.id = id;
+        this.title = title;
+        this.type = type;
+        this.status = status;
+        this.price = price;
+        this.surface = surface;
+        this.rooms = rooms;
+        this.bedrooms = bedrooms;
+        this.bathrooms = bathrooms;
+        this.city = city;
+        this.address = address;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.featured = featured;
+        this.coverImageUrl = coverImageUrl;
+        this.ownerId = ownerId;
+        this.ownerName = ownerId != null ? ownerFirstName + " " + ownerLastName : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.realestate.dto;
+
+import com.realestate.entity.Listing;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Contenu de la notification envoyée quand une nouvelle annonce correspond à des recherches sauvegardées
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchAlertDTO {
+    private Long listingId;
+    private String title;
+    private BigDecimal price;
+    private String cityName;
+    private Listing.PropertyType propertyType;
+    private Listing.TransactionType transactionType;
+    private List<Long> savedSearchIds;
+}
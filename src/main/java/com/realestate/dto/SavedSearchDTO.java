@@ -0,0 +1,28 @@
+package com.realestate.dto;
+
+import com.realestate.entity.Listing;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class SavedSearchDTO {
+    private Long id;
+
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    private String cityName;
+    private Listing.PropertyType propertyType;
+    private Listing.TransactionType transactionType;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minSurface;
+    private Integer maxSurface;
+    private Integer minRooms;
+    private Integer maxRooms;
+    private Boolean alertsEnabled;
+    private LocalDateTime createdAt;
+}
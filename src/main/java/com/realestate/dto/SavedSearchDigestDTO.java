@@ -0,0 +1,20 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Annonces d'un même lot importé correspondant à une recherche sauvegardée, envoyées en une seule notification
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchDigestDTO {
+    private Long savedSearchId;
+    // Nombre total d'annonces correspondantes, listings n'en contient que les premières
+    private int matchCount;
+    private List<SavedSearchAlertDTO> listings;
+}
@@ -0,0 +1,25 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Tranche de résultats paginée par curseur, sans comptage exact
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScrollResponse<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long approximateTotal;
+
+    public static <T> ScrollResponse<T> empty() {
+        return new ScrollResponse<>(List.of(), 0, false, null, null);
+    }
+}
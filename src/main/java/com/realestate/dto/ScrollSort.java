@@ -0,0 +1,36 @@
+package com.realestate.dto;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Ordres de tri disponibles pour la pagination par curseur (keyset).
+ * L'identifiant sert toujours de départage pour garantir un ordre total.
+ */
+public enum ScrollSort {
+    NEWEST(null, Sort.Direction.DESC),
+    PRICE_ASC("price", Sort.Direction.ASC),
+    PRICE_DESC("price", Sort.Direction.DESC);
+
+    private final String keyAttribute;
+    private final Sort.Direction direction;
+
+    ScrollSort(String keyAttribute, Sort.Direction direction) {
+        this.keyAttribute = keyAttribute;
+        this.direction = direction;
+    }
+
+    public String getKeyAttribute() {
+        return keyAttribute;
+    }
+
+    public boolean isDescending() {
+        return direction == Sort.Direction.DESC;
+    }
+
+    public Sort toSort() {
+        if (keyAttribute == null) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, keyAttribute).and(Sort.by(direction, "id"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.realestate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nombre de résultats par valeur de facette. Chaque facette est calculée avec tous les filtres
+ * courants sauf le sien, pour que l'interface puisse proposer les valeurs alternatives.
+ */
+@Data
+public class SearchFacetsDTO {
+    private Map<String, Long> cities = new LinkedHashMap<>();
+    private Map<String, Long> propertyTypes = new LinkedHashMap<>();
+    private Map<String, Long> transactionTypes = new LinkedHashMap<>();
+    private List<RangeCount> priceRanges = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RangeCount {
+        private BigDecimal min;
+        private BigDecimal max;
+        private long count;
+    }
+}
@@ -7,7 +7,19 @@ import jakarta.persistence.PreUpdate;
 
 @Entity
 @Data
+@NamedEntityGraph(
+    name = Appointment.WITH_PARTICIPANTS,
+    attributeNodes = {
+        @NamedAttributeNode(value = "property", subgraph = "property"),
+        @NamedAttributeNode("visitor")
+    },
+    subgraphs = @NamedSubgraph(name = "property", attributeNodes = @NamedAttributeNode("owner"))
+)
 public class Appointment {
+    
+    // Bien, propriétaire du bien et visiteur : tout ce que lisent le DTO et les notifications
+    public static final String WITH_PARTICIPANTS = "Appointment.withParticipants";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -1,11 +1,15 @@
 package com.realestate.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.realestate.search.CityJsonSerializer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,10 +17,18 @@ import java.util.List;
 
 @Entity
 @Table(name = "listings")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "listing")
 public class Listing {
     
+    // Séquence à optimiseur "pooled" : 50 identifiants par aller-retour, ce qui permet à Hibernate
+    // de regrouper les insertions en lots JDBC (impossible avec IDENTITY). Créée et alignée sur les
+    // identifiants existants par la migration V2__listings_id_sequence
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "listings_seq")
+    @SequenceGenerator(name = "listings_seq", sequenceName = "listings_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -79,10 +91,16 @@ public class Listing {
     @JsonIgnore
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Chargée à la demande : le nom de la ville est lu dans CityRegistry à partir de cityId,
+    // y compris pour le JSON de l'annonce
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "city_id", nullable = false)
+    @JsonSerialize(using = CityJsonSerializer.class)
     private City city;
 
+    @Column(name = "city_id", insertable = false, updatable = false)
+    private Long cityId;
+
     @OneToMany(mappedBy = "listing", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<ListingMedia> media;
 
@@ -166,7 +184,12 @@ public class Listing {
     public void setUser(User user) { this.user = user; }
 
     public City getCity() { return city; }
-    public void setCity(City city) { this.city = city; }
+    public void setCity(City city) {
+        this.city = city;
+        this.cityId = city != null ? city.getId() : null;
+    }
+
+    public Long getCityId() { return cityId; }
 
     public List<ListingMedia> getMedia() { return media; }
     public void setMedia(List<ListingMedia> media) { this.media = media; }
@@ -0,0 +1,75 @@
+package com.realestate.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Avancement d'une tâche de maintenance parcourant une table par lots ordonnés par identifiant.
+ * lastId est enregistré dans la même transaction que chaque lot : un redémarrage reprend juste après,
+ * avec la même date limite, au lieu de reparcourir la table.
+ */
+@Entity
+@Table(name = "maintenance_checkpoints")
+public class MaintenanceCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String task;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    @Column(name = "updated_rows", nullable = false)
+    private long updatedRows;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public MaintenanceCheckpoint() {}
+
+    public MaintenanceCheckpoint(String task) {
+        this.task = task;
+    }
+
+    /**
+     * Nouveau parcours depuis le début de la table
+     */
+    public void restart(LocalDateTime cutoff, LocalDateTime now) {
+        this.lastId = 0;
+        this.cutoff = cutoff;
+        this.updatedRows = 0;
+        this.startedAt = now;
+        this.completedAt = null;
+    }
+
+    public boolean isInProgress() {
+        return startedAt != null && completedAt == null;
+    }
+
+    // Getters and Setters
+    public String getTask() { return task; }
+    public void setTask(String task) { this.task = task; }
+
+    public long getLastId() { return lastId; }
+    public void setLastId(long lastId) { this.lastId = lastId; }
+
+    public LocalDateTime getCutoff() { return cutoff; }
+    public void setCutoff(LocalDateTime cutoff) { this.cutoff = cutoff; }
+
+    public long getUpdatedRows() { return updatedRows; }
+    public void setUpdatedRows(long updatedRows) { this.updatedRows = updatedRows; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
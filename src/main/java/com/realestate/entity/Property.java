@@ -2,6 +2,8 @@ package com.realestate.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.awt.*;
 import java.math.BigDecimal;
@@ -11,7 +13,13 @@ import java.util.List;
 
 @Entity
 @Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "property")
+@NamedEntityGraph(name = Property.WITH_OWNER, attributeNodes = @NamedAttributeNode("owner"))
 public class Property {
+    
+    public static final String WITH_OWNER = "Property.withOwner";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -51,7 +59,9 @@ public class Property {
     
     private Integer co2Emission;
     
+    // Ordre d'ajout conservé : la première image sert de couverture (PropertySummaryDTO)
     @ElementCollection
+    @OrderColumn(name = "image_order")
     private List<String> imageUrls = new ArrayList<>();
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -61,5 +71,16 @@ public class Property {
     @Enumerated(EnumType.STRING)
     private PropertyStatus status = PropertyStatus.AVAILABLE;
     
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
     // Getters and setters are handled by @Data
 }
@@ -0,0 +1,115 @@
+package com.realestate.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "saved_searches", indexes = {
+    @Index(name = "idx_saved_searches_user", columnList = "user_id")
+})
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnore
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "city_id")
+    private City city;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "property_type")
+    private Listing.PropertyType propertyType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type")
+    private Listing.TransactionType transactionType;
+
+    @Column(name = "min_price", precision = 12, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(name = "max_price", precision = 12, scale = 2)
+    private BigDecimal maxPrice;
+
+    @Column(name = "min_surface")
+    private Integer minSurface;
+
+    @Column(name = "max_surface")
+    private Integer maxSurface;
+
+    @Column(name = "min_rooms")
+    private Integer minRooms;
+
+    @Column(name = "max_rooms")
+    private Integer maxRooms;
+
+    @Column(name = "alerts_enabled", nullable = false)
+    private Boolean alertsEnabled = true;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public SavedSearch() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public City getCity() { return city; }
+    public void setCity(City city) { this.city = city; }
+
+    public Listing.PropertyType getPropertyType() { return propertyType; }
+    public void setPropertyType(Listing.PropertyType propertyType) { this.propertyType = propertyType; }
+
+    public Listing.TransactionType getTransactionType() { return transactionType; }
+    public void setTransactionType(Listing.TransactionType transactionType) { this.transactionType = transactionType; }
+
+    public BigDecimal getMinPrice() { return minPrice; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+
+    public Integer getMinSurface() { return minSurface; }
+    public void setMinSurface(Integer minSurface) { this.minSurface = minSurface; }
+
+    public Integer getMaxSurface() { return maxSurface; }
+    public void setMaxSurface(Integer maxSurface) { this.maxSurface = maxSurface; }
+
+    public Integer getMinRooms() { return minRooms; }
+    public void setMinRooms(Integer minRooms) { this.minRooms = minRooms; }
+
+    public Integer getMaxRooms() { return maxRooms; }
+    public void setMaxRooms(Integer maxRooms) { this.maxRooms = maxRooms; }
+
+    public Boolean getAlertsEnabled() { return alertsEnabled; }
+    public void setAlertsEnabled(Boolean alertsEnabled) { this.alertsEnabled = alertsEnabled; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
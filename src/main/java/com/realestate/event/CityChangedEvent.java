@@ -0,0 +1,18 @@
+package com.realestate.event;
+
+import com.realestate.entity.City;
+import org.springframework.context.ApplicationEvent;
+
+public class CityChangedEvent extends ApplicationEvent {
+
+    private final City city;
+
+    public CityChangedEvent(Object source, City city) {
+        super(source);
+        this.city = city;
+    }
+
+    public City getCity() {
+        return city;
+    }
+}
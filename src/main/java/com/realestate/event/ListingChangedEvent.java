@@ -0,0 +1,28 @@
+package com.realestate.event;
+
+import com.realestate.entity.Listing;
+import org.springframework.context.ApplicationEvent;
+
+public class ListingChangedEvent extends ApplicationEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, STATUS_CHANGED, DELETED
+    }
+
+    private final Listing listing;
+    private final ChangeType changeType;
+
+    public ListingChangedEvent(Object source, Listing listing, ChangeType changeType) {
+        super(source);
+        this.listing = listing;
+        this.changeType = changeType;
+    }
+
+    public Listing getListing() {
+        return listing;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+}
@@ -0,0 +1,23 @@
+package com.realestate.event;
+
+import com.realestate.entity.Listing;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Lot d'annonces créées par un import en masse, publié une fois par lot plutôt qu'une fois par annonce
+ */
+public class ListingsImportedEvent extends ApplicationEvent {
+
+    private final List<Listing> listings;
+
+    public ListingsImportedEvent(Object source, List<Listing> listings) {
+        super(source);
+        this.listings = listings;
+    }
+
+    public List<Listing> getListings() {
+        return listings;
+    }
+}
@@ -0,0 +1,29 @@
+package com.realestate.event;
+
+import com.realestate.entity.PropertyStatus;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Changement de statut appliqué en masse par une requête UPDATE, sans chargement des entités
+ */
+public class PropertiesStatusChangedEvent extends ApplicationEvent {
+
+    private final List<Long> propertyIds;
+    private final PropertyStatus status;
+
+    public PropertiesStatusChangedEvent(Object source, List<Long> propertyIds, PropertyStatus status) {
+        super(source);
+        this.propertyIds = propertyIds;
+        this.status = status;
+    }
+
+    public List<Long> getPropertyIds() {
+        return propertyIds;
+    }
+
+    public PropertyStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,47 @@
+package com.realestate.event;
+
+import com.realestate.entity.Property;
+import com.realestate.entity.PropertyType;
+import org.springframework.context.ApplicationEvent;
+
+public class PropertyChangedEvent extends ApplicationEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Property property;
+    private final ChangeType changeType;
+    // Valeurs avant modification, renseignées pour UPDATED
+    private final String previousCity;
+    private final PropertyType previousType;
+
+    public PropertyChangedEvent(Object source, Property property, ChangeType changeType) {
+        this(source, property, changeType, null, null);
+    }
+
+    public PropertyChangedEvent(Object source, Property property, ChangeType changeType,
+                                String previousCity, PropertyType previousType) {
+        super(source);
+        this.property = property;
+        this.changeType = changeType;
+        this.previousCity = previousCity;
+        this.previousType = previousType;
+    }
+
+    public Property getProperty() {
+        return property;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public String getPreviousCity() {
+        return previousCity;
+    }
+
+    public PropertyType getPreviousType() {
+        return previousType;
+    }
+}
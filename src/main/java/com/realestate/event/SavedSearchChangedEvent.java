@@ -0,0 +1,28 @@
+package com.realestate.event;
+
+import com.realestate.entity.SavedSearch;
+import org.springframework.context.ApplicationEvent;
+
+public class SavedSearchChangedEvent extends ApplicationEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final SavedSearch savedSearch;
+    private final ChangeType changeType;
+
+    public SavedSearchChangedEvent(Object source, SavedSearch savedSearch, ChangeType changeType) {
+        super(source);
+        this.savedSearch = savedSearch;
+        this.changeType = changeType;
+    }
+
+    public SavedSearch getSavedSearch() {
+        return savedSearch;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+}
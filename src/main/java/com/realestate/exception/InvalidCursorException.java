@@ -0,0 +1,15 @@
+package com.realestate.exception;
+
+/**
+ * Jeton de continuation illisible, altéré ou émis pour un autre tri
+ */
+public class InvalidCursorException extends InvalidRequestException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,25 @@
+package com.realestate.mapper;
+
+import com.realestate.dto.AppointmentDTO;
+import com.realestate.entity.Appointment;
+import com.realestate.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Conversion Appointment -> AppointmentDTO générée à la compilation (MapStruct)
+ */
+@Mapper(componentModel = "spring")
+public interface AppointmentMapper {
+
+    @Mapping(target = "propertyId", source = "property.id")
+    @Mapping(target = "propertyTitle", source = "property.title")
+    @Mapping(target = "visitorId", source = "visitor.id")
+    @Mapping(target = "visitorEmail", source = "visitor.email")
+    @Mapping(target = "visitorName", expression = "java(visitorName(appointment.getVisitor()))")
+    AppointmentDTO toDto(Appointment appointment);
+
+    default String visitorName(User visitor) {
+        return visitor != null ? visitor.getFirstName() + " " + visitor.getLastName() : null;
+    }
+}
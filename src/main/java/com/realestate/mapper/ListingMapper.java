@@ -0,0 +1,24 @@
+package com.realestate.mapper;
+
+import com.realestate.dto.ListingDTO;
+import com.realestate.entity.Listing;
+import com.realestate.search.CityRegistry;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Conversion Listing -> ListingDTO générée à la compilation (MapStruct).
+ * Le nom de la ville vient de CityRegistry, l'association n'est pas chargée.
+ */
+@Mapper(componentModel = "spring")
+public abstract class ListingMapper {
+
+    @Autowired
+    protected CityRegistry cityRegistry;
+
+    @Mapping(target = "cityId", source = "cityId")
+    @Mapping(target = "cityName", expression = "java(cityRegistry.cityNameOf(listing))")
+    @Mapping(target = "distanceKm", ignore = true)
+    public abstract ListingDTO toDto(Listing listing);
+}
@@ -0,0 +1,46 @@
+package com.realestate.mapper;
+
+import com.realestate.dto.PropertyDTO;
+import com.realestate.entity.Property;
+import com.realestate.entity.User;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.InheritConfiguration;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Conversions Property <-> PropertyDTO générées à la compilation (MapStruct) : du code d'accesseurs
+ * simple, sans réflexion à l'exécution. Un champ cible sans correspondance fait échouer la compilation.
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface PropertyMapper {
+
+    @Mapping(target = "ownerId", source = "owner.id")
+    @Mapping(target = "ownerName", expression = "java(ownerName(property.getOwner()))")
+    PropertyDTO toDto(Property property);
+
+    // Propriétaire, images, mise en avant et dates sont gérés par le service, jamais par le client ;
+    // l'émission de CO2 n'est modifiable que par l'administration (AdminService)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "images", ignore = true)
+    @Mapping(target = "featured", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "co2Emission", ignore = true)
+    Property toEntity(PropertyDTO dto);
+
+    /**
+     * Mise à jour partielle : les champs nuls du DTO ne modifient pas le bien
+     */
+    @InheritConfiguration(name = "toEntity")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    void updateEntity(PropertyDTO dto, @MappingTarget Property property);
+
+    default String ownerName(User owner) {
+        return owner != null ? owner.getFirstName() + " " + owner.getLastName() : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.realestate.mapper;
+
+import com.realestate.dto.UserDTO;
+import com.realestate.dto.UserProfileDTO;
+import com.realestate.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Conversions User -> DTO générées à la compilation (MapStruct). Le mot de passe (haché)
+ * n'est jamais recopié dans les DTO de sortie.
+ */
+@Mapper(componentModel = "spring")
+public interface UserMapper {
+
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "active", source = "isActive")
+    UserDTO toDto(User user);
+
+    @Mapping(target = "password", ignore = true)
+    UserProfileDTO toProfileDto(User user);
+}
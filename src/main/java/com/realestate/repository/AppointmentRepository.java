@@ -4,6 +4,7 @@ import com.realestate.entity.Appointment;
 import com.realestate.entity.AppointmentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,19 +14,28 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
     
-    // Méthodes de base
+    // Méthodes de base (bien, propriétaire et visiteur chargés dans la même requête)
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
     List<Appointment> findByVisitorIdOrderByStartTimeDesc(Long visitorId);
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
     List<Appointment> findByPropertyIdOrderByStartTimeAsc(Long propertyId);
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
     Page<Appointment> findByStatus(AppointmentStatus status, Pageable pageable);
     
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
+    Optional<Appointment> findWithParticipantsById(Long id);
+    
     // Récupérer les rendez-vous d'un visiteur avec pagination
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
     Page<Appointment> findByVisitorId(Long visitorId, Pageable pageable);
     
     // Récupérer les rendez-vous d'une propriété avec pagination et filtrage par statut
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
     Page<Appointment> findByPropertyIdAndStatus(Long propertyId, AppointmentStatus status, Pageable pageable);
     
     // Trouver les rendez-vous dans une période donnée
@@ -101,6 +111,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("date") LocalDate date);
     
     // Rendez-vous à venir par propriétaire
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
     @Query("SELECT a FROM Appointment a " +
            "JOIN a.property p " +
            "WHERE p.owner.id = :ownerId " +
@@ -132,6 +143,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("endDate") LocalDateTime endDate);
 
     // Rendez-vous passés avec évaluation
+    @EntityGraph(Appointment.WITH_PARTICIPANTS)
     @Query("SELECT a FROM Appointment a " +
             "WHERE a.status = 'COMPLETED' " +
             "AND a.rating IS NOT NULL " +
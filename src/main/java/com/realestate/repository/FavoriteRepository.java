@@ -6,8 +6,11 @@ import com.realestate.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,6 +18,10 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     
     Page<Favorite> findByUser(User user, Pageable pageable);
     
+    // Favoris avec leur annonce en une seule requête (la ville est lue dans CityRegistry)
+    @Query("SELECT f FROM Favorite f JOIN FETCH f.listing WHERE f.user.id = :userId")
+    List<Favorite> findWithListingByUserId(@Param("userId") Long userId);
+    
     Optional<Favorite> findByUserAndListing(User user, Listing listing);
     
     boolean existsByUserAndListing(User user, Listing listing);
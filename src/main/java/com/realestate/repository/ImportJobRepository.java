@@ -0,0 +1,23 @@
+package com.realestate.repository;
+
+import com.realestate.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    Optional<ImportJob> findByIdAndUserId(Long id, Long userId);
+
+    // Imports laissés en cours par un arrêt de l'application : ils deviennent reprenables
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = 'FAILED', j.errorMessage = :message, j.updatedAt = :now " +
+           "WHERE j.status IN ('PENDING', 'RUNNING')")
+    int failInterrupted(@Param("message") String message, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,51 @@
+package com.realestate.repository;
+
+import com.realestate.dto.ScrollSort;
+import com.realestate.util.KeysetCursor;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Prédicats de pagination par curseur, communs aux biens et aux annonces
+ */
+public final class KeysetSpecifications {
+
+    private KeysetSpecifications() {
+    }
+
+    /**
+     * Exclut les lignes sans valeur pour la clé de tri (elles ne peuvent pas être positionnées par un curseur)
+     */
+    public static <T> Specification<T> hasSortKey(ScrollSort sort) {
+        return (root, query, cb) -> sort.getKeyAttribute() == null
+                ? null
+                : cb.isNotNull(root.get(sort.getKeyAttribute()));
+    }
+
+    /**
+     * Lignes situées strictement après le curseur dans l'ordre (clé, id)
+     */
+    public static <T> Specification<T> after(KeysetCursor cursor) {
+        return (root, query, cb) -> {
+            ScrollSort sort = cursor.getSort();
+            Path<Long> id = root.get("id");
+            if (sort.getKeyAttribute() == null) {
+                return sort.isDescending()
+                        ? cb.lessThan(id, cursor.getId())
+                        : cb.greaterThan(id, cursor.getId());
+            }
+
+            Path<BigDecimal> key = root.get(sort.getKeyAttribute());
+            if (sort.isDescending()) {
+                return cb.or(
+                        cb.lessThan(key, cursor.getKey()),
+                        cb.and(cb.equal(key, cursor.getKey()), cb.lessThan(id, cursor.getId())));
+            }
+            return cb.or(
+                    cb.greaterThan(key, cursor.getKey()),
+                    cb.and(cb.equal(key, cursor.getKey()), cb.greaterThan(id, cursor.getId())));
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.realestate.repository;
 
+import com.realestate.dto.ListingSummaryDTO;
 import com.realestate.entity.Listing;
 import com.realestate.entity.User;
 import org.springframework.data.domain.Page;
@@ -11,10 +12,12 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpecificationExecutor<Listing> {
+public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpecificationExecutor<Listing>,
+        ListingRepositoryCustom {
     
     Page<Listing> findByStatusAndCityNameIgnoreCaseContaining(
             Listing.Status status, String cityName, Pageable pageable);
@@ -47,13 +50,41 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
             Pageable pageable);
 
     @Query("SELECT l FROM Listing l WHERE l.status = 'ACTIVE' " +
-           "AND LOWER(l.city.name) = LOWER(:cityName) " +
-           "AND l.price <= :maxPrice " +
+           "AND l.cityId = :cityId " +
            "AND (:propertyType IS NULL OR l.propertyType = :propertyType) " +
-           "AND (:minRooms IS NULL OR l.rooms >= :minRooms)")
+           "AND (:transactionType IS NULL OR l.transactionType = :transactionType) " +
+           "AND (:minPrice IS NULL OR l.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR l.price <= :maxPrice) " +
+           "AND (:minSurface IS NULL OR l.surfaceArea >= :minSurface) " +
+           "AND (:maxSurface IS NULL OR l.surfaceArea <= :maxSurface) " +
+           "AND (:minBedrooms IS NULL OR l.bedrooms >= :minBedrooms) " +
+           "AND (:maxBedrooms IS NULL OR l.bedrooms <= :maxBedrooms) " +
+           "AND (:minRooms IS NULL OR l.rooms >= :minRooms) " +
+           "AND (:maxRooms IS NULL OR l.rooms <= :maxRooms)")
     List<Listing> findByAIQuery(
-            @Param("cityName") String cityName,
-            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("cityId") Long cityId,
             @Param("propertyType") Listing.PropertyType propertyType,
-            @Param("minRooms") Integer minRooms);
-}
\ No newline at end of file
+            @Param("transactionType") Listing.TransactionType transactionType,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minSurface") Integer minSurface,
+            @Param("maxSurface") Integer maxSurface,
+            @Param("minBedrooms") Integer minBedrooms,
+            @Param("maxBedrooms") Integer maxBedrooms,
+            @Param("minRooms") Integer minRooms,
+            @Param("maxRooms") Integer maxRooms);
+
+    @Query("SELECT l FROM Listing l WHERE l.status = 'ACTIVE' " +
+           "AND l.latitude BETWEEN :south AND :north " +
+           "AND l.longitude BETWEEN :west AND :east")
+    List<Listing> findActiveWithinBox(
+            @Param("south") Double south,
+            @Param("west") Double west,
+            @Param("north") Double north,
+            @Param("east") Double east);
+
+    @Query("SELECT new com.realestate.dto.ListingSummaryDTO(l.id, l.title, l.price, l.surfaceArea, l.rooms, " +
+           "l.propertyType, l.transactionType, c.name) " +
+           "FROM Listing l LEFT JOIN l.city c WHERE l.id IN :ids AND l.status = 'ACTIVE'")
+    List<ListingSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+}
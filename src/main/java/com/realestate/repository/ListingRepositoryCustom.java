@@ -0,0 +1,18 @@
+package com.realestate.repository;
+
+import com.realestate.entity.Listing;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public interface ListingRepositoryCustom {
+
+    Slice<Listing> findSlice(Specification<Listing> specification, Sort sort, int size);
+
+    /**
+     * Toutes les lignes correspondantes en flux, entités détachées au fil de la lecture
+     */
+    Stream<Listing> streamAll(Specification<Listing> specification, Sort sort);
+}
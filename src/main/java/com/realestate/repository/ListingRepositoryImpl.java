@@ -0,0 +1,28 @@
+package com.realestate.repository;
+
+import com.realestate.entity.Listing;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public class ListingRepositoryImpl implements ListingRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Listing> findSlice(Specification<Listing> specification, Sort sort, int size) {
+        return SpecificationSlices.findSlice(entityManager, Listing.class, specification, sort, size);
+    }
+
+    @Override
+    public Stream<Listing> streamAll(Specification<Listing> specification, Sort sort) {
+        return SpecificationStreams.stream(entityManager, Listing.class, specification, sort, STREAM_FETCH_SIZE);
+    }
+}
@@ -0,0 +1,75 @@
+package com.realestate.repository;
+
+import com.realestate.entity.Listing;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Critères de recherche des annonces, équivalents à ListingRepository.findWithFilters
+ * mais sans prédicats "(:x IS NULL OR ...)"
+ */
+public final class ListingSpecifications {
+
+    private ListingSpecifications() {
+    }
+
+    public static Specification<Listing> matchesFilters(
+            Listing.Status status,
+            String cityName,
+            Listing.PropertyType propertyType,
+            Listing.TransactionType transactionType,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer minSurface,
+            Integer maxSurface,
+            Integer minRooms,
+            Integer maxRooms) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("status"), status));
+            if (cityName != null) {
+                predicates.add(cb.like(cb.lower(root.get("city").get("name")),
+                        "%" + cityName.toLowerCase(Locale.ROOT) + "%"));
+            }
+            if (propertyType != null) {
+                predicates.add(cb.equal(root.get("propertyType"), propertyType));
+            }
+            if (transactionType != null) {
+                predicates.add(cb.equal(root.get("transactionType"), transactionType));
+            }
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            if (minSurface != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("surfaceArea"), minSurface));
+            }
+            if (maxSurface != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("surfaceArea"), maxSurface));
+            }
+            if (minRooms != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("rooms"), minRooms));
+            }
+            if (maxRooms != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("rooms"), maxRooms));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Repli de la recherche plein texte quand l'index n'est pas prêt : sous-chaîne
+     * du titre, sans tolérance aux fautes ni aux accents
+     */
+    public static Specification<Listing> titleContains(String text) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")),
+                "%" + text.trim().toLowerCase(Locale.ROOT) + "%");
+    }
+}
@@ -1,10 +1,12 @@
 package com.realestate.repository;
 
+import com.realestate.dto.PropertySummaryDTO;
 import com.realestate.entity.Property;
 import com.realestate.entity.PropertyStatus;
 import com.realestate.entity.PropertyType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -15,15 +17,26 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property>,
+        PropertyRepositoryCustom {
+    
+    // Projection des listes : une seule requête, première image par sous-requête et propriétaire par jointure
+    String SUMMARY_SELECT = "SELECT new com.realestate.dto.PropertySummaryDTO(p.id, p.title, p.type, p.status, " +
+            "p.price, p.surface, p.rooms, p.bedrooms, p.bathrooms, p.city, p.address, p.latitude, p.longitude, " +
+            "p.featured, cover, o.id, o.firstName, o.lastName) " +
+            "FROM Property p LEFT JOIN p.owner o LEFT JOIN p.imageUrls cover ON INDEX(cover) = 0 ";
     
     // Méthodes de recherche de base
     Page<Property> findByCityIgnoreCase(String city, Pageable pageable);
     Page<Property> findByType(PropertyType type, Pageable pageable);
+    @EntityGraph(Property.WITH_OWNER)
     Page<Property> findByStatus(PropertyStatus status, Pageable pageable);
+    @EntityGraph(Property.WITH_OWNER)
     Page<Property> findByOwnerId(Long ownerId, Pageable pageable);
     Page<Property> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
     Page<Property> findByRoomsGreaterThanEqual(Integer rooms, Pageable pageable);
@@ -31,7 +44,19 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSp
     Page<Property> findBySurfaceBetween(Double minSurface, Double maxSurface, Pageable pageable);
     
     // Recherche avancée avec plusieurs critères
-    @Query("SELECT p FROM Property p WHERE " +
+    @Query(value = SUMMARY_SELECT + "WHERE " +
+           "(:query IS NULL OR LOWER(p.title) LIKE %:query% OR LOWER(p.description) LIKE %:query%) AND " +
+           "(:city IS NULL OR LOWER(p.city) = LOWER(:city)) AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+           "(:minSurface IS NULL OR p.surface >= :minSurface) AND " +
+           "(:maxSurface IS NULL OR p.surface <= :maxSurface) AND " +
+           "(:rooms IS NULL OR p.rooms >= :rooms) AND " +
+           "(:bedrooms IS NULL OR p.bedrooms >= :bedrooms) AND " +
+           "(:type IS NULL OR p.type = :type) AND " +
+           "(:status IS NULL OR p.status = :status) AND " +
+           "(:ownerId IS NULL OR p.owner.id = :ownerId)",
+           countQuery = "SELECT COUNT(p) FROM Property p WHERE " +
            "(:query IS NULL OR LOWER(p.title) LIKE %:query% OR LOWER(p.description) LIKE %:query%) AND " +
            "(:city IS NULL OR LOWER(p.city) = LOWER(:city)) AND " +
            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
@@ -43,7 +68,7 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSp
            "(:type IS NULL OR p.type = :type) AND " +
            "(:status IS NULL OR p.status = :status) AND " +
            "(:ownerId IS NULL OR p.owner.id = :ownerId)")
-    Page<Property> searchProperties(
+    Page<PropertySummaryDTO> searchProperties(
             @Param("query") String query,
             @Param("city") String city,
             @Param("minPrice") BigDecimal minPrice,
@@ -58,6 +83,90 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSp
             Pageable pageable
     );
     
+    // Recherche restreinte aux candidats fournis par l'index plein texte. Page seule, sans requête de
+    // comptage liant une seconde fois la liste d'identifiants : le total est calculé par l'appelant
+    @Query(SUMMARY_SELECT + "WHERE " +
+           "p.id IN :ids AND " +
+           "(:city IS NULL OR LOWER(p.city) = LOWER(:city)) AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+           "(:minSurface IS NULL OR p.surface >= :minSurface) AND " +
+           "(:maxSurface IS NULL OR p.surface <= :maxSurface) AND " +
+           "(:rooms IS NULL OR p.rooms >= :rooms) AND " +
+           "(:bedrooms IS NULL OR p.bedrooms >= :bedrooms) AND " +
+           "(:type IS NULL OR p.type = :type) AND " +
+           "(:status IS NULL OR p.status = :status) AND " +
+           "(:ownerId IS NULL OR p.owner.id = :ownerId)")
+    List<PropertySummaryDTO> searchPropertiesByIds(
+            @Param("ids") Collection<Long> ids,
+            @Param("city") String city,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minSurface") Double minSurface,
+            @Param("maxSurface") Double maxSurface,
+            @Param("rooms") Integer rooms,
+            @Param("bedrooms") Integer bedrooms,
+            @Param("type") PropertyType type,
+            @Param("status") PropertyStatus status,
+            @Param("ownerId") Long ownerId,
+            Pageable pageable
+    );
+    
+    // Identifiants seuls des candidats passant les filtres, pour le tri par pertinence fait en mémoire
+    @Query("SELECT p.id FROM Property p WHERE " +
+           "p.id IN :ids AND " +
+           "(:city IS NULL OR LOWER(p.city) = LOWER(:city)) AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+           "(:minSurface IS NULL OR p.surface >= :minSurface) AND " +
+           "(:rooms IS NULL OR p.rooms >= :rooms) AND " +
+           "(:type IS NULL OR p.type = :type)")
+    List<Long> findIdsByIdsAndFilters(
+            @Param("ids") Collection<Long> ids,
+            @Param("city") String city,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minSurface") Double minSurface,
+            @Param("rooms") Integer rooms,
+            @Param("type") PropertyType type
+    );
+    
+    @Query("SELECT COUNT(p) FROM Property p WHERE " +
+           "p.id IN :ids AND " +
+           "(:city IS NULL OR LOWER(p.city) = LOWER(:city)) AND " +
+           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+           "(:minSurface IS NULL OR p.surface >= :minSurface) AND " +
+           "(:rooms IS NULL OR p.rooms >= :rooms) AND " +
+           "(:type IS NULL OR p.type = :type)")
+    long countByIdsAndFilters(
+            @Param("ids") Collection<Long> ids,
+            @Param("city") String city,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("minSurface") Double minSurface,
+            @Param("rooms") Integer rooms,
+            @Param("type") PropertyType type
+    );
+    
+    // Détail et édition : le propriétaire est lu pour le DTO et le contrôle d'accès
+    @EntityGraph(Property.WITH_OWNER)
+    Optional<Property> findWithOwnerById(Long id);
+    
+    @EntityGraph(Property.WITH_OWNER)
+    @Query(value = "SELECT p FROM Property p", countQuery = "SELECT COUNT(p) FROM Property p")
+    Page<Property> findAllWithOwner(Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PropertySummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Biens d'une page de recherche rendue en PropertyDTO
+    @EntityGraph(Property.WITH_OWNER)
+    List<Property> findWithOwnerByIdIn(Collection<Long> ids);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.owner.id = :ownerId")
+    List<PropertySummaryDTO> findSummariesByOwnerId(@Param("ownerId") Long ownerId);
+    
     // Méthodes pour les statistiques
     @Query("SELECT COUNT(p) FROM Property p WHERE p.status = :status")
     long countByStatus(@Param("status") PropertyStatus status);
@@ -80,19 +189,40 @@ public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSp
     @Query("UPDATE Property p SET p.featured = :featured WHERE p.id = :id")
     int updateFeaturedStatus(@Param("id") Long id, @Param("featured") boolean featured);
     
-    // Trouver les propriétés sans images
-    @Query("SELECT p FROM Property p LEFT JOIN p.images i WHERE i.id IS NULL")
-    List<Property> findPropertiesWithoutImages();
+    // Maintenance par lots : identifiants suivants dans l'ordre de la clé primaire (pagination par clé,
+    // sans OFFSET), la taille du lot étant donnée par pageable
+    
+    // Propriétés expirées (non mises à jour depuis une certaine date)
+    @Query("SELECT p.id FROM Property p WHERE p.id > :afterId AND p.status IN :statuses " +
+           "AND p.updatedAt < :date ORDER BY p.id")
+    List<Long> findOutdatedIdsAfter(
+            @Param("afterId") Long afterId,
+            @Param("statuses") Collection<PropertyStatus> statuses,
+            @Param("date") LocalDateTime date,
+            Pageable pageable);
     
-    // Trouver les propriétés expirées (non mises à jour depuis une certaine date)
-    @Query("SELECT p FROM Property p WHERE p.updatedAt < :date")
-    List<Property> findOutdatedProperties(@Param("date") LocalDateTime date);
+    // Changement de statut d'un lot en une seule requête ; les lignes modifiées entre-temps sont ignorées
+    @Modifying
+    @Query("UPDATE Property p SET p.status = :status, p.updatedAt = :now " +
+           "WHERE p.id IN :ids AND p.status IN :expectedStatuses")
+    int updateStatusByIdIn(
+            @Param("ids") Collection<Long> ids,
+            @Param("expectedStatuses") Collection<PropertyStatus> expectedStatuses,
+            @Param("status") PropertyStatus status,
+            @Param("now") LocalDateTime now);
+    
+    // Dates manquantes des biens créés avant leur renseignement automatique
+    @Modifying
+    @Query("UPDATE Property p SET p.createdAt = COALESCE(p.createdAt, :now), p.updatedAt = :now " +
+           "WHERE p.updatedAt IS NULL")
+    int backfillTimestamps(@Param("now") LocalDateTime now);
     
     // Compter les propriétés par statut
     @Query("SELECT p.status, COUNT(p) FROM Property p GROUP BY p.status")
     List<Object[]> countByStatusGroup();
     
     // Trouver les propriétés par statut et propriétaire
+    @EntityGraph(Property.WITH_OWNER)
     Page<Property> findByStatusAndOwnerId(PropertyStatus status, Long ownerId, Pageable pageable);
     
     // Méthodes existantes
@@ -0,0 +1,24 @@
+package com.realestate.repository;
+
+import com.realestate.dto.PropertySummaryDTO;
+import com.realestate.entity.Property;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public interface PropertyRepositoryCustom {
+
+    Slice<Property> findSlice(Specification<Property> specification, Sort sort, int size);
+
+    /**
+     * Même tranche que findSlice, projetée en PropertySummaryDTO (une seule requête, sans entités)
+     */
+    Slice<PropertySummaryDTO> findSummarySlice(Specification<Property> specification, Sort sort, int size);
+
+    /**
+     * Toutes les lignes correspondantes en flux, entités détachées au fil de la lecture
+     */
+    Stream<Property> streamAll(Specification<Property> specification, Sort sort);
+}
@@ -0,0 +1,51 @@
+package com.realestate.repository;
+
+import com.realestate.dto.PropertySummaryDTO;
+import com.realestate.entity.Property;
+import com.realestate.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.ListJoin;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public class PropertyRepositoryImpl implements PropertyRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Property> findSlice(Specification<Property> specification, Sort sort, int size) {
+        return SpecificationSlices.findSlice(entityManager, Property.class, specification, sort, size);
+    }
+
+    @Override
+    public Slice<PropertySummaryDTO> findSummarySlice(Specification<Property> specification, Sort sort, int size) {
+        return SpecificationSlices.findSlice(entityManager, Property.class, PropertySummaryDTO.class,
+                (root, query, cb) -> {
+                    // Mêmes colonnes que PropertyRepository.SUMMARY_SELECT
+                    Join<Property, User> owner = root.join("owner", JoinType.LEFT);
+                    ListJoin<Property, String> coverImage = root.joinList("imageUrls", JoinType.LEFT);
+                    coverImage.on(cb.equal(coverImage.index(), 0));
+                    return cb.construct(PropertySummaryDTO.class,
+                            root.get("id"), root.get("title"), root.get("type"), root.get("status"),
+                            root.get("price"), root.get("surface"), root.get("rooms"), root.get("bedrooms"),
+                            root.get("bathrooms"), root.get("city"), root.get("address"),
+                            root.get("latitude"), root.get("longitude"), root.get("featured"), coverImage,
+                            owner.get("id"), owner.get("firstName"), owner.get("lastName"));
+                },
+                specification, sort, size);
+    }
+
+    @Override
+    public Stream<Property> streamAll(Specification<Property> specification, Sort sort) {
+        return SpecificationStreams.stream(entityManager, Property.class, specification, sort, STREAM_FETCH_SIZE);
+    }
+}
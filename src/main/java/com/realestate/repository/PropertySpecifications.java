@@ -0,0 +1,63 @@
+package com.realestate.repository;
+
+import com.realestate.entity.Property;
+import com.realestate.entity.PropertyType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Critères de recherche des biens, construits dynamiquement (seuls les filtres renseignés
+ * apparaissent dans la requête SQL)
+ */
+public final class PropertySpecifications {
+
+    private PropertySpecifications() {
+    }
+
+    public static Specification<Property> matchesFilters(
+            String city, BigDecimal minPrice, BigDecimal maxPrice,
+            Double minSurface, Integer rooms, PropertyType type) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (city != null) {
+                predicates.add(cb.equal(cb.lower(root.get("city")), city.toLowerCase(Locale.ROOT)));
+            }
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            if (minSurface != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("surface"), minSurface));
+            }
+            if (rooms != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("rooms"), rooms));
+            }
+            if (type != null) {
+                predicates.add(cb.equal(root.get("type"), type));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Property> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Recherche par sous-chaîne, utilisée uniquement quand l'index plein texte n'est pas disponible
+     */
+    public static Specification<Property> keywordLike(String keyword) {
+        String pattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("title")), pattern),
+                cb.like(cb.lower(root.get("description")), pattern));
+    }
+}
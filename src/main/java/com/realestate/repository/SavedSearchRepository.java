@@ -0,0 +1,20 @@
+package com.realestate.repository;
+
+import com.realestate.entity.SavedSearch;
+import com.realestate.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    List<SavedSearch> findByUserOrderByCreatedAtDesc(User user);
+
+    Page<SavedSearch> findByAlertsEnabledTrue(Pageable pageable);
+
+    long countByUser(User user);
+}
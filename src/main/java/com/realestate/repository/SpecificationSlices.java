@@ -0,0 +1,65 @@
+package com.realestate.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Exécution d'une Specification sous forme de Slice : ni OFFSET ni requête COUNT,
+ * une ligne supplémentaire est lue pour savoir s'il existe une suite.
+ */
+final class SpecificationSlices {
+
+    private SpecificationSlices() {
+    }
+
+    static <T> Slice<T> findSlice(EntityManager entityManager, Class<T> domainClass,
+                                  Specification<T> specification, Sort sort, int size) {
+        return findSlice(entityManager, domainClass, domainClass, (root, query, cb) -> root,
+                specification, sort, size);
+    }
+
+    /**
+     * Variante projetée : seules les colonnes de la sélection sont lues, aucune entité n'est chargée
+     */
+    static <T, R> Slice<R> findSlice(EntityManager entityManager, Class<T> domainClass, Class<R> resultClass,
+                                     Projection<T, R> projection, Specification<T> specification,
+                                     Sort sort, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(resultClass);
+        Root<T> root = query.from(domainClass);
+        query.select(projection.select(root, query, cb));
+
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        List<R> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > size;
+        List<R> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+
+    @FunctionalInterface
+    interface Projection<T, R> {
+        Selection<? extends R> select(Root<T> root, CriteriaQuery<R> query, CriteriaBuilder cb);
+    }
+}
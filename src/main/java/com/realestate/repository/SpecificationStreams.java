@@ -0,0 +1,53 @@
+package com.realestate.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.stream.Stream;
+
+/**
+ * Exécution d'une Specification en flux : curseur JDBC en avant seulement, lu par paquets de
+ * fetchSize lignes, chaque entité étant détachée dès qu'elle est lue pour que le contexte de
+ * persistance ne grossisse pas. Seules les associations listées dans fetchedAssociations
+ * (chargées par jointure) restent accessibles.
+ * Le flux doit être consommé dans une transaction et fermé.
+ */
+final class SpecificationStreams {
+
+    private SpecificationStreams() {
+    }
+
+    static <T> Stream<T> stream(EntityManager entityManager, Class<T> domainClass,
+                                Specification<T> specification, Sort sort, int fetchSize,
+                                String... fetchedAssociations) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        for (String association : fetchedAssociations) {
+            root.fetch(association, JoinType.LEFT);
+        }
+
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+}
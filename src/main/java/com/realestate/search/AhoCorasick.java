@@ -0,0 +1,112 @@
+package com.realestate.search;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Automate d'Aho–Corasick sur du texte normalisé par TextAnalyzer.foldChar (a-z, 0-9 et ' ') :
+ * toutes les expressions du dictionnaire sont reconnues en un seul passage, un caractère à la fois.
+ * Les transitions d'échec sont résolues à la construction, la lecture est donc une simple table
+ * d'entiers, sans allocation ni retour arrière.
+ */
+final class AhoCorasick {
+
+    static final int ROOT = 0;
+    static final int NO_MATCH = -1;
+
+    private static final int ALPHABET = 37;
+    private static final int SPACE = 36;
+
+    // transitions[state * ALPHABET + symbole] : état suivant, échecs compris
+    private final int[] transitions;
+    // Plus longue expression reconnue en arrivant dans l'état, NO_MATCH si aucune
+    private final int[] longestMatch;
+
+    /**
+     * patterns[i] est l'expression numéro i, déjà normalisée ; en cas de doublon, la première l'emporte
+     */
+    AhoCorasick(List<String> patterns) {
+        int capacity = 1;
+        for (String pattern : patterns) {
+            capacity += pattern.length();
+        }
+        int[] gotos = new int[capacity * ALPHABET];
+        Arrays.fill(gotos, -1);
+        int[] matches = new int[capacity];
+        Arrays.fill(matches, NO_MATCH);
+        int states = 1;
+
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id);
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                int symbol = symbol(pattern.charAt(i));
+                if (gotos[state * ALPHABET + symbol] < 0) {
+                    gotos[state * ALPHABET + symbol] = states++;
+                }
+                state = gotos[state * ALPHABET + symbol];
+            }
+            if (state != ROOT && matches[state] == NO_MATCH) {
+                matches[state] = id;
+            }
+        }
+
+        // Parcours en largeur : l'état d'échec d'un nœud est toujours moins profond, donc déjà complet
+        int[] failures = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = gotos[symbol];
+            if (child < 0) {
+                gotos[symbol] = ROOT;
+            } else {
+                failures[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            if (matches[state] == NO_MATCH) {
+                matches[state] = matches[failures[state]];
+            }
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = gotos[state * ALPHABET + symbol];
+                int fallback = gotos[failures[state] * ALPHABET + symbol];
+                if (child < 0) {
+                    gotos[state * ALPHABET + symbol] = fallback;
+                } else {
+                    failures[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(gotos, states * ALPHABET);
+        this.longestMatch = Arrays.copyOf(matches, states);
+    }
+
+    /**
+     * folded doit venir de TextAnalyzer.foldChar
+     */
+    int next(int state, char folded) {
+        return transitions[state * ALPHABET + symbol(folded)];
+    }
+
+    /**
+     * Numéro de la plus longue expression se terminant sur cet état, NO_MATCH si aucune
+     */
+    int longestMatch(int state) {
+        return longestMatch[state];
+    }
+
+    private static int symbol(char folded) {
+        if (folded >= 'a' && folded <= 'z') {
+            return folded - 'a';
+        }
+        if (folded >= '0' && folded <= '9') {
+            return 26 + folded - '0';
+        }
+        return SPACE;
+    }
+}
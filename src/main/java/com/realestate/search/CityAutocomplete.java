@@ -0,0 +1,176 @@
+package com.realestate.search;
+
+import com.realestate.dto.CityDTO;
+import com.realestate.event.CityChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Autocomplétion des villes servie depuis la mémoire : arbre préfixe sur les noms normalisés,
+ * reconstruit depuis CityRegistry au démarrage et à chaque ajout de ville. Le nombre d'annonces actives par ville
+ * est lu dans ListingFilterIndex au moment de la requête, il est donc toujours à jour.
+ */
+@Component
+public class CityAutocomplete {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityAutocomplete.class);
+    private static final int MAX_NAME_WORDS = 3;
+    private static final int MIN_FUZZY_NAME_LENGTH = 4;
+
+    private final CityRegistry cityRegistry;
+    private final ListingFilterIndex listingFilterIndex;
+
+    // Remplacé en bloc à chaque reconstruction : les lectures ne prennent aucun verrou
+    private volatile Snapshot snapshot;
+
+    public CityAutocomplete(CityRegistry cityRegistry, ListingFilterIndex listingFilterIndex) {
+        this.cityRegistry = cityRegistry;
+        this.listingFilterIndex = listingFilterIndex;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<CityEntry> cities = cityRegistry.findAll().stream()
+                .map(city -> new CityEntry(city.getId(), city.getName(), city.getCountry()))
+                .collect(Collectors.toList());
+        List<String> names = cities.stream().map(CityEntry::getName).collect(Collectors.toList());
+        snapshot = new Snapshot(cities, new CityTrie(names));
+        logger.info("City autocomplete loaded with {} cities", cities.size());
+    }
+
+    // Après CityRegistry, déjà rechargé
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCityChanged(CityChangedEvent event) {
+        rebuild();
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Nom exact (tel qu'en base) de la ville citée dans le texte, en tolérant accents et fautes de frappe :
+     * "yaounde", "Yaoundé" et "yaonde" donnent tous "Yaoundé". Les groupes de mots les plus longs sont
+     * essayés en premier pour que "Nkongsamba" ne soit pas pris pour une ville plus courte. Null si aucune.
+     */
+    public String findMentionedCity(String text) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        List<String> tokens = TextAnalyzer.tokenize(text);
+        for (int width = Math.min(MAX_NAME_WORDS, tokens.size()); width >= 1; width--) {
+            for (int start = 0; start + width <= tokens.size(); start++) {
+                String window = String.join(" ", tokens.subList(start, start + width));
+                if (window.length() < MIN_FUZZY_NAME_LENGTH) {
+                    continue;
+                }
+                String closest = closest(window, current.names.lookup(window, FuzzyDictionary.maxEditsFor(window)));
+                if (closest != null) {
+                    return current.cities.get(current.positions.get(closest)).getName();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Candidat le plus proche de la saisie ; à distance égale, le premier dans l'ordre alphabétique,
+     * pour que la réponse ne dépende pas de l'ordre de parcours du dictionnaire. Null si aucun.
+     */
+    private static String closest(String window, List<String> matches) {
+        int maxEdits = FuzzyDictionary.maxEditsFor(window);
+        String closest = null;
+        int closestDistance = Integer.MAX_VALUE;
+        for (String match : matches) {
+            int distance = FuzzyDictionary.distance(window, match, maxEdits);
+            if (distance < closestDistance || (distance == closestDistance && match.compareTo(closest) < 0)) {
+                closest = match;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Villes dont le nom ou l'un de ses mots commence par la saisie (accents et casse ignorés).
+     * Les noms commençant par la saisie passent en premier, puis les villes ayant le plus d'annonces.
+     */
+    public List<CityDTO> suggest(String query, int limit) {
+        Snapshot current = snapshot;
+        String prefix = TextAnalyzer.fold(query).trim();
+        if (current == null || prefix.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<CityDTO> nameMatches = new ArrayList<>();
+        List<CityDTO> wordMatches = new ArrayList<>();
+        for (int position : current.trie.match(prefix)) {
+            CityEntry city = current.cities.get(position);
+            CityDTO suggestion = new CityDTO(city.getId(), city.getName(), city.getCountry(),
+                    listingFilterIndex.countByCity(city.getId()));
+            (city.getFoldedName().startsWith(prefix) ? nameMatches : wordMatches).add(suggestion);
+        }
+        Comparator<CityDTO> byListingCount = Comparator
+                .comparing(CityDTO::getListingCount, Comparator.reverseOrder())
+                .thenComparing(CityDTO::getName, String.CASE_INSENSITIVE_ORDER);
+        nameMatches.sort(byListingCount);
+        wordMatches.sort(byListingCount);
+        nameMatches.addAll(wordMatches);
+        return nameMatches.size() > limit ? new ArrayList<>(nameMatches.subList(0, limit)) : nameMatches;
+    }
+
+    private static final class Snapshot {
+        private final List<CityEntry> cities;
+        private final CityTrie trie;
+        // Noms découpés en mots normalisés, non modifiés après construction
+        private final FuzzyDictionary names = new FuzzyDictionary();
+        private final Map<String, Integer> positions = new HashMap<>();
+
+        Snapshot(List<CityEntry> cities, CityTrie trie) {
+            this.cities = cities;
+            this.trie = trie;
+            for (int position = 0; position < cities.size(); position++) {
+                String name = String.join(" ", TextAnalyzer.tokenize(cities.get(position).getName()));
+                if (!name.isEmpty() && positions.putIfAbsent(name, position) == null) {
+                    names.add(name);
+                }
+            }
+        }
+    }
+
+    private static final class CityEntry {
+        private final Long id;
+        private final String name;
+        private final String country;
+        private final String foldedName;
+
+        CityEntry(Long id, String name, String country) {
+            this.id = id;
+            this.name = name;
+            this.country = country;
+            this.foldedName = TextAnalyzer.fold(name).trim();
+        }
+
+        Long getId() { return id; }
+
+        String getName() { return name; }
+
+        String getCountry() { return country; }
+
+        String getFoldedName() { return foldedName; }
+    }
+}
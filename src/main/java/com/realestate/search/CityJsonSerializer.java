@@ -0,0 +1,42 @@
+package com.realestate.search;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.realestate.entity.City;
+import org.hibernate.Hibernate;
+
+import java.io.IOException;
+
+/**
+ * Ville d'une annonce écrite en JSON (id, name, country) à partir de CityRegistry, sans initialiser
+ * l'association paresseuse : l'annonce peut être sérialisée hors transaction. Instancié par Spring
+ * (SpringHandlerInstantiator) pour recevoir le référentiel.
+ */
+public class CityJsonSerializer extends StdSerializer<City> {
+
+    private final CityRegistry cityRegistry;
+
+    public CityJsonSerializer(CityRegistry cityRegistry) {
+        super(City.class);
+        this.cityRegistry = cityRegistry;
+    }
+
+    @Override
+    public void serialize(City city, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        // Identifiant d'un proxy lu sans chargement
+        Long id = city.getId();
+        generator.writeStartObject();
+        generator.writeNumberField("id", id);
+        CityRegistry.Entry entry = cityRegistry.findById(id).orElse(null);
+        if (entry != null) {
+            generator.writeStringField("name", entry.getName());
+            generator.writeStringField("country", entry.getCountry());
+        } else if (Hibernate.isInitialized(city)) {
+            // Ville créée par une autre instance, pas encore dans le référentiel
+            generator.writeStringField("name", city.getName());
+            generator.writeStringField("country", city.getCountry());
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,124 @@
+package com.realestate.search;
+
+import com.realestate.entity.City;
+import com.realestate.entity.Listing;
+import com.realestate.event.CityChangedEvent;
+import com.realestate.repository.CityRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Référentiel des villes chargé au démarrage : quelques dizaines de lignes qui ne changent presque jamais,
+ * lues ici plutôt que jointes à chaque lecture d'annonce. Les tables sont reconstruites en entier et
+ * publiées d'un seul coup à chaque écriture via CityService, les lectures ne prennent aucun verrou.
+ * Source unique des villes pour IntentExtractor et CityAutocomplete, reconstruits à partir de findAll.
+ */
+@Component
+public class CityRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityRegistry.class);
+
+    private final CityRepository cityRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+
+    public CityRegistry(CityRepository cityRepository) {
+        this.cityRepository = cityRepository;
+    }
+
+    @PostConstruct
+    public void refresh() {
+        load(cityRepository.findAll().stream()
+                .map(city -> new Entry(city.getId(), city.getName(), city.getCountry()))
+                .toList());
+    }
+
+    void load(List<Entry> cities) {
+        snapshot = new Snapshot(cities);
+        logger.info("City registry loaded with {} cities", cities.size());
+    }
+
+    // Avant IntentExtractor et CityAutocomplete, qui se reconstruisent à partir de ce référentiel
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCityChanged(CityChangedEvent event) {
+        refresh();
+    }
+
+    public Optional<Entry> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(snapshot.byId.get(id));
+    }
+
+    public Optional<Entry> findByName(String name) {
+        return name == null ? Optional.empty()
+                : Optional.ofNullable(snapshot.byName.get(name.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    public List<Entry> findAll() {
+        return snapshot.cities;
+    }
+
+    /**
+     * Nom de la ville de l'annonce sans charger l'association, l'annonce peut donc être détachée
+     * (export, écouteurs après commit). Une ville absente du référentiel (créée par une autre instance)
+     * est relue par son identifiant.
+     */
+    public String cityNameOf(Listing listing) {
+        Long cityId = listing.getCityId();
+        if (cityId == null) {
+            return null;
+        }
+        Optional<Entry> entry = findById(cityId);
+        if (entry.isPresent()) {
+            return entry.get().getName();
+        }
+        return cityRepository.findById(cityId).map(City::getName).orElse(null);
+    }
+
+    private static final class Snapshot {
+        private final List<Entry> cities;
+        private final Map<Long, Entry> byId;
+        private final Map<String, Entry> byName;
+
+        Snapshot(List<Entry> cities) {
+            Map<Long, Entry> ids = new HashMap<>();
+            Map<String, Entry> names = new HashMap<>();
+            for (Entry city : cities) {
+                ids.put(city.getId(), city);
+                names.put(city.getName().toLowerCase(Locale.ROOT), city);
+            }
+            this.cities = List.copyOf(cities);
+            this.byId = Map.copyOf(ids);
+            this.byName = Map.copyOf(names);
+        }
+    }
+
+    public static final class Entry {
+        private final Long id;
+        private final String name;
+        private final String country;
+
+        Entry(Long id, String name, String country) {
+            this.id = id;
+            this.name = name;
+            this.country = country;
+        }
+
+        public Long getId() { return id; }
+
+        public String getName() { return name; }
+
+        public String getCountry() { return country; }
+    }
+}
@@ -0,0 +1,70 @@
+package com.realestate.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arbre préfixe immuable sur les noms de ville normalisés (sans accents, en minuscules).
+ * Le nom complet et chacun de ses mots sont insérés : "mont" trouve "Mont Cameroun",
+ * "cam" aussi. Chaque nœud conserve les positions des villes de son sous-arbre.
+ */
+final class CityTrie {
+
+    private final Node root = new Node();
+
+    /**
+     * names[i] est le nom de la i-ème ville ; les positions renvoyées par match s'y réfèrent
+     */
+    CityTrie(List<String> names) {
+        for (int position = 0; position < names.size(); position++) {
+            String folded = TextAnalyzer.fold(names.get(position)).trim();
+            insert(folded, position);
+            for (String token : TextAnalyzer.tokenize(folded)) {
+                insert(token, position);
+            }
+        }
+        root.freeze();
+    }
+
+    /**
+     * Positions des villes dont le nom ou l'un des mots commence par le préfixe normalisé
+     */
+    int[] match(String foldedPrefix) {
+        Node node = root;
+        for (int i = 0; i < foldedPrefix.length() && node != null; i++) {
+            node = node.children.get(foldedPrefix.charAt(i));
+        }
+        return node != null ? node.positions : new int[0];
+    }
+
+    private void insert(String key, int position) {
+        Node node = root;
+        node.pending.set(position);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            node.pending.set(position);
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        // Positions collectées pendant la construction, converties en tableau trié par freeze()
+        private BitSet pending = new BitSet();
+        private int[] positions;
+
+        void freeze() {
+            positions = pending.stream().toArray();
+            pending = null;
+            List<Node> stack = new ArrayList<>(children.values());
+            while (!stack.isEmpty()) {
+                Node node = stack.remove(stack.size() - 1);
+                node.positions = node.pending.stream().toArray();
+                node.pending = null;
+                stack.addAll(node.children.values());
+            }
+        }
+    }
+}
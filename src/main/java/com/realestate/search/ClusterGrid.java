@@ -0,0 +1,137 @@
+package com.realestate.search;
+
+import com.realestate.dto.MapClustersDTO;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Agrégats par cellule pour un niveau de zoom : nombre d'annonces, barycentre et prix triés
+ * (minimum et médiane). Mis à jour à chaque ajout ou retrait, sans recalcul de la grille.
+ * Non thread-safe, la synchronisation est assurée par l'index propriétaire.
+ */
+final class ClusterGrid {
+
+    private final double cellSizeDegrees;
+    private final Map<Long, Cell> cells = new HashMap<>();
+
+    ClusterGrid(double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    void add(ListingDocument document) {
+        cells.computeIfAbsent(keyOf(document), key -> new Cell()).add(document);
+    }
+
+    void remove(ListingDocument document) {
+        long key = keyOf(document);
+        Cell cell = cells.get(key);
+        if (cell != null && cell.remove(document) && cell.count == 0) {
+            cells.remove(key);
+        }
+    }
+
+    /**
+     * Nombre de cellules de la grille recouvertes par la zone, vides ou non
+     */
+    static long coveredCells(double cellSizeDegrees, double south, double west, double north, double east) {
+        return (long) (GeoGrid.latIndex(north, cellSizeDegrees) - GeoGrid.latIndex(south, cellSizeDegrees) + 1)
+                * (GeoGrid.lonIndex(east, cellSizeDegrees) - GeoGrid.lonIndex(west, cellSizeDegrees) + 1);
+    }
+
+    /**
+     * Ajoute au résultat les clusters des cellules recouvertes par la zone
+     */
+    void collect(double south, double west, double north, double east, MapClustersDTO result) {
+        int minLat = GeoGrid.latIndex(south, cellSizeDegrees);
+        int maxLat = GeoGrid.latIndex(north, cellSizeDegrees);
+        int minLon = GeoGrid.lonIndex(west, cellSizeDegrees);
+        int maxLon = GeoGrid.lonIndex(east, cellSizeDegrees);
+
+        if (coveredCells(cellSizeDegrees, south, west, north, east) > cells.size()) {
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                int latIdx = GeoGrid.latIndexOf(entry.getKey());
+                int lonIdx = GeoGrid.lonIndexOf(entry.getKey());
+                if (latIdx >= minLat && latIdx <= maxLat && lonIdx >= minLon && lonIdx <= maxLon) {
+                    entry.getValue().appendTo(result);
+                }
+            }
+        } else {
+            for (int latIdx = minLat; latIdx <= maxLat; latIdx++) {
+                for (int lonIdx = minLon; lonIdx <= maxLon; lonIdx++) {
+                    Cell cell = cells.get(GeoGrid.cellKey(latIdx, lonIdx));
+                    if (cell != null) {
+                        cell.appendTo(result);
+                    }
+                }
+            }
+        }
+    }
+
+    private long keyOf(ListingDocument document) {
+        return GeoGrid.cellKey(GeoGrid.latIndex(document.getLatitude(), cellSizeDegrees),
+                GeoGrid.lonIndex(document.getLongitude(), cellSizeDegrees));
+    }
+
+    private static final class Cell {
+        private int count;
+        private double sumLat;
+        private double sumLon;
+        // Somme des identifiants : égale à l'identifiant de l'annonce restante quand count == 1
+        private long idSum;
+        // Prix triés des annonces de la cellule qui en ont un
+        private double[] prices = new double[4];
+        private int priceCount;
+
+        void add(ListingDocument document) {
+            count++;
+            sumLat += document.getLatitude();
+            sumLon += document.getLongitude();
+            idSum += document.getId();
+            if (document.getPrice() != null) {
+                if (priceCount == prices.length) {
+                    prices = Arrays.copyOf(prices, priceCount * 2);
+                }
+                double price = document.getPrice().doubleValue();
+                int position = insertionPoint(price);
+                System.arraycopy(prices, position, prices, position + 1, priceCount - position);
+                prices[position] = price;
+                priceCount++;
+            }
+        }
+
+        boolean remove(ListingDocument document) {
+            if (count == 0) {
+                return false;
+            }
+            count--;
+            sumLat -= document.getLatitude();
+            sumLon -= document.getLongitude();
+            idSum -= document.getId();
+            if (document.getPrice() != null) {
+                int position = Arrays.binarySearch(prices, 0, priceCount, document.getPrice().doubleValue());
+                if (position >= 0) {
+                    System.arraycopy(prices, position + 1, prices, position, priceCount - position - 1);
+                    priceCount--;
+                }
+            }
+            return true;
+        }
+
+        void appendTo(MapClustersDTO result) {
+            BigDecimal minPrice = priceCount > 0 ? BigDecimal.valueOf(prices[0]) : null;
+            // Médiane basse : toujours le prix d'une annonce réelle
+            BigDecimal medianPrice = priceCount > 0 ? BigDecimal.valueOf(prices[(priceCount - 1) / 2]) : null;
+            result.getClusters().add(new MapClustersDTO.Cluster(sumLat / count, sumLon / count, count,
+                    minPrice, medianPrice, count == 1 ? idSum : null));
+            result.setTotalCount(result.getTotalCount() + count);
+        }
+
+        private int insertionPoint(double price) {
+            int position = Arrays.binarySearch(prices, 0, priceCount, price);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.realestate.search;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dictionnaire de termes normalisés avec recherche approximative : un index de trigrammes fournit
+ * les termes candidats (un terme à k fautes partage au moins n + 2 - 3k trigrammes avec la saisie),
+ * seuls ces candidats sont vérifiés par une distance de Levenshtein bornée.
+ * Non thread-safe, la synchronisation est assurée par le propriétaire.
+ */
+final class FuzzyDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final Map<String, RoaringBitmap> byTrigram = new HashMap<>();
+
+    /**
+     * Ajoute le terme s'il est absent
+     */
+    void add(String term) {
+        if (ids.containsKey(term)) {
+            return;
+        }
+        int id = terms.size();
+        ids.put(term, id);
+        terms.add(term);
+        for (String trigram : trigrams(term)) {
+            byTrigram.computeIfAbsent(trigram, t -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    void clear() {
+        ids.clear();
+        terms.clear();
+        byTrigram.clear();
+    }
+
+    /**
+     * Termes du dictionnaire à au plus maxEdits modifications du terme (le terme exact en premier)
+     */
+    List<String> lookup(String term, int maxEdits) {
+        List<String> matches = new ArrayList<>();
+        if (ids.containsKey(term)) {
+            matches.add(term);
+        }
+        if (maxEdits == 0) {
+            return matches;
+        }
+
+        Set<String> queryTrigrams = trigrams(term);
+        int required = term.length() + 2 - 3 * maxEdits;
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            RoaringBitmap postings = byTrigram.get(trigram);
+            if (postings != null) {
+                IntIterator iterator = postings.getIntIterator();
+                while (iterator.hasNext()) {
+                    shared.merge(iterator.next(), 1, Integer::sum);
+                }
+            }
+        }
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            if (candidate.getValue() < required) {
+                continue;
+            }
+            String other = terms.get(candidate.getKey());
+            if (!other.equals(term) && Math.abs(other.length() - term.length()) <= maxEdits
+                    && distance(term, other, maxEdits) <= maxEdits) {
+                matches.add(other);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Nombre de fautes tolérées selon la longueur : aucune jusqu'à 3 lettres, une jusqu'à 7, deux au-delà
+     */
+    static int maxEditsFor(String term) {
+        if (term.length() <= 3) {
+            return 0;
+        }
+        return term.length() <= 7 ? 1 : 2;
+    }
+
+    /**
+     * Distance de Levenshtein limitée à la bande |i - j| <= max ; renvoie max + 1 dès qu'elle est dépassée
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(b.length(), i + max);
+            current[0] = i;
+            if (from > 1) {
+                current[from - 1] = max + 1;
+            }
+            int rowMinimum = from == 1 ? i : max + 1;
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            if (to < b.length()) {
+                current[to + 1] = max + 1;
+            }
+            if (rowMinimum > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private static Set<String> trigrams(String term) {
+        String padded = "$$" + term + "$$";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
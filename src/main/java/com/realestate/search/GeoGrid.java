@@ -0,0 +1,133 @@
+package com.realestate.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grille géographique régulière : chaque point est rangé dans la cellule (lat, lon) de taille fixe
+ * qui le contient. Une recherche dans un rectangle ne parcourt que les cellules qu'il recouvre.
+ * Non thread-safe, la synchronisation est assurée par l'index propriétaire.
+ */
+final class GeoGrid {
+
+    private final double cellSizeDegrees;
+    private final Map<Long, List<GeoPoint>> cells = new HashMap<>();
+    private final Map<Long, GeoPoint> points = new HashMap<>();
+
+    GeoGrid(double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    void put(long id, double lat, double lon) {
+        remove(id);
+        GeoPoint point = new GeoPoint(id, lat, lon);
+        points.put(id, point);
+        cells.computeIfAbsent(cellKey(latIndex(lat), lonIndex(lon)), key -> new ArrayList<>()).add(point);
+    }
+
+    void remove(long id) {
+        GeoPoint point = points.remove(id);
+        if (point == null) {
+            return;
+        }
+        long key = cellKey(latIndex(point.lat), lonIndex(point.lon));
+        List<GeoPoint> cell = cells.get(key);
+        cell.remove(point);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    void clear() {
+        cells.clear();
+        points.clear();
+    }
+
+    int size() {
+        return points.size();
+    }
+
+    /**
+     * Points contenus dans le rectangle (bornes incluses), sans franchissement de l'antiméridien
+     */
+    List<GeoPoint> withinBox(double south, double west, double north, double east) {
+        List<GeoPoint> result = new ArrayList<>();
+        int minLat = latIndex(south);
+        int maxLat = latIndex(north);
+        int minLon = lonIndex(west);
+        int maxLon = lonIndex(east);
+        long coveredCells = (long) (maxLat - minLat + 1) * (maxLon - minLon + 1);
+
+        if (coveredCells > cells.size()) {
+            // Rectangle plus grand que la partie occupée de la grille : parcours des cellules non vides
+            for (Map.Entry<Long, List<GeoPoint>> entry : cells.entrySet()) {
+                int latIdx = latIndexOf(entry.getKey());
+                int lonIdx = lonIndexOf(entry.getKey());
+                if (latIdx >= minLat && latIdx <= maxLat && lonIdx >= minLon && lonIdx <= maxLon) {
+                    collect(entry.getValue(), south, west, north, east, result);
+                }
+            }
+        } else {
+            for (int latIdx = minLat; latIdx <= maxLat; latIdx++) {
+                for (int lonIdx = minLon; lonIdx <= maxLon; lonIdx++) {
+                    List<GeoPoint> cell = cells.get(cellKey(latIdx, lonIdx));
+                    if (cell != null) {
+                        collect(cell, south, west, north, east, result);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void collect(List<GeoPoint> cell, double south, double west, double north, double east,
+                                List<GeoPoint> result) {
+        for (GeoPoint point : cell) {
+            if (point.lat >= south && point.lat <= north && point.lon >= west && point.lon <= east) {
+                result.add(point);
+            }
+        }
+    }
+
+    private int latIndex(double lat) {
+        return latIndex(lat, cellSizeDegrees);
+    }
+
+    private int lonIndex(double lon) {
+        return lonIndex(lon, cellSizeDegrees);
+    }
+
+    static int latIndex(double lat, double cellSizeDegrees) {
+        return (int) Math.floor((lat + 90.0) / cellSizeDegrees);
+    }
+
+    static int lonIndex(double lon, double cellSizeDegrees) {
+        return (int) Math.floor((lon + 180.0) / cellSizeDegrees);
+    }
+
+    static long cellKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+
+    static int latIndexOf(long cellKey) {
+        return (int) (cellKey >> 32);
+    }
+
+    static int lonIndexOf(long cellKey) {
+        return (int) cellKey;
+    }
+
+    static final class GeoPoint {
+        final long id;
+        final double lat;
+        final double lon;
+
+        GeoPoint(long id, double lat, double lon) {
+            this.id = id;
+            this.lat = lat;
+            this.lon = lon;
+        }
+    }
+}
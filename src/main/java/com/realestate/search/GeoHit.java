@@ -0,0 +1,19 @@
+package com.realestate.search;
+
+/**
+ * Annonce trouvée par une recherche géographique, avec sa distance au point de référence
+ */
+public final class GeoHit {
+
+    private final long listingId;
+    private final double distanceKm;
+
+    GeoHit(long listingId, double distanceKm) {
+        this.listingId = listingId;
+        this.distanceKm = distanceKm;
+    }
+
+    public long getListingId() { return listingId; }
+
+    public double getDistanceKm() { return distanceKm; }
+}
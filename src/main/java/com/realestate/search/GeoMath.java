@@ -0,0 +1,51 @@
+package com.realestate.search;
+
+import com.realestate.exception.InvalidRequestException;
+
+/**
+ * Calculs de distance sur la sphère terrestre
+ */
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double KM_PER_DEGREE_LAT = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private GeoMath() {
+    }
+
+    /**
+     * Distance orthodromique (formule de haversine) en kilomètres
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Demi-largeur en degrés de longitude d'un cercle de rayon donné autour de la latitude
+     */
+    public static double lonDelta(double lat, double radiusKm) {
+        double cos = Math.cos(Math.toRadians(lat));
+        if (cos < 1e-6) {
+            return 180.0;
+        }
+        return Math.min(180.0, radiusKm / (KM_PER_DEGREE_LAT * cos));
+    }
+
+    /**
+     * Demi-hauteur en degrés de latitude d'un cercle de rayon donné
+     */
+    public static double latDelta(double radiusKm) {
+        return radiusKm / KM_PER_DEGREE_LAT;
+    }
+
+    public static void checkCoordinates(double lat, double lon) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180 || Double.isNaN(lat) || Double.isNaN(lon)) {
+            throw new InvalidRequestException("Invalid coordinates: " + lat + ", " + lon);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.realestate.search;
+
+import com.realestate.entity.Listing;
+import com.realestate.event.CityChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extraction des critères d'une question de l'assistant en un seul passage sur le texte : un automate
+ * d'Aho–Corasick construit sur les villes de la table cities et sur un lexique de mots-clés (types de bien,
+ * location / vente, bornes, unités) reconnaît toutes les expressions au fil de la lecture, pendant que les
+ * nombres sont lus sur place ("150 000", "1,5 million", "150k"). Chaque nombre prend le sens de l'unité qui
+ * le suit (FCFA, m², chambres, pièces ; prix par défaut) et la borne qui le précède ("moins de", "au moins",
+ * "entre X et Y"). Seules allocations : les critères accumulés (QueryIntent.Builder) et le QueryIntent rendu.
+ */
+@Component
+public class IntentExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntentExtractor.class);
+
+    private enum Role {
+        CITY, PROPERTY_TYPE, TRANSACTION_TYPE,
+        AT_MOST, AT_LEAST, BETWEEN, AND,
+        PRICE, SURFACE, BEDROOMS, ROOMS,
+        THOUSAND, MILLION
+    }
+
+    // Expressions déjà normalisées au sens de TextAnalyzer.foldChar
+    private static final List<Keyword> LEXICON = List.of(
+            new Keyword(new Term(Role.AT_MOST), "moins de", "max", "maximum", "jusqu a", "au plus", "pas plus de",
+                    "inferieur a", "budget", "budget de"),
+            new Keyword(new Term(Role.AT_LEAST), "plus de", "au moins", "min", "minimum", "a partir de",
+                    "superieur a"),
+            new Keyword(new Term(Role.BETWEEN), "entre"),
+            new Keyword(new Term(Role.AND), "et"),
+            new Keyword(new Term(Role.PRICE), "fcfa", "f cfa", "cfa", "xaf", "f", "franc", "francs"),
+            new Keyword(new Term(Role.SURFACE), "m2", "metre carre", "metres carres", "m carre", "m carres"),
+            new Keyword(new Term(Role.BEDROOMS), "chambre", "chambres", "ch"),
+            new Keyword(new Term(Role.ROOMS), "piece", "pieces"),
+            new Keyword(new Term(Role.THOUSAND), "k", "mille"),
+            new Keyword(new Term(Role.MILLION), "million", "millions"),
+            new Keyword(new Term(Listing.PropertyType.APARTMENT), "appartement", "appartements", "appart", "apparts"),
+            new Keyword(new Term(Listing.PropertyType.HOUSE), "maison", "maisons"),
+            new Keyword(new Term(Listing.PropertyType.VILLA), "villa", "villas"),
+            new Keyword(new Term(Listing.PropertyType.STUDIO), "studio", "studios"),
+            new Keyword(new Term(Listing.PropertyType.DUPLEX), "duplex"),
+            new Keyword(new Term(Listing.PropertyType.COMMERCIAL), "local commercial", "locaux commerciaux",
+                    "boutique", "boutiques", "bureau", "bureaux", "magasin", "magasins"),
+            new Keyword(new Term(Listing.PropertyType.LAND), "terrain", "terrains", "parcelle", "parcelles"),
+            new Keyword(new Term(Listing.TransactionType.RENT), "louer", "a louer", "location", "loyer"),
+            new Keyword(new Term(Listing.TransactionType.SALE), "vendre", "a vendre", "vente", "acheter", "achat",
+                    "acquerir")
+    );
+
+    private final CityRegistry cityRegistry;
+
+    // Remplacé en bloc à chaque reconstruction : les lectures ne prennent aucun verrou
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+
+    public IntentExtractor(CityRegistry cityRegistry) {
+        this.cityRegistry = cityRegistry;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        load(cityRegistry.findAll());
+    }
+
+    void load(List<CityRegistry.Entry> cities) {
+        snapshot = new Snapshot(cities);
+        logger.info("Intent extractor loaded with {} cities", cities.size());
+    }
+
+    // Après CityRegistry, déjà rechargé
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCityChanged(CityChangedEvent event) {
+        rebuild();
+    }
+
+    public QueryIntent extract(String text) {
+        QueryIntent.Builder intent = QueryIntent.builder();
+        if (text == null) {
+            return intent.build();
+        }
+        Snapshot current = snapshot;
+        AhoCorasick automaton = current.automaton;
+
+        // Début de texte équivalent à un séparateur : toutes les expressions commencent par ' '
+        int state = automaton.next(AhoCorasick.ROOT, ' ');
+        boolean afterSeparator = true;
+        // Borne annoncée pour le prochain nombre : AT_MOST, AT_LEAST ou BETWEEN
+        Role bound = null;
+        // Dernier nombre lu, en millièmes, tant que son unité n'est pas connue
+        long pending = QueryIntent.NONE;
+        Role pendingBound = null;
+        // Première valeur d'un "entre X et Y" sans unité propre, en millièmes
+        long rangeLow = QueryIntent.NONE;
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = TextAnalyzer.foldChar(text.charAt(i));
+
+            if (afterSeparator && c >= '0' && c <= '9') {
+                if (pending != QueryIntent.NONE) {
+                    apply(intent, null, pending, pendingBound, rangeLow);
+                    rangeLow = QueryIntent.NONE;
+                }
+                int end = numberEnd(text, i);
+                pending = parseMillis(text, i, end);
+                pendingBound = bound;
+                if (bound != Role.BETWEEN) {
+                    bound = null;
+                }
+                // Fin du nombre = fin de mot : une unité collée ("80m2", "150k") est reconnue
+                state = automaton.next(AhoCorasick.ROOT, ' ');
+                i = end;
+                continue;
+            }
+
+            if (c == ' ') {
+                if (afterSeparator) {
+                    i++;
+                    continue;
+                }
+                afterSeparator = true;
+            } else {
+                afterSeparator = false;
+            }
+            state = automaton.next(state, c);
+            int match = automaton.longestMatch(state);
+            i++;
+            if (match == AhoCorasick.NO_MATCH || afterSeparator
+                    || (i < length && TextAnalyzer.foldChar(text.charAt(i)) != ' ')) {
+                continue;
+            }
+
+            Term term = current.terms[match];
+            switch (term.role) {
+                case THOUSAND:
+                case MILLION:
+                    if (pending != QueryIntent.NONE) {
+                        pending = multiply(pending, term.role == Role.THOUSAND ? 1_000L : 1_000_000L);
+                    }
+                    break;
+                case PRICE:
+                case SURFACE:
+                case BEDROOMS:
+                case ROOMS:
+                    if (pending != QueryIntent.NONE) {
+                        apply(intent, term.role, pending, pendingBound, rangeLow);
+                        pending = QueryIntent.NONE;
+                        rangeLow = QueryIntent.NONE;
+                    }
+                    break;
+                case AND:
+                    if (bound == Role.BETWEEN) {
+                        // "entre 2 et 4 chambres" : l'unité du second nombre vaut pour les deux
+                        if (pending != QueryIntent.NONE) {
+                            rangeLow = pending;
+                            pending = QueryIntent.NONE;
+                        }
+                        bound = Role.AT_MOST;
+                    }
+                    break;
+                default:
+                    if (pending != QueryIntent.NONE) {
+                        apply(intent, null, pending, pendingBound, rangeLow);
+                        pending = QueryIntent.NONE;
+                        rangeLow = QueryIntent.NONE;
+                    }
+                    applyTerm(intent, term);
+                    if (term.role == Role.AT_MOST || term.role == Role.AT_LEAST || term.role == Role.BETWEEN) {
+                        bound = term.role;
+                    }
+                    break;
+            }
+        }
+        if (pending != QueryIntent.NONE) {
+            apply(intent, null, pending, pendingBound, rangeLow);
+        }
+        return intent.build();
+    }
+
+    /**
+     * Première mention de chaque critère retenue
+     */
+    private static void applyTerm(QueryIntent.Builder intent, Term term) {
+        switch (term.role) {
+            case CITY:
+                if (!intent.hasCity()) {
+                    intent.city(term.cityId, term.cityName);
+                }
+                break;
+            case PROPERTY_TYPE:
+                if (!intent.hasPropertyType()) {
+                    intent.propertyType(term.propertyType);
+                }
+                break;
+            case TRANSACTION_TYPE:
+                if (!intent.hasTransactionType()) {
+                    intent.transactionType(term.transactionType);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Nombre sans unité : un prix s'il est annoncé par une borne, ignoré sinon ("2 salles de bain").
+     * Un nombre seul avec unité est un maximum pour un prix (budget), un minimum pour le reste.
+     */
+    private static void apply(QueryIntent.Builder intent, Role unit, long millis, Role bound, long rangeLowMillis) {
+        if (unit == null) {
+            if (bound == null && rangeLowMillis == QueryIntent.NONE) {
+                return;
+            }
+            unit = Role.PRICE;
+        }
+        long value = millis / 1000;
+        long min = QueryIntent.NONE;
+        long max = QueryIntent.NONE;
+        if (rangeLowMillis != QueryIntent.NONE) {
+            min = rangeLowMillis / 1000;
+            max = value;
+        } else if (bound == Role.AT_MOST) {
+            max = value;
+        } else if (bound == Role.AT_LEAST || bound == Role.BETWEEN) {
+            min = value;
+        } else if (unit == Role.PRICE) {
+            max = value;
+        } else {
+            min = value;
+        }
+
+        switch (unit) {
+            case SURFACE:
+                intent.surface(min, max);
+                break;
+            case BEDROOMS:
+                intent.bedrooms(min, max);
+                break;
+            case ROOMS:
+                intent.rooms(min, max);
+                break;
+            default:
+                intent.price(min, max);
+                break;
+        }
+    }
+
+    /**
+     * Fin d'un nombre commençant en start : chiffres, groupes de milliers séparés par une espace
+     * (insécable comprise) ou un point, puis décimales après une virgule ou un point
+     */
+    private static int numberEnd(String text, int start) {
+        int length = text.length();
+        int end = skipDigits(text, start);
+        while (end < length && isGroupSeparator(text.charAt(end)) && skipDigits(text, end + 1) == end + 4) {
+            end += 4;
+        }
+        if (end + 1 < length && (text.charAt(end) == ',' || text.charAt(end) == '.') && isDigit(text.charAt(end + 1))) {
+            end = skipDigits(text, end + 1);
+        }
+        return end;
+    }
+
+    /**
+     * Valeur en millièmes du nombre text[start, end) délimité par numberEnd, plafonnée pour éviter
+     * tout dépassement
+     */
+    private static long parseMillis(String text, int start, int end) {
+        long integer = 0;
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                if (integer < 1_000_000_000_000L) {
+                    integer = integer * 10 + (c - '0');
+                }
+            } else if (!isGroupSeparator(c) || skipDigits(text, i + 1) != i + 4) {
+                break;
+            }
+            i++;
+        }
+        long fraction = 0;
+        long scale = 1000;
+        // Séparateur décimal, puis trois décimales au plus
+        for (i++; i < end && scale > 1; i++) {
+            scale /= 10;
+            fraction += (text.charAt(i) - '0') * scale;
+        }
+        return integer * 1000 + fraction;
+    }
+
+    private static long multiply(long millis, long factor) {
+        return millis > Long.MAX_VALUE / factor ? Long.MAX_VALUE : millis * factor;
+    }
+
+    private static int skipDigits(String text, int from) {
+        int i = from;
+        while (i < text.length() && isDigit(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isGroupSeparator(char c) {
+        return c == ' ' || c == '.' || c == '\u00A0' || c == '\u202F';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Sens d'une expression du dictionnaire
+     */
+    private static final class Term {
+        private final Role role;
+        private final Listing.PropertyType propertyType;
+        private final Listing.TransactionType transactionType;
+        private final Long cityId;
+        private final String cityName;
+
+        private Term(Role role, Listing.PropertyType propertyType, Listing.TransactionType transactionType,
+                     Long cityId, String cityName) {
+            this.role = role;
+            this.propertyType = propertyType;
+            this.transactionType = transactionType;
+            this.cityId = cityId;
+            this.cityName = cityName;
+        }
+
+        Term(Role role) {
+            this(role, null, null, null, null);
+        }
+
+        Term(Listing.PropertyType propertyType) {
+            this(Role.PROPERTY_TYPE, propertyType, null, null, null);
+        }
+
+        Term(Listing.TransactionType transactionType) {
+            this(Role.TRANSACTION_TYPE, null, transactionType, null, null);
+        }
+
+        static Term city(CityRegistry.Entry city) {
+            return new Term(Role.CITY, null, null, city.getId(), city.getName());
+        }
+    }
+
+    private static final class Keyword {
+        private final Term term;
+        private final String[] phrases;
+
+        Keyword(Term term, String... phrases) {
+            this.term = term;
+            this.phrases = phrases;
+        }
+    }
+
+    private static final class Snapshot {
+        private final AhoCorasick automaton;
+        // terms[i] : sens de l'expression numéro i de l'automate
+        private final Term[] terms;
+
+        Snapshot(List<CityRegistry.Entry> cities) {
+            List<String> patterns = new ArrayList<>();
+            List<Term> meanings = new ArrayList<>();
+            // Mots-clés d'abord : ils l'emportent sur une ville de même nom
+            for (Keyword keyword : LEXICON) {
+                for (String phrase : keyword.phrases) {
+                    patterns.add(pattern(phrase));
+                    meanings.add(keyword.term);
+                }
+            }
+            for (CityRegistry.Entry city : cities) {
+                String pattern = pattern(city.getName());
+                if (pattern.length() > 1) {
+                    patterns.add(pattern);
+                    meanings.add(Term.city(city));
+                }
+            }
+            this.automaton = new AhoCorasick(patterns);
+            this.terms = meanings.toArray(new Term[0]);
+        }
+
+        /**
+         * " " + texte normalisé caractère par caractère, séparateurs fusionnés : l'espace initial
+         * impose un début de mot
+         */
+        private static String pattern(String text) {
+            StringBuilder pattern = new StringBuilder(" ");
+            for (int i = 0; text != null && i < text.length(); i++) {
+                char c = TextAnalyzer.foldChar(text.charAt(i));
+                if (c != ' ' || pattern.charAt(pattern.length() - 1) != ' ') {
+                    pattern.append(c);
+                }
+            }
+            int end = pattern.length();
+            while (end > 1 && pattern.charAt(end - 1) == ' ') {
+                end--;
+            }
+            return pattern.substring(0, end);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.realestate.search;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire : terme normalisé -> identifiants des documents qui le contiennent.
+ * Les termes sont triés pour permettre la recherche par préfixe.
+ */
+public class InvertedIndex {
+
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexe (ou réindexe) un document à partir de ses champs texte
+     */
+    public void put(long id, String... texts) {
+        Set<String> terms = new HashSet<>();
+        for (String text : texts) {
+            terms.addAll(TextAnalyzer.tokenize(text));
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> new PostingList()).add(id);
+            }
+            documentTerms.put(id, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Chaque terme de la requête est traité comme un préfixe, les termes sont combinés en ET.
+     * Retourne les identifiants triés par ordre croissant.
+     */
+    public long[] search(List<String> queryTerms) {
+        lock.readLock().lock();
+        try {
+            long[] result = null;
+            for (String term : queryTerms) {
+                Collection<PostingList> matches = postings
+                        .subMap(term, true, term + Character.MAX_VALUE, false)
+                        .values();
+                if (matches.isEmpty()) {
+                    return new long[0];
+                }
+                long[] ids = PostingList.union(matches);
+                result = result == null ? ids : PostingList.intersect(result, ids);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result == null ? new long[0] : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeInternal(long id) {
+        Set<String> previousTerms = documentTerms.remove(id);
+        if (previousTerms == null) {
+            return;
+        }
+        for (String term : previousTerms) {
+            PostingList list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.realestate.search;
+
+import com.realestate.dto.MapClustersDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Regroupement des annonces actives géolocalisées en clusters de carte. La grille d'un niveau de zoom
+ * est construite à sa première demande puis maintenue à jour à chaque modification d'annonce.
+ */
+@Component
+public class ListingClusterIndex implements ListingIndex {
+
+    public static final int MAX_ZOOM = 18;
+    // Nombre maximal de cellules renvoyées pour une zone : borne la taille de la réponse
+    static final int MAX_CELLS = 512;
+    // Cellules par côté de tuile de 256 px, soit des clusters d'environ 64 px à l'écran
+    private static final int CELLS_PER_TILE = 4;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ListingDocument> documents = new HashMap<>();
+    private final Map<Integer, ClusterGrid> gridsByZoom = new HashMap<>();
+
+    private volatile boolean ready;
+
+    @Override
+    public void load(List<ListingDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            this.documents.clear();
+            gridsByZoom.clear();
+            documents.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    @Override
+    public void put(ListingDocument document) {
+        lock.writeLock().lock();
+        try {
+            unindex(document.getId());
+            add(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long listingId) {
+        lock.writeLock().lock();
+        try {
+            unindex(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Clusters de la zone au niveau de zoom demandé, ou au niveau inférieur qui reste sous MAX_CELLS
+     */
+    public MapClustersDTO clusters(double south, double west, double north, double east, int zoom) {
+        int effectiveZoom = effectiveZoom(south, west, north, east, zoom);
+
+        lock.readLock().lock();
+        try {
+            ClusterGrid grid = gridsByZoom.get(effectiveZoom);
+            if (grid != null) {
+                return collect(grid, south, west, north, east, effectiveZoom);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Premier accès à ce niveau de zoom : construction de la grille sous verrou d'écriture
+        lock.writeLock().lock();
+        try {
+            ClusterGrid grid = gridsByZoom.computeIfAbsent(effectiveZoom,
+                    level -> build(cellSize(level), documents.values()));
+            return collect(grid, south, west, north, east, effectiveZoom);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clusters calculés à la volée sur une liste d'annonces (index en cours de chargement)
+     */
+    public static MapClustersDTO clusters(Collection<ListingDocument> documents,
+                                          double south, double west, double north, double east, int zoom) {
+        int effectiveZoom = effectiveZoom(south, west, north, east, zoom);
+        return collect(build(cellSize(effectiveZoom), documents), south, west, north, east, effectiveZoom);
+    }
+
+    private static MapClustersDTO collect(ClusterGrid grid, double south, double west, double north, double east,
+                                          int zoom) {
+        MapClustersDTO result = new MapClustersDTO();
+        result.setZoom(zoom);
+        grid.collect(south, west, north, east, result);
+        return result;
+    }
+
+    private static int effectiveZoom(double south, double west, double north, double east, int zoom) {
+        int level = Math.max(0, Math.min(zoom, MAX_ZOOM));
+        while (level > 0 && ClusterGrid.coveredCells(cellSize(level), south, west, north, east) > MAX_CELLS) {
+            level--;
+        }
+        return level;
+    }
+
+    private static double cellSize(int zoom) {
+        return 360.0 / ((1L << zoom) * CELLS_PER_TILE);
+    }
+
+    private static ClusterGrid build(double cellSize, Collection<ListingDocument> documents) {
+        ClusterGrid grid = new ClusterGrid(cellSize);
+        for (ListingDocument document : documents) {
+            if (document.getLatitude() != null && document.getLongitude() != null) {
+                grid.add(document);
+            }
+        }
+        return grid;
+    }
+
+    private void add(ListingDocument document) {
+        if (document.getLatitude() == null || document.getLongitude() == null) {
+            return;
+        }
+        documents.put(document.getId(), document);
+        gridsByZoom.values().forEach(grid -> grid.add(document));
+    }
+
+    private void unindex(long listingId) {
+        ListingDocument previous = documents.remove(listingId);
+        if (previous != null) {
+            gridsByZoom.values().forEach(grid -> grid.remove(previous));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.realestate.search;
+
+import com.realestate.entity.Listing;
+
+import java.math.BigDecimal;
+
+/**
+ * Copie immuable des attributs d'une annonce utilisés par les index en mémoire
+ */
+public final class ListingDocument {
+
+    private final long id;
+    private final String title;
+    private final Long cityId;
+    private final String cityName;
+    private final Listing.PropertyType propertyType;
+    private final Listing.TransactionType transactionType;
+    private final BigDecimal price;
+    private final Integer surfaceArea;
+    private final Integer rooms;
+    private final Integer bedrooms;
+    private final Double latitude;
+    private final Double longitude;
+
+    private ListingDocument(Listing listing, String cityName) {
+        this.id = listing.getId();
+        this.title = listing.getTitle();
+        this.cityId = listing.getCityId();
+        this.cityName = cityName;
+        this.propertyType = listing.getPropertyType();
+        this.transactionType = listing.getTransactionType();
+        this.price = listing.getPrice();
+        this.surfaceArea = listing.getSurfaceArea();
+        this.rooms = listing.getRooms();
+        this.bedrooms = listing.getBedrooms();
+        this.latitude = listing.getLatitude();
+        this.longitude = listing.getLongitude();
+    }
+
+    public static ListingDocument of(Listing listing, String cityName) {
+        return new ListingDocument(listing, cityName);
+    }
+
+    public long getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public Long getCityId() { return cityId; }
+
+    public String getCityName() { return cityName; }
+
+    public Listing.PropertyType getPropertyType() { return propertyType; }
+
+    public Listing.TransactionType getTransactionType() { return transactionType; }
+
+    public BigDecimal getPrice() { return price; }
+
+    public Integer getSurfaceArea() { return surfaceArea; }
+
+    public Integer getRooms() { return rooms; }
+
+    public Integer getBedrooms() { return bedrooms; }
+
+    public Double getLatitude() { return latitude; }
+
+    public Double getLongitude() { return longitude; }
+}
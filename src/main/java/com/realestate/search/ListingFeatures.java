@@ -0,0 +1,147 @@
+package com.realestate.search;
+
+import com.realestate.entity.Listing;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Vecteur de caractéristiques normalisé d'une annonce pour la recherche d'annonces similaires.
+ * Les grandeurs numériques sont centrées-réduites (prix et surface en logarithme, prix par type
+ * de transaction), les coordonnées converties en unités de 5 km, les types encodés en one-hot.
+ * Une valeur absente est remplacée par la moyenne. Les poids règlent l'importance de chaque critère.
+ */
+final class ListingFeatures {
+
+    static final float CITY_WEIGHT = 1.5f;
+
+    private static final float PRICE_WEIGHT = 2.0f;
+    private static final float SURFACE_WEIGHT = 1.0f;
+    private static final float ROOMS_WEIGHT = 0.7f;
+    private static final float BEDROOMS_WEIGHT = 0.5f;
+    private static final float GEO_WEIGHT = 1.0f;
+    private static final float PROPERTY_TYPE_WEIGHT = 1.5f;
+    // Vente et location ne doivent pratiquement jamais être mélangées
+    private static final float TRANSACTION_TYPE_WEIGHT = 10f;
+    private static final double GEO_UNIT_KM = 5.0;
+
+    private static final Listing.PropertyType[] PROPERTY_TYPES = Listing.PropertyType.values();
+    private static final Listing.TransactionType[] TRANSACTION_TYPES = Listing.TransactionType.values();
+    static final int DIMENSIONS = 6 + PROPERTY_TYPES.length + TRANSACTION_TYPES.length;
+
+    private final Map<Listing.TransactionType, Stats> logPrice;
+    private final Stats logSurface;
+    private final Stats rooms;
+    private final Stats bedrooms;
+    private final double meanLat;
+    private final double meanLon;
+    private final double kmPerDegreeLon;
+
+    private ListingFeatures(Map<Listing.TransactionType, Stats> logPrice, Stats logSurface, Stats rooms,
+                            Stats bedrooms, double meanLat, double meanLon) {
+        this.logPrice = logPrice;
+        this.logSurface = logSurface;
+        this.rooms = rooms;
+        this.bedrooms = bedrooms;
+        this.meanLat = meanLat;
+        this.meanLon = meanLon;
+        this.kmPerDegreeLon = GeoMath.KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(meanLat));
+    }
+
+    /**
+     * Calcule les statistiques de normalisation sur l'ensemble des annonces
+     */
+    static ListingFeatures fit(Collection<ListingDocument> documents) {
+        Map<Listing.TransactionType, Stats> logPrice = new EnumMap<>(Listing.TransactionType.class);
+        for (Listing.TransactionType type : TRANSACTION_TYPES) {
+            logPrice.put(type, new Stats());
+        }
+        Stats logSurface = new Stats();
+        Stats rooms = new Stats();
+        Stats bedrooms = new Stats();
+        Stats lat = new Stats();
+        Stats lon = new Stats();
+        for (ListingDocument document : documents) {
+            if (document.getPrice() != null && document.getTransactionType() != null) {
+                logPrice.get(document.getTransactionType()).add(Math.log1p(document.getPrice().doubleValue()));
+            }
+            if (document.getSurfaceArea() != null) {
+                logSurface.add(Math.log1p(document.getSurfaceArea()));
+            }
+            if (document.getRooms() != null) {
+                rooms.add(document.getRooms());
+            }
+            if (document.getBedrooms() != null) {
+                bedrooms.add(document.getBedrooms());
+            }
+            if (document.getLatitude() != null && document.getLongitude() != null) {
+                lat.add(document.getLatitude());
+                lon.add(document.getLongitude());
+            }
+        }
+        return new ListingFeatures(logPrice, logSurface, rooms, bedrooms, lat.mean(), lon.mean());
+    }
+
+    float[] encode(ListingDocument document) {
+        float[] vector = new float[DIMENSIONS];
+        encode(document, vector, 0);
+        return vector;
+    }
+
+    void encode(ListingDocument document, float[] target, int offset) {
+        Stats priceStats = document.getTransactionType() != null ? logPrice.get(document.getTransactionType()) : null;
+        target[offset] = priceStats != null && document.getPrice() != null
+                ? PRICE_WEIGHT * priceStats.standardize(Math.log1p(document.getPrice().doubleValue())) : 0f;
+        target[offset + 1] = document.getSurfaceArea() != null
+                ? SURFACE_WEIGHT * logSurface.standardize(Math.log1p(document.getSurfaceArea())) : 0f;
+        target[offset + 2] = document.getRooms() != null ? ROOMS_WEIGHT * rooms.standardize(document.getRooms()) : 0f;
+        target[offset + 3] = document.getBedrooms() != null
+                ? BEDROOMS_WEIGHT * bedrooms.standardize(document.getBedrooms()) : 0f;
+        double lat = document.getLatitude() != null ? document.getLatitude() : meanLat;
+        double lon = document.getLongitude() != null ? document.getLongitude() : meanLon;
+        target[offset + 4] = (float) (GEO_WEIGHT * (lat - meanLat) * GeoMath.KM_PER_DEGREE_LAT / GEO_UNIT_KM);
+        target[offset + 5] = (float) (GEO_WEIGHT * (lon - meanLon) * kmPerDegreeLon / GEO_UNIT_KM);
+
+        int position = offset + 6;
+        for (Listing.PropertyType type : PROPERTY_TYPES) {
+            target[position++] = type == document.getPropertyType() ? PROPERTY_TYPE_WEIGHT : 0f;
+        }
+        for (Listing.TransactionType type : TRANSACTION_TYPES) {
+            target[position++] = type == document.getTransactionType() ? TRANSACTION_TYPE_WEIGHT : 0f;
+        }
+    }
+
+    /**
+     * Code ville utilisé par la distance (égalité uniquement)
+     */
+    static int cityCode(ListingDocument document) {
+        return document.getCityId() != null ? Math.toIntExact(document.getCityId()) : -1;
+    }
+
+    private static final class Stats {
+        private long count;
+        private double sum;
+        private double sumOfSquares;
+
+        void add(double value) {
+            count++;
+            sum += value;
+            sumOfSquares += value * value;
+        }
+
+        double mean() {
+            return count > 0 ? sum / count : 0;
+        }
+
+        float standardize(double value) {
+            if (count == 0) {
+                return 0f;
+            }
+            double mean = mean();
+            double variance = sumOfSquares / count - mean * mean;
+            double deviation = variance > 1e-9 ? Math.sqrt(variance) : 1.0;
+            return (float) ((value - mean) / deviation);
+        }
+    }
+}
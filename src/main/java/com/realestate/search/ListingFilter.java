@@ -0,0 +1,26 @@
+package com.realestate.search;
+
+import com.realestate.entity.Listing;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Critères de filtrage des annonces actives (mêmes critères que ListingRepository.findWithFilters),
+ * plus une recherche par mots dans le titre et la ville. En mode fuzzy, les mots et le nom de ville
+ * tolèrent quelques fautes de frappe.
+ */
+@Value
+public class ListingFilter {
+    String cityName;
+    Listing.PropertyType propertyType;
+    Listing.TransactionType transactionType;
+    BigDecimal minPrice;
+    BigDecimal maxPrice;
+    Integer minSurface;
+    Integer maxSurface;
+    Integer minRooms;
+    Integer maxRooms;
+    String text;
+    boolean fuzzy;
+}
@@ -0,0 +1,446 @@
+package com.realestate.search;
+
+import com.realestate.dto.SearchFacetsDTO;
+import com.realestate.entity.Listing;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Index de filtrage des annonces actives : un bitmap compressé par type de bien, type de transaction,
+ * ville et tranche de prix / surface / nombre de pièces. Les combinaisons de filtres sont résolues
+ * par ET/OU de bitmaps, la base n'est interrogée que pour charger la page d'identifiants finale.
+ */
+@Component
+public class ListingFilterIndex implements ListingIndex {
+
+    // Tranches en FCFA
+    static final double[] PRICE_BOUNDARIES = {
+            25_000, 50_000, 100_000, 200_000, 300_000, 500_000, 1_000_000, 2_000_000, 5_000_000,
+            10_000_000, 20_000_000, 50_000_000, 100_000_000, 200_000_000, 500_000_000
+    };
+    // Tranches en m²
+    static final double[] SURFACE_BOUNDARIES = {20, 40, 60, 80, 100, 150, 200, 300, 500, 1_000};
+    // Une tranche par nombre de pièces jusqu'à 9, puis 10 et plus
+    static final double[] ROOMS_BOUNDARIES = {2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "createdAt", "price");
+    // Comme l'ORDER BY de PostgreSQL : une annonce sans prix passe après toutes les autres (avant en ordre décroissant)
+    private static final Comparator<BigDecimal> PRICE_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, ListingDocument> documents = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Listing.PropertyType, RoaringBitmap> byPropertyType = new EnumMap<>(Listing.PropertyType.class);
+    private final Map<Listing.TransactionType, RoaringBitmap> byTransactionType = new EnumMap<>(Listing.TransactionType.class);
+    private final Map<Long, RoaringBitmap> byCity = new HashMap<>();
+    private final Map<Long, String> cityNames = new HashMap<>();
+    private final Map<Long, String> foldedCityNames = new HashMap<>();
+    // Noms de ville normalisés (nom complet et chacun de ses mots) pour le filtre tolérant aux fautes
+    private final FuzzyDictionary cityDictionary = new FuzzyDictionary();
+    private final Map<String, Set<Long>> cityIdsByTerm = new HashMap<>();
+    private final RangeBuckets priceBuckets = new RangeBuckets(PRICE_BOUNDARIES);
+    private final RangeBuckets surfaceBuckets = new RangeBuckets(SURFACE_BOUNDARIES);
+    private final RangeBuckets roomsBuckets = new RangeBuckets(ROOMS_BOUNDARIES);
+
+    private final ListingTextIndex listingTextIndex;
+
+    private volatile boolean ready;
+
+    public ListingFilterIndex(ListingTextIndex listingTextIndex) {
+        this.listingTextIndex = listingTextIndex;
+    }
+
+    @Override
+    public void load(List<ListingDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            documents.forEach(this::add);
+            all.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    @Override
+    public void put(ListingDocument document) {
+        lock.writeLock().lock();
+        try {
+            remove(toDocId(document.getId()));
+            add(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long listingId) {
+        lock.writeLock().lock();
+        try {
+            remove(toDocId(listingId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Nombre d'annonces actives de la ville
+     */
+    public int countByCity(long cityId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap city = byCity.get(cityId);
+            return city != null ? city.getCardinality() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Page d'identifiants correspondant au filtre, avec le nombre total de résultats.
+     * Retourne null si la pagination demandée ne peut pas être servie par l'index
+     * (index en cours de chargement, tri non supporté) : l'appelant interroge alors la base.
+     */
+    public Page<Long> search(ListingFilter filter, Pageable pageable) {
+        return search(filter, pageable, null);
+    }
+
+    /**
+     * Comme search ; facetsConsumer (facultatif) reçoit en plus les facettes du filtre, calculées
+     * à partir des mêmes bitmaps de critères et sous le même verrou que la page
+     */
+    public Page<Long> search(ListingFilter filter, Pageable pageable, Consumer<SearchFacetsDTO> facetsConsumer) {
+        if (!canServe(filter) || pageable.isUnpaged()) {
+            return null;
+        }
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.size() > 1 || (orders.size() == 1 && !SORTABLE_PROPERTIES.contains(orders.get(0).getProperty()))) {
+            return null;
+        }
+        Sort.Order order = orders.isEmpty() ? null : orders.get(0);
+
+        lock.readLock().lock();
+        try {
+            Map<Dimension, RoaringBitmap> constraints = constraints(filter);
+            RoaringBitmap matches = intersect(constraints, null);
+            if (facetsConsumer != null) {
+                facetsConsumer.accept(facets(constraints));
+            }
+            return new PageImpl<>(page(matches, order, pageable), pageable, matches.getCardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compteurs de facettes (ville, type de bien, type de transaction, tranche de prix) pour le filtre courant,
+     * calculés en un seul passage sur les bitmaps. Chaque facette ignore son propre filtre.
+     * Retourne null tant que les index ne sont pas chargés. Calculées seules, elles peuvent refléter
+     * un état plus récent qu'une page obtenue auparavant : voir search avec facetsConsumer.
+     */
+    public SearchFacetsDTO facets(ListingFilter filter) {
+        if (!canServe(filter)) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return facets(constraints(filter));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Appelé sous le verrou de lecture
+    private SearchFacetsDTO facets(Map<Dimension, RoaringBitmap> constraints) {
+        SearchFacetsDTO facets = new SearchFacetsDTO();
+
+        RoaringBitmap cityBase = intersect(constraints, Dimension.CITY);
+        List<Map.Entry<String, Long>> cityCounts = new ArrayList<>();
+        byCity.forEach((cityId, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(cityBase, bitmap);
+            if (count > 0) {
+                cityCounts.add(Map.entry(cityNames.get(cityId), count));
+            }
+        });
+        cityCounts.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        cityCounts.forEach(entry -> facets.getCities().merge(entry.getKey(), entry.getValue(), Long::sum));
+
+        RoaringBitmap propertyTypeBase = intersect(constraints, Dimension.PROPERTY_TYPE);
+        byPropertyType.forEach((type, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(propertyTypeBase, bitmap);
+            if (count > 0) {
+                facets.getPropertyTypes().put(type.name(), count);
+            }
+        });
+
+        RoaringBitmap transactionTypeBase = intersect(constraints, Dimension.TRANSACTION_TYPE);
+        byTransactionType.forEach((type, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(transactionTypeBase, bitmap);
+            if (count > 0) {
+                facets.getTransactionTypes().put(type.name(), count);
+            }
+        });
+
+        RoaringBitmap priceBase = intersect(constraints, Dimension.PRICE);
+        for (int b = 0; b < priceBuckets.bucketCount(); b++) {
+            long count = RoaringBitmap.andCardinality(priceBase, priceBuckets.bucket(b));
+            if (count > 0) {
+                facets.getPriceRanges().add(new SearchFacetsDTO.RangeCount(
+                        toBigDecimal(priceBuckets.lowerBound(b)), toBigDecimal(priceBuckets.upperBound(b)), count));
+            }
+        }
+        return facets;
+    }
+
+    private boolean canServe(ListingFilter filter) {
+        return ready && (filter.getText() == null || listingTextIndex.isReady());
+    }
+
+    /**
+     * Bitmap des documents autorisés pour chaque critère renseigné du filtre
+     */
+    private Map<Dimension, RoaringBitmap> constraints(ListingFilter filter) {
+        Map<Dimension, RoaringBitmap> constraints = new EnumMap<>(Dimension.class);
+        if (filter.getPropertyType() != null) {
+            constraints.put(Dimension.PROPERTY_TYPE,
+                    byPropertyType.getOrDefault(filter.getPropertyType(), new RoaringBitmap()));
+        }
+        if (filter.getTransactionType() != null) {
+            constraints.put(Dimension.TRANSACTION_TYPE,
+                    byTransactionType.getOrDefault(filter.getTransactionType(), new RoaringBitmap()));
+        }
+        if (filter.getCityName() != null) {
+            // Même sémantique que LIKE '%ville%', insensible aux accents
+            String needle = TextAnalyzer.fold(filter.getCityName());
+            RoaringBitmap cities = new RoaringBitmap();
+            foldedCityNames.forEach((cityId, name) -> {
+                if (name.contains(needle)) {
+                    cities.or(byCity.get(cityId));
+                }
+            });
+            if (filter.isFuzzy()) {
+                String term = needle.trim();
+                for (String match : cityDictionary.lookup(term, FuzzyDictionary.maxEditsFor(term))) {
+                    for (Long cityId : cityIdsByTerm.get(match)) {
+                        RoaringBitmap city = byCity.get(cityId);
+                        if (city != null) {
+                            cities.or(city);
+                        }
+                    }
+                }
+            }
+            constraints.put(Dimension.CITY, cities);
+        }
+        if (filter.getText() != null) {
+            RoaringBitmap text = listingTextIndex.match(filter.getText(), filter.isFuzzy());
+            if (text != null) {
+                constraints.put(Dimension.TEXT, text);
+            }
+        }
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            constraints.put(Dimension.PRICE,
+                    priceBuckets.query(toDouble(filter.getMinPrice()), toDouble(filter.getMaxPrice())));
+        }
+        if (filter.getMinSurface() != null || filter.getMaxSurface() != null) {
+            constraints.put(Dimension.SURFACE,
+                    surfaceBuckets.query(toDouble(filter.getMinSurface()), toDouble(filter.getMaxSurface())));
+        }
+        if (filter.getMinRooms() != null || filter.getMaxRooms() != null) {
+            constraints.put(Dimension.ROOMS,
+                    roomsBuckets.query(toDouble(filter.getMinRooms()), toDouble(filter.getMaxRooms())));
+        }
+        return constraints;
+    }
+
+    private RoaringBitmap intersect(Map<Dimension, RoaringBitmap> constraints, Dimension excluded) {
+        RoaringBitmap result = all.clone();
+        for (Map.Entry<Dimension, RoaringBitmap> constraint : constraints.entrySet()) {
+            if (constraint.getKey() != excluded) {
+                result.and(constraint.getValue());
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<Long> page(RoaringBitmap matches, Sort.Order order, Pageable pageable) {
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        if (offset >= matches.getCardinality()) {
+            return List.of();
+        }
+
+        if (order != null && "price".equals(order.getProperty())) {
+            return pageByPrice(matches, order.isDescending(), (int) offset, size);
+        }
+
+        // Les identifiants suivent l'ordre de création : tri par id ou createdAt, les plus récents par défaut
+        boolean descending = order == null || order.isDescending();
+        IntIterator ids = descending ? matches.getReverseIntIterator() : matches.getIntIterator();
+        List<Long> result = new ArrayList<>(size);
+        long skipped = 0;
+        while (ids.hasNext() && result.size() < size) {
+            int docId = ids.next();
+            if (skipped++ >= offset) {
+                result.add((long) docId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tri par prix sans trier toutes les correspondances : un tas borné garde les offset + size premières
+     * dans l'ordre demandé (la moins bien placée en tête, remplacée dès qu'une meilleure arrive)
+     */
+    private List<Long> pageByPrice(RoaringBitmap matches, boolean descending, int offset, int size) {
+        int limit = (int) Math.min((long) offset + size, matches.getCardinality());
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit, (a, b) -> compareByPrice(b, a, descending));
+        IntIterator ids = matches.getIntIterator();
+        while (ids.hasNext()) {
+            int docId = ids.next();
+            if (heap.size() < limit) {
+                heap.add(docId);
+            } else if (compareByPrice(docId, heap.peek(), descending) < 0) {
+                heap.poll();
+                heap.add(docId);
+            }
+        }
+
+        long[] ranked = new long[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = heap.poll();
+        }
+        List<Long> result = new ArrayList<>(size);
+        for (int i = offset; i < ranked.length; i++) {
+            result.add(ranked[i]);
+        }
+        return result;
+    }
+
+    // Prix puis identifiant, pour un ordre stable entre deux pages
+    private int compareByPrice(int docId, int otherDocId, boolean descending) {
+        int byPrice = PRICE_ORDER.compare(documents.get(docId).getPrice(), documents.get(otherDocId).getPrice());
+        int result = byPrice != 0 ? byPrice : Integer.compare(docId, otherDocId);
+        return descending ? -result : result;
+    }
+
+    private void add(ListingDocument document) {
+        int docId = toDocId(document.getId());
+        documents.put(docId, document);
+        all.add(docId);
+        if (document.getPropertyType() != null) {
+            byPropertyType.computeIfAbsent(document.getPropertyType(), t -> new RoaringBitmap()).add(docId);
+        }
+        if (document.getTransactionType() != null) {
+            byTransactionType.computeIfAbsent(document.getTransactionType(), t -> new RoaringBitmap()).add(docId);
+        }
+        if (document.getCityId() != null) {
+            byCity.computeIfAbsent(document.getCityId(), c -> new RoaringBitmap()).add(docId);
+            cityNames.put(document.getCityId(), document.getCityName());
+            if (foldedCityNames.put(document.getCityId(), TextAnalyzer.fold(document.getCityName())) == null) {
+                addCityTerms(document.getCityId(), document.getCityName());
+            }
+        }
+        // Sans prix : dans aucune tranche, exclue de tout filtre de prix
+        priceBuckets.add(docId, toDouble(document.getPrice()));
+        surfaceBuckets.add(docId, toDouble(document.getSurfaceArea()));
+        roomsBuckets.add(docId, toDouble(document.getRooms()));
+    }
+
+    private void remove(int docId) {
+        ListingDocument previous = documents.remove(docId);
+        if (previous == null) {
+            return;
+        }
+        all.remove(docId);
+        if (previous.getPropertyType() != null) {
+            byPropertyType.get(previous.getPropertyType()).remove(docId);
+        }
+        if (previous.getTransactionType() != null) {
+            byTransactionType.get(previous.getTransactionType()).remove(docId);
+        }
+        if (previous.getCityId() != null) {
+            RoaringBitmap city = byCity.get(previous.getCityId());
+            city.remove(docId);
+            if (city.isEmpty()) {
+                byCity.remove(previous.getCityId());
+                cityNames.remove(previous.getCityId());
+                foldedCityNames.remove(previous.getCityId());
+            }
+        }
+        priceBuckets.remove(docId);
+        surfaceBuckets.remove(docId);
+        roomsBuckets.remove(docId);
+    }
+
+    private void addCityTerms(Long cityId, String cityName) {
+        Set<String> terms = new HashSet<>(TextAnalyzer.tokenize(cityName));
+        terms.add(TextAnalyzer.fold(cityName).trim());
+        for (String term : terms) {
+            cityDictionary.add(term);
+            cityIdsByTerm.computeIfAbsent(term, t -> new HashSet<>()).add(cityId);
+        }
+    }
+
+    private void clear() {
+        documents.clear();
+        all.clear();
+        byPropertyType.clear();
+        byTransactionType.clear();
+        byCity.clear();
+        cityNames.clear();
+        foldedCityNames.clear();
+        cityDictionary.clear();
+        cityIdsByTerm.clear();
+        priceBuckets.clear();
+        surfaceBuckets.clear();
+        roomsBuckets.clear();
+    }
+
+    static int toDocId(long id) {
+        return Math.toIntExact(id);
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
+    private static Double toDouble(Integer value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
+    private static BigDecimal toBigDecimal(double bound) {
+        return Double.isInfinite(bound) ? null : BigDecimal.valueOf((long) bound);
+    }
+
+    private enum Dimension {
+        CITY, PROPERTY_TYPE, TRANSACTION_TYPE, PRICE, SURFACE, ROOMS, TEXT
+    }
+}
@@ -0,0 +1,124 @@
+package com.realestate.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index géographique des annonces actives géolocalisées : recherche dans un rayon autour d'un point
+ * ou dans une zone de carte, résultats triés par distance croissante.
+ */
+@Component
+public class ListingGeoIndex implements ListingIndex {
+
+    // ~5,5 km de côté en latitude : une recherche de quelques km ne touche qu'une poignée de cellules
+    static final double CELL_SIZE_DEGREES = 0.05;
+
+    private static final Comparator<GeoHit> BY_DISTANCE =
+            Comparator.comparingDouble(GeoHit::getDistanceKm).thenComparingLong(GeoHit::getListingId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final GeoGrid grid = new GeoGrid(CELL_SIZE_DEGREES);
+
+    private volatile boolean ready;
+
+    @Override
+    public void load(List<ListingDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            grid.clear();
+            documents.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    @Override
+    public void put(ListingDocument document) {
+        lock.writeLock().lock();
+        try {
+            grid.remove(document.getId());
+            add(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long listingId) {
+        lock.writeLock().lock();
+        try {
+            grid.remove(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Annonces situées à moins de radiusKm du point, les plus proches en premier
+     */
+    public List<GeoHit> nearby(double lat, double lon, double radiusKm, int limit) {
+        double latDelta = GeoMath.latDelta(radiusKm);
+        double lonDelta = GeoMath.lonDelta(lat, radiusKm);
+        lock.readLock().lock();
+        try {
+            List<GeoGrid.GeoPoint> candidates = grid.withinBox(
+                    Math.max(-90, lat - latDelta), Math.max(-180, lon - lonDelta),
+                    Math.min(90, lat + latDelta), Math.min(180, lon + lonDelta));
+            return closest(candidates, lat, lon, radiusKm, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Annonces situées dans la zone (sud, ouest, nord, est), triées par distance au point de référence
+     */
+    public List<GeoHit> within(double south, double west, double north, double east,
+                               double refLat, double refLon, int limit) {
+        lock.readLock().lock();
+        try {
+            List<GeoGrid.GeoPoint> candidates = grid.withinBox(south, west, north, east);
+            return closest(candidates, refLat, refLon, Double.POSITIVE_INFINITY, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sélection des limit plus proches avec un tas borné, sans trier tous les candidats
+     */
+    private static List<GeoHit> closest(List<GeoGrid.GeoPoint> candidates, double lat, double lon,
+                                        double maxDistanceKm, int limit) {
+        PriorityQueue<GeoHit> heap = new PriorityQueue<>(limit + 1, BY_DISTANCE.reversed());
+        for (GeoGrid.GeoPoint point : candidates) {
+            double distance = GeoMath.distanceKm(lat, lon, point.lat, point.lon);
+            if (distance > maxDistanceKm) {
+                continue;
+            }
+            heap.offer(new GeoHit(point.id, distance));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<GeoHit> hits = new ArrayList<>(heap);
+        hits.sort(BY_DISTANCE);
+        return hits;
+    }
+
+    private void add(ListingDocument document) {
+        if (document.getLatitude() != null && document.getLongitude() != null) {
+            grid.put(document.getId(), document.getLatitude(), document.getLongitude());
+        }
+    }
+}
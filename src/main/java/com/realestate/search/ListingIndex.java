@@ -0,0 +1,24 @@
+package com.realestate.search;
+
+import java.util.List;
+
+/**
+ * Index en mémoire alimenté par ListingIndexer avec les annonces actives
+ */
+public interface ListingIndex {
+
+    /**
+     * Remplace tout le contenu de l'index (chargement initial)
+     */
+    void load(List<ListingDocument> documents);
+
+    /**
+     * Ajoute ou remplace une annonce active
+     */
+    void put(ListingDocument document);
+
+    /**
+     * Retire une annonce (supprimée ou devenue inactive)
+     */
+    void remove(long listingId);
+}
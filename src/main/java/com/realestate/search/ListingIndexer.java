@@ -0,0 +1,129 @@
+package com.realestate.search;
+
+import com.realestate.entity.Listing;
+import com.realestate.event.ListingChangedEvent;
+import com.realestate.event.ListingsImportedEvent;
+import com.realestate.repository.ListingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Charge les annonces actives une seule fois au démarrage pour tous les index en mémoire,
+ * puis leur transmet chaque modification validée. Le cache des résultats de recherche n'est invalidé
+ * qu'après la mise à jour des index. Les modifications validées pendant le chargement sont mises de côté
+ * puis rejouées sur les index chargés, sans quoi le chargement les écraserait.
+ */
+@Component
+public class ListingIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingIndexer.class);
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final ListingRepository listingRepository;
+    private final List<ListingIndex> indexes;
+    private final SearchResultCache searchResultCache;
+    private final CityRegistry cityRegistry;
+
+    private final Object rebuildLock = new Object();
+    // Non nul pendant un chargement : modifications à rejouer ensuite, dans l'ordre de réception
+    private List<Runnable> pendingChanges;
+
+    public ListingIndexer(ListingRepository listingRepository, List<ListingIndex> indexes,
+                          SearchResultCache searchResultCache, CityRegistry cityRegistry) {
+        this.listingRepository = listingRepository;
+        this.indexes = indexes;
+        this.searchResultCache = searchResultCache;
+        this.cityRegistry = cityRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            pendingChanges = new ArrayList<>();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            List<ListingDocument> documents = new ArrayList<>();
+            Page<Listing> page;
+            int pageNumber = 0;
+            do {
+                page = listingRepository.findByStatus(Listing.Status.ACTIVE,
+                        PageRequest.of(pageNumber++, LOAD_BATCH_SIZE, Sort.by("id")));
+                page.forEach(listing -> documents.add(ListingDocument.of(listing, cityRegistry.cityNameOf(listing))));
+            } while (page.hasNext());
+
+            indexes.forEach(index -> index.load(documents));
+            searchResultCache.onListingsLoaded(documents);
+            logger.info("Loaded {} active listings into {} in-memory indexes in {} ms",
+                    documents.size(), indexes.size(), System.currentTimeMillis() - start);
+        } finally {
+            // Sous le verrou : une modification arrivée pendant le rejeu passe après les plus anciennes
+            synchronized (rebuildLock) {
+                if (!pendingChanges.isEmpty()) {
+                    logger.info("Replaying {} listing changes received during the index load", pendingChanges.size());
+                }
+                pendingChanges.forEach(Runnable::run);
+                pendingChanges = null;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        Listing listing = event.getListing();
+        if (listing.getId() == null) {
+            return;
+        }
+        apply(() -> index(event));
+    }
+
+    // Un import publie un événement par lot : une seule invalidation du cache pour tout le lot
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingsImported(ListingsImportedEvent event) {
+        apply(() -> index(event));
+    }
+
+    private void apply(Runnable change) {
+        synchronized (rebuildLock) {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+                return;
+            }
+        }
+        change.run();
+    }
+
+    private void index(ListingChangedEvent event) {
+        Listing listing = event.getListing();
+        if (event.getChangeType() != ListingChangedEvent.ChangeType.DELETED
+                && listing.getStatus() == Listing.Status.ACTIVE) {
+            ListingDocument document = ListingDocument.of(listing, cityRegistry.cityNameOf(listing));
+            indexes.forEach(index -> index.put(document));
+            searchResultCache.onListingPut(document);
+        } else {
+            indexes.forEach(index -> index.remove(listing.getId()));
+            searchResultCache.onListingRemoved(listing.getId());
+        }
+    }
+
+    private void index(ListingsImportedEvent event) {
+        List<ListingDocument> documents = event.getListings().stream()
+                .filter(listing -> listing.getStatus() == Listing.Status.ACTIVE)
+                .map(listing -> ListingDocument.of(listing, cityRegistry.cityNameOf(listing)))
+                .toList();
+        indexes.forEach(index -> documents.forEach(index::put));
+        searchResultCache.onListingsPut(documents);
+    }
+}
@@ -0,0 +1,130 @@
+package com.realestate.search;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index des termes (titre et ville, sans accents) des annonces actives. En mode approximatif,
+ * chaque terme saisi est étendu aux termes du dictionnaire à une ou deux fautes près.
+ * Les identifiants de documents sont ceux de ListingFilterIndex, les bitmaps se combinent donc directement.
+ */
+@Component
+public class ListingTextIndex implements ListingIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RoaringBitmap> postings = new HashMap<>();
+    private final Map<Integer, Set<String>> documentTerms = new HashMap<>();
+    // Les termes ne sont jamais retirés du dictionnaire : un terme sans annonce a une liste vide
+    private final FuzzyDictionary dictionary = new FuzzyDictionary();
+
+    private volatile boolean ready;
+
+    @Override
+    public void load(List<ListingDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            dictionary.clear();
+            documents.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    @Override
+    public void put(ListingDocument document) {
+        lock.writeLock().lock();
+        try {
+            remove(ListingFilterIndex.toDocId(document.getId()));
+            add(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long listingId) {
+        lock.writeLock().lock();
+        try {
+            remove(ListingFilterIndex.toDocId(listingId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Documents contenant tous les termes de la saisie (ou, en mode approximatif, un terme proche
+     * de chacun d'eux). Retourne null si la saisie ne contient aucun terme.
+     */
+    RoaringBitmap match(String text, boolean fuzzy) {
+        List<String> tokens = TextAnalyzer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            for (String token : tokens) {
+                List<String> expansions = fuzzy
+                        ? dictionary.lookup(token, FuzzyDictionary.maxEditsFor(token))
+                        : List.of(token);
+                RoaringBitmap tokenMatches = new RoaringBitmap();
+                for (String term : expansions) {
+                    RoaringBitmap termPostings = postings.get(term);
+                    if (termPostings != null) {
+                        tokenMatches.or(termPostings);
+                    }
+                }
+                if (result == null) {
+                    result = tokenMatches;
+                } else {
+                    result.and(tokenMatches);
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ListingDocument document) {
+        int docId = ListingFilterIndex.toDocId(document.getId());
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.tokenize(document.getTitle()));
+        terms.addAll(TextAnalyzer.tokenize(document.getCityName()));
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> new RoaringBitmap()).add(docId);
+            dictionary.add(term);
+        }
+        documentTerms.put(docId, terms);
+    }
+
+    private void remove(int docId) {
+        Set<String> terms = documentTerms.remove(docId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            RoaringBitmap termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(docId);
+            }
+        }
+    }
+}
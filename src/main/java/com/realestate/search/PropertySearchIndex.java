@@ -0,0 +1,101 @@
+package com.realestate.search;
+
+import com.realestate.entity.Property;
+import com.realestate.event.PropertyChangedEvent;
+import com.realestate.repository.PropertyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Index plein texte des biens (titre + description), chargé au démarrage
+ * puis maintenu à jour après chaque écriture validée. Les statistiques BM25
+ * servant au tri par pertinence sont tenues à jour en même temps.
+ */
+@Component
+public class PropertySearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertySearchIndex.class);
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final PropertyRepository propertyRepository;
+    private final InvertedIndex textIndex = new InvertedIndex();
+    private final RelevanceIndex relevanceIndex = new RelevanceIndex();
+    private volatile boolean ready;
+
+    public PropertySearchIndex(PropertyRepository propertyRepository) {
+        this.propertyRepository = propertyRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        textIndex.clear();
+        relevanceIndex.clear();
+
+        Page<Property> page;
+        int pageNumber = 0;
+        do {
+            page = propertyRepository.findAll(PageRequest.of(pageNumber++, LOAD_BATCH_SIZE, Sort.by("id")));
+            page.forEach(this::index);
+        } while (page.hasNext());
+
+        ready = true;
+        logger.info("Property search index built with {} documents in {} ms",
+                textIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        Property property = event.getProperty();
+        if (property.getId() == null) {
+            return;
+        }
+        if (event.getChangeType() == PropertyChangedEvent.ChangeType.DELETED) {
+            textIndex.remove(property.getId());
+            relevanceIndex.remove(property.getId());
+        } else {
+            index(property);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Identifiants (triés) des biens contenant tous les termes, chacun pouvant être un préfixe
+     */
+    public List<Long> search(List<String> terms) {
+        return Arrays.stream(textIndex.search(terms)).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * Les limit biens les plus pertinents (BM25, titre renforcé) parmi les candidats, du meilleur au moins bon
+     */
+    public List<Long> rankByRelevance(List<String> terms, Collection<Long> candidateIds, int limit) {
+        long[] candidates = candidateIds.stream().mapToLong(Long::longValue).toArray();
+        return Arrays.stream(relevanceIndex.top(terms, candidates, limit)).boxed().collect(Collectors.toList());
+    }
+
+    private void index(Property property) {
+        textIndex.put(property.getId(), property.getTitle(), property.getDescription());
+        relevanceIndex.put(property.getId(), property.getTitle(), property.getDescription());
+    }
+}
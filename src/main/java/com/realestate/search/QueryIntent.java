@@ -0,0 +1,237 @@
+package com.realestate.search;
+
+import com.realestate.entity.Listing;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Critères de recherche extraits d'une question en langage naturel par IntentExtractor.
+ * Les bornes sont gardées en types primitifs (-1 : absente) ; les accesseurs les rendent sous la forme
+ * attendue par ListingRepository.findByAIQuery (null : absente).
+ * Immuable et comparé par valeur : sert de clé au cache de réponses de l'assistant.
+ */
+public final class QueryIntent {
+
+    static final long NONE = -1;
+
+    private final Long cityId;
+    private final String cityName;
+    private final Listing.PropertyType propertyType;
+    private final Listing.TransactionType transactionType;
+    private final long minPrice;
+    private final long maxPrice;
+    private final long minSurface;
+    private final long maxSurface;
+    private final long minBedrooms;
+    private final long maxBedrooms;
+    private final long minRooms;
+    private final long maxRooms;
+
+    private QueryIntent(Builder builder) {
+        this.cityId = builder.cityId;
+        this.cityName = builder.cityName;
+        this.propertyType = builder.propertyType;
+        this.transactionType = builder.transactionType;
+        this.minPrice = builder.minPrice;
+        this.maxPrice = builder.maxPrice;
+        this.minSurface = builder.minSurface;
+        this.maxSurface = builder.maxSurface;
+        this.minBedrooms = builder.minBedrooms;
+        this.maxBedrooms = builder.maxBedrooms;
+        this.minRooms = builder.minRooms;
+        this.maxRooms = builder.maxRooms;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    public Long getCityId() { return cityId; }
+
+    public String getCityName() { return cityName; }
+
+    /**
+     * Mêmes critères avec la ville trouvée autrement (recherche approchée) quand le texte n'en cite aucune exactement
+     */
+    public QueryIntent withCity(Long cityId, String cityName) {
+        return new Builder()
+                .city(cityId, cityName)
+                .propertyType(propertyType)
+                .transactionType(transactionType)
+                .price(minPrice, maxPrice)
+                .surface(minSurface, maxSurface)
+                .bedrooms(minBedrooms, maxBedrooms)
+                .rooms(minRooms, maxRooms)
+                .build();
+    }
+
+    public Listing.PropertyType getPropertyType() { return propertyType; }
+
+    public Listing.TransactionType getTransactionType() { return transactionType; }
+
+    public BigDecimal getMinPrice() { return minPrice == NONE ? null : BigDecimal.valueOf(minPrice); }
+    public BigDecimal getMaxPrice() { return maxPrice == NONE ? null : BigDecimal.valueOf(maxPrice); }
+
+    public Integer getMinSurface() { return boxed(minSurface); }
+    public Integer getMaxSurface() { return boxed(maxSurface); }
+
+    public Integer getMinBedrooms() { return boxed(minBedrooms); }
+    public Integer getMaxBedrooms() { return boxed(maxBedrooms); }
+
+    public Integer getMinRooms() { return boxed(minRooms); }
+    public Integer getMaxRooms() { return boxed(maxRooms); }
+
+    /**
+     * Mêmes conditions que ListingRepository.findByAIQuery : sans ville, aucune annonce ne correspond
+     */
+    public boolean matches(Listing listing) {
+        return listing.getStatus() == Listing.Status.ACTIVE
+                && cityId != null && cityId.equals(listing.getCityId())
+                && (propertyType == null || propertyType == listing.getPropertyType())
+                && (transactionType == null || transactionType == listing.getTransactionType())
+                && priceWithin(listing.getPrice())
+                && within(listing.getSurfaceArea(), minSurface, maxSurface)
+                && within(listing.getBedrooms(), minBedrooms, maxBedrooms)
+                && within(listing.getRooms(), minRooms, maxRooms);
+    }
+
+    private boolean priceWithin(BigDecimal price) {
+        if (minPrice == NONE && maxPrice == NONE) {
+            return true;
+        }
+        return price != null
+                && (minPrice == NONE || price.compareTo(BigDecimal.valueOf(minPrice)) >= 0)
+                && (maxPrice == NONE || price.compareTo(BigDecimal.valueOf(maxPrice)) <= 0);
+    }
+
+    private static boolean within(Number value, long min, long max) {
+        if (min == NONE && max == NONE) {
+            return true;
+        }
+        return value != null && (min == NONE || value.longValue() >= min) && (max == NONE || value.longValue() <= max);
+    }
+
+    private static Integer boxed(long value) {
+        return value == NONE ? null : (int) Math.min(value, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QueryIntent)) {
+            return false;
+        }
+        QueryIntent other = (QueryIntent) o;
+        return Objects.equals(cityId, other.cityId)
+                && propertyType == other.propertyType && transactionType == other.transactionType
+                && minPrice == other.minPrice && maxPrice == other.maxPrice
+                && minSurface == other.minSurface && maxSurface == other.maxSurface
+                && minBedrooms == other.minBedrooms && maxBedrooms == other.maxBedrooms
+                && minRooms == other.minRooms && maxRooms == other.maxRooms;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cityId, propertyType, transactionType, minPrice, maxPrice,
+                minSurface, maxSurface, minBedrooms, maxBedrooms, minRooms, maxRooms);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryIntent{city='%s', type=%s, transaction=%s, price=[%s, %s], surface=[%s, %s], "
+                        + "bedrooms=[%s, %s], rooms=[%s, %s]}",
+                cityName, propertyType, transactionType, getMinPrice(), getMaxPrice(), getMinSurface(), getMaxSurface(),
+                getMinBedrooms(), getMaxBedrooms(), getMinRooms(), getMaxRooms());
+    }
+
+    /**
+     * Critères accumulés au fil de l'extraction ; une borne absente (NONE) ne remplace pas celle déjà lue
+     */
+    static final class Builder {
+
+        private Long cityId;
+        private String cityName;
+        private Listing.PropertyType propertyType;
+        private Listing.TransactionType transactionType;
+        private long minPrice = NONE;
+        private long maxPrice = NONE;
+        private long minSurface = NONE;
+        private long maxSurface = NONE;
+        private long minBedrooms = NONE;
+        private long maxBedrooms = NONE;
+        private long minRooms = NONE;
+        private long maxRooms = NONE;
+
+        private Builder() {
+        }
+
+        boolean hasCity() { return cityId != null; }
+
+        boolean hasPropertyType() { return propertyType != null; }
+
+        boolean hasTransactionType() { return transactionType != null; }
+
+        Builder city(Long cityId, String cityName) {
+            this.cityId = cityId;
+            this.cityName = cityName;
+            return this;
+        }
+
+        Builder propertyType(Listing.PropertyType propertyType) {
+            this.propertyType = propertyType;
+            return this;
+        }
+
+        Builder transactionType(Listing.TransactionType transactionType) {
+            this.transactionType = transactionType;
+            return this;
+        }
+
+        Builder price(long min, long max) {
+            if (min != NONE) {
+                minPrice = min;
+            }
+            if (max != NONE) {
+                maxPrice = max;
+            }
+            return this;
+        }
+
+        Builder surface(long min, long max) {
+            if (min != NONE) {
+                minSurface = min;
+            }
+            if (max != NONE) {
+                maxSurface = max;
+            }
+            return this;
+        }
+
+        Builder bedrooms(long min, long max) {
+            if (min != NONE) {
+                minBedrooms = min;
+            }
+            if (max != NONE) {
+                maxBedrooms = max;
+            }
+            return this;
+        }
+
+        Builder rooms(long min, long max) {
+            if (min != NONE) {
+                minRooms = min;
+            }
+            if (max != NONE) {
+                maxRooms = max;
+            }
+            return this;
+        }
+
+        QueryIntent build() {
+            return new QueryIntent(this);
+        }
+    }
+}
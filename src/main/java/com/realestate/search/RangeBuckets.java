@@ -0,0 +1,105 @@
+package com.realestate.search;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Attribut numérique découpé en tranches, un bitmap par tranche.
+ * Les tranches entièrement couvertes par un intervalle sont combinées telles quelles,
+ * seules les tranches aux bornes sont vérifiées valeur par valeur.
+ * Non thread-safe : la synchronisation est assurée par l'index propriétaire.
+ */
+final class RangeBuckets {
+
+    // Bornes supérieures exclusives des tranches, la dernière tranche est ouverte
+    private final double[] boundaries;
+    private final RoaringBitmap[] buckets;
+    private final Map<Integer, Double> values = new HashMap<>();
+
+    RangeBuckets(double... boundaries) {
+        this.boundaries = boundaries.clone();
+        this.buckets = new RoaringBitmap[boundaries.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new RoaringBitmap();
+        }
+    }
+
+    void add(int id, Double value) {
+        remove(id);
+        if (value == null) {
+            return;
+        }
+        values.put(id, value);
+        buckets[bucketOf(value)].add(id);
+    }
+
+    void remove(int id) {
+        Double previous = values.remove(id);
+        if (previous != null) {
+            buckets[bucketOf(previous)].remove(id);
+        }
+    }
+
+    void clear() {
+        values.clear();
+        for (RoaringBitmap bucket : buckets) {
+            bucket.clear();
+        }
+    }
+
+    /**
+     * Documents dont la valeur est comprise dans [min, max] (bornes optionnelles)
+     */
+    RoaringBitmap query(Double min, Double max) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (int b = 0; b < buckets.length; b++) {
+            double lower = lowerBound(b);
+            double upper = upperBound(b);
+            if ((max != null && lower > max) || (min != null && upper <= min)) {
+                continue;
+            }
+            if ((min == null || lower >= min) && (max == null || upper <= max)) {
+                result.or(buckets[b]);
+                continue;
+            }
+            IntIterator ids = buckets[b].getIntIterator();
+            while (ids.hasNext()) {
+                int id = ids.next();
+                double value = values.get(id);
+                if ((min == null || value >= min) && (max == null || value <= max)) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    int bucketCount() {
+        return buckets.length;
+    }
+
+    RoaringBitmap bucket(int index) {
+        return buckets[index];
+    }
+
+    double lowerBound(int index) {
+        return index == 0 ? Double.NEGATIVE_INFINITY : boundaries[index - 1];
+    }
+
+    double upperBound(int index) {
+        return index == boundaries.length ? Double.POSITIVE_INFINITY : boundaries[index];
+    }
+
+    private int bucketOf(double value) {
+        return bucketOf(boundaries, value);
+    }
+
+    static int bucketOf(double[] boundaries, double value) {
+        int index = Arrays.binarySearch(boundaries, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
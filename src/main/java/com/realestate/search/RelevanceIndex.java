@@ -0,0 +1,185 @@
+package com.realestate.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Statistiques de termes pour le classement BM25F des biens (titre + description) :
+ * fréquences par champ, longueurs des documents et nombre de documents par terme,
+ * tenues à jour à chaque indexation plutôt que recalculées à la requête.
+ * Le titre pèse TITLE_BOOST fois plus que la description.
+ */
+final class RelevanceIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double TITLE_BOOST = 3.0;
+    private static final int MAX_FREQUENCY = 0xFFFF;
+
+    // terme -> (document -> fréquence dans le titre sur 16 bits de poids fort, dans la description sur 16 bits de poids faible)
+    private final NavigableMap<String, Map<Long, Integer>> frequencies = new TreeMap<>();
+    // document -> {longueur du titre, longueur de la description} en nombre de termes
+    private final Map<Long, int[]> lengths = new HashMap<>();
+    private final Map<Long, String[]> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalTitleLength;
+    private long totalBodyLength;
+
+    void put(long id, String title, String body) {
+        List<String> titleTerms = TextAnalyzer.tokenize(title);
+        List<String> bodyTerms = TextAnalyzer.tokenize(body);
+        Map<String, Integer> counts = new HashMap<>();
+        titleTerms.forEach(term -> counts.merge(term, 1 << 16, RelevanceIndex::addFrequencies));
+        bodyTerms.forEach(term -> counts.merge(term, 1, RelevanceIndex::addFrequencies));
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            counts.forEach((term, packed) -> frequencies.computeIfAbsent(term, t -> new HashMap<>()).put(id, packed));
+            lengths.put(id, new int[] {titleTerms.size(), bodyTerms.size()});
+            documentTerms.put(id, counts.keySet().toArray(new String[0]));
+            totalTitleLength += titleTerms.size();
+            totalBodyLength += bodyTerms.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            frequencies.clear();
+            lengths.clear();
+            documentTerms.clear();
+            totalTitleLength = 0;
+            totalBodyLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Les limit meilleurs candidats pour les termes (traités comme des préfixes, comme dans InvertedIndex),
+     * du plus pertinent au moins pertinent ; à score égal le plus récent (identifiant le plus grand) d'abord.
+     * Seuls limit candidats sont gardés en tas, la liste complète n'est jamais triée.
+     */
+    long[] top(List<String> queryTerms, long[] candidates, int limit) {
+        long[] sorted = candidates.clone();
+        Arrays.sort(sorted);
+        double[] scores = new double[sorted.length];
+
+        lock.readLock().lock();
+        try {
+            int documentCount = lengths.size();
+            if (documentCount == 0) {
+                return new long[0];
+            }
+            double averageTitle = Math.max(1.0, (double) totalTitleLength / documentCount);
+            double averageBody = Math.max(1.0, (double) totalBodyLength / documentCount);
+
+            double[] termScores = new double[sorted.length];
+            for (String queryTerm : queryTerms) {
+                Arrays.fill(termScores, 0);
+                // Un préfixe peut couvrir plusieurs termes : on garde la meilleure contribution par document
+                for (Map.Entry<String, Map<Long, Integer>> entry
+                        : frequencies.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+                    Map<Long, Integer> postings = entry.getValue();
+                    double idf = Math.log(1 + (documentCount - postings.size() + 0.5) / (postings.size() + 0.5));
+                    if (postings.size() <= sorted.length) {
+                        for (Map.Entry<Long, Integer> posting : postings.entrySet()) {
+                            int index = Arrays.binarySearch(sorted, posting.getKey());
+                            if (index >= 0) {
+                                termScores[index] = Math.max(termScores[index], score(idf, posting.getValue(),
+                                        lengths.get(posting.getKey()), averageTitle, averageBody));
+                            }
+                        }
+                    } else {
+                        for (int i = 0; i < sorted.length; i++) {
+                            Integer packed = postings.get(sorted[i]);
+                            if (packed != null) {
+                                termScores[i] = Math.max(termScores[i],
+                                        score(idf, packed, lengths.get(sorted[i]), averageTitle, averageBody));
+                            }
+                        }
+                    }
+                }
+                for (int i = 0; i < sorted.length; i++) {
+                    scores[i] += termScores[i];
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return selectTop(sorted, scores, limit);
+    }
+
+    private static long[] selectTop(long[] ids, double[] scores, int limit) {
+        if (limit <= 0) {
+            return new long[0];
+        }
+        // Tas minimum : la tête est le moins bon des limit retenus
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(limit, ids.length) + 1,
+                (a, b) -> scores[a] != scores[b] ? Double.compare(scores[a], scores[b]) : Long.compare(ids[a], ids[b]));
+        for (int i = 0; i < ids.length; i++) {
+            if (heap.size() < limit) {
+                heap.add(i);
+            } else if (heap.comparator().compare(i, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        long[] result = new long[heap.size()];
+        for (int n = result.length - 1; n >= 0; n--) {
+            result[n] = ids[heap.poll()];
+        }
+        return result;
+    }
+
+    private static double score(double idf, int packed, int[] length, double averageTitle, double averageBody) {
+        double title = (packed >>> 16) / (1 - B + B * length[0] / averageTitle);
+        double body = (packed & MAX_FREQUENCY) / (1 - B + B * length[1] / averageBody);
+        double frequency = TITLE_BOOST * title + body;
+        return idf * frequency * (K1 + 1) / (K1 + frequency);
+    }
+
+    private static int addFrequencies(int left, int right) {
+        int title = Math.min(MAX_FREQUENCY, (left >>> 16) + (right >>> 16));
+        int body = Math.min(MAX_FREQUENCY, (left & MAX_FREQUENCY) + (right & MAX_FREQUENCY));
+        return title << 16 | body;
+    }
+
+    private void removeInternal(long id) {
+        int[] length = lengths.remove(id);
+        if (length == null) {
+            return;
+        }
+        totalTitleLength -= length[0];
+        totalBodyLength -= length[1];
+        for (String term : documentTerms.remove(id)) {
+            Map<Long, Integer> postings = frequencies.get(term);
+            if (postings != null) {
+                postings.remove(id);
+                if (postings.isEmpty()) {
+                    frequencies.remove(term);
+                }
+            }
+        }
+    }
+}
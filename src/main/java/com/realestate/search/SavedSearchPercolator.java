@@ -0,0 +1,269 @@
+package com.realestate.search;
+
+import com.realestate.entity.Listing;
+import com.realestate.entity.SavedSearch;
+import com.realestate.event.SavedSearchChangedEvent;
+import com.realestate.repository.SavedSearchRepository;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Percolateur : index inversé des recherches sauvegardées elles-mêmes. Pour une nouvelle annonce,
+ * les recherches candidates sont obtenues par intersection de bitmaps (ville, type de bien,
+ * type de transaction, tranche de prix), seules ces candidates sont vérifiées critère par critère.
+ */
+@Component
+public class SavedSearchPercolator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchPercolator.class);
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final double[] PRICE_BOUNDARIES = ListingFilterIndex.PRICE_BOUNDARIES;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Une seule reconstruction à la fois : elle seule lit et vide pendingChanges
+    private final Lock rebuildLock = new ReentrantLock();
+    // Modifications reçues pendant le chargement d'une reconstruction (null hors reconstruction), rejouées sur le
+    // nouvel index : le chargement peut avoir lu la base avant qu'elles ne soient validées
+    private List<SavedSearchChangedEvent> pendingChanges;
+
+    private final Map<Integer, SavedSearchQuery> queries = new HashMap<>();
+    // Pour chaque critère : les recherches qui exigent une valeur donnée, et celles sans ce critère
+    private final Map<Long, RoaringBitmap> byCity = new HashMap<>();
+    private final RoaringBitmap anyCity = new RoaringBitmap();
+    private final Map<Listing.PropertyType, RoaringBitmap> byPropertyType = new EnumMap<>(Listing.PropertyType.class);
+    private final RoaringBitmap anyPropertyType = new RoaringBitmap();
+    private final Map<Listing.TransactionType, RoaringBitmap> byTransactionType = new EnumMap<>(Listing.TransactionType.class);
+    private final RoaringBitmap anyTransactionType = new RoaringBitmap();
+    // Tranche i : recherches dont l'intervalle de prix recoupe la tranche
+    private final RoaringBitmap[] byPriceBucket = new RoaringBitmap[PRICE_BOUNDARIES.length + 1];
+    private final RoaringBitmap anyPrice = new RoaringBitmap();
+
+    public SavedSearchPercolator(SavedSearchRepository savedSearchRepository) {
+        this.savedSearchRepository = savedSearchRepository;
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new RoaringBitmap();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            List<SavedSearchQuery> loaded = new ArrayList<>();
+            try {
+                Page<SavedSearch> page;
+                int pageNumber = 0;
+                do {
+                    page = savedSearchRepository.findByAlertsEnabledTrue(
+                            PageRequest.of(pageNumber++, LOAD_BATCH_SIZE, Sort.by("id")));
+                    page.forEach(savedSearch -> loaded.add(SavedSearchQuery.of(savedSearch)));
+                } while (page.hasNext());
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                clear();
+                loaded.forEach(this::add);
+                // Dans l'ordre de réception : la dernière modification d'une recherche l'emporte
+                replayed = pendingChanges.size();
+                pendingChanges.forEach(this::apply);
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Saved search percolator loaded with {} queries, {} concurrent changes replayed",
+                    loaded.size(), replayed);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSavedSearchChanged(SavedSearchChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(SavedSearchChangedEvent event) {
+        SavedSearch savedSearch = event.getSavedSearch();
+        remove(toQueryId(savedSearch.getId()));
+        if (event.getChangeType() != SavedSearchChangedEvent.ChangeType.DELETED
+                && Boolean.TRUE.equals(savedSearch.getAlertsEnabled())) {
+            add(SavedSearchQuery.of(savedSearch));
+        }
+    }
+
+    /**
+     * Recherches sauvegardées auxquelles l'annonce correspond
+     */
+    public List<SavedSearchQuery> percolate(ListingDocument listing) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = candidates(byCity.get(listing.getCityId()), anyCity);
+            candidates.and(candidates(byPropertyType.get(listing.getPropertyType()), anyPropertyType));
+            candidates.and(candidates(byTransactionType.get(listing.getTransactionType()), anyTransactionType));
+            if (listing.getPrice() != null) {
+                candidates.and(candidates(byPriceBucket[RangeBuckets.bucketOf(PRICE_BOUNDARIES,
+                        listing.getPrice().doubleValue())], anyPrice));
+            } else {
+                candidates.and(anyPrice);
+            }
+
+            List<SavedSearchQuery> matches = new ArrayList<>();
+            IntIterator iterator = candidates.getIntIterator();
+            while (iterator.hasNext()) {
+                SavedSearchQuery query = queries.get(iterator.next());
+                if (query.matches(listing)) {
+                    matches.add(query);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static RoaringBitmap candidates(RoaringBitmap specific, RoaringBitmap any) {
+        return specific != null ? RoaringBitmap.or(specific, any) : any.clone();
+    }
+
+    private void add(SavedSearchQuery query) {
+        int queryId = toQueryId(query.getId());
+        queries.put(queryId, query);
+
+        if (query.getCityId() != null) {
+            byCity.computeIfAbsent(query.getCityId(), c -> new RoaringBitmap()).add(queryId);
+        } else {
+            anyCity.add(queryId);
+        }
+        if (query.getPropertyType() != null) {
+            byPropertyType.computeIfAbsent(query.getPropertyType(), t -> new RoaringBitmap()).add(queryId);
+        } else {
+            anyPropertyType.add(queryId);
+        }
+        if (query.getTransactionType() != null) {
+            byTransactionType.computeIfAbsent(query.getTransactionType(), t -> new RoaringBitmap()).add(queryId);
+        } else {
+            anyTransactionType.add(queryId);
+        }
+        if (query.getMinPrice() == null && query.getMaxPrice() == null) {
+            anyPrice.add(queryId);
+        } else {
+            for (int bucket = firstPriceBucket(query); bucket <= lastPriceBucket(query); bucket++) {
+                byPriceBucket[bucket].add(queryId);
+            }
+        }
+    }
+
+    private void remove(int queryId) {
+        SavedSearchQuery previous = queries.remove(queryId);
+        if (previous == null) {
+            return;
+        }
+        if (previous.getCityId() != null) {
+            removeFrom(byCity, previous.getCityId(), queryId);
+        } else {
+            anyCity.remove(queryId);
+        }
+        if (previous.getPropertyType() != null) {
+            removeFrom(byPropertyType, previous.getPropertyType(), queryId);
+        } else {
+            anyPropertyType.remove(queryId);
+        }
+        if (previous.getTransactionType() != null) {
+            removeFrom(byTransactionType, previous.getTransactionType(), queryId);
+        } else {
+            anyTransactionType.remove(queryId);
+        }
+        if (previous.getMinPrice() == null && previous.getMaxPrice() == null) {
+            anyPrice.remove(queryId);
+        } else {
+            for (int bucket = firstPriceBucket(previous); bucket <= lastPriceBucket(previous); bucket++) {
+                byPriceBucket[bucket].remove(queryId);
+            }
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> index, K key, int queryId) {
+        RoaringBitmap bitmap = index.get(key);
+        if (bitmap != null) {
+            bitmap.remove(queryId);
+            if (bitmap.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private void clear() {
+        queries.clear();
+        byCity.clear();
+        anyCity.clear();
+        byPropertyType.clear();
+        anyPropertyType.clear();
+        byTransactionType.clear();
+        anyTransactionType.clear();
+        for (RoaringBitmap bucket : byPriceBucket) {
+            bucket.clear();
+        }
+        anyPrice.clear();
+    }
+
+    private static int firstPriceBucket(SavedSearchQuery query) {
+        return query.getMinPrice() != null ? RangeBuckets.bucketOf(PRICE_BOUNDARIES, query.getMinPrice()) : 0;
+    }
+
+    private static int lastPriceBucket(SavedSearchQuery query) {
+        return query.getMaxPrice() != null
+                ? RangeBuckets.bucketOf(PRICE_BOUNDARIES, query.getMaxPrice())
+                : PRICE_BOUNDARIES.length;
+    }
+
+    private static int toQueryId(long savedSearchId) {
+        return Math.toIntExact(savedSearchId);
+    }
+}
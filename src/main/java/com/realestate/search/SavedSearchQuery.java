@@ -0,0 +1,84 @@
+package com.realestate.search;
+
+import com.realestate.entity.Listing;
+import com.realestate.entity.SavedSearch;
+
+/**
+ * Copie immuable des critères d'une recherche sauvegardée, utilisée par le percolateur
+ */
+public final class SavedSearchQuery {
+
+    private final long id;
+    private final long userId;
+    private final Long cityId;
+    private final Listing.PropertyType propertyType;
+    private final Listing.TransactionType transactionType;
+    private final Double minPrice;
+    private final Double maxPrice;
+    private final Integer minSurface;
+    private final Integer maxSurface;
+    private final Integer minRooms;
+    private final Integer maxRooms;
+
+    private SavedSearchQuery(SavedSearch savedSearch) {
+        this.id = savedSearch.getId();
+        this.userId = savedSearch.getUser().getId();
+        this.cityId = savedSearch.getCity() != null ? savedSearch.getCity().getId() : null;
+        this.propertyType = savedSearch.getPropertyType();
+        this.transactionType = savedSearch.getTransactionType();
+        this.minPrice = savedSearch.getMinPrice() != null ? savedSearch.getMinPrice().doubleValue() : null;
+        this.maxPrice = savedSearch.getMaxPrice() != null ? savedSearch.getMaxPrice().doubleValue() : null;
+        this.minSurface = savedSearch.getMinSurface();
+        this.maxSurface = savedSearch.getMaxSurface();
+        this.minRooms = savedSearch.getMinRooms();
+        this.maxRooms = savedSearch.getMaxRooms();
+    }
+
+    public static SavedSearchQuery of(SavedSearch savedSearch) {
+        return new SavedSearchQuery(savedSearch);
+    }
+
+    /**
+     * Vérification exacte de tous les critères, les critères absents acceptent toute valeur
+     */
+    boolean matches(ListingDocument listing) {
+        if (cityId != null && !cityId.equals(listing.getCityId())) {
+            return false;
+        }
+        if (propertyType != null && propertyType != listing.getPropertyType()) {
+            return false;
+        }
+        if (transactionType != null && transactionType != listing.getTransactionType()) {
+            return false;
+        }
+        Double price = listing.getPrice() != null ? listing.getPrice().doubleValue() : null;
+        return inRange(price, minPrice, maxPrice)
+                && inRange(toDouble(listing.getSurfaceArea()), toDouble(minSurface), toDouble(maxSurface))
+                && inRange(toDouble(listing.getRooms()), toDouble(minRooms), toDouble(maxRooms));
+    }
+
+    private static boolean inRange(Double value, Double min, Double max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    private static Double toDouble(Integer value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
+    public long getId() { return id; }
+
+    public long getUserId() { return userId; }
+
+    public Long getCityId() { return cityId; }
+
+    public Listing.PropertyType getPropertyType() { return propertyType; }
+
+    public Listing.TransactionType getTransactionType() { return transactionType; }
+
+    public Double getMinPrice() { return minPrice; }
+
+    public Double getMaxPrice() { return maxPrice; }
+}
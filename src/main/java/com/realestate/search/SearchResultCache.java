@@ -0,0 +1,346 @@
+package com.realestate.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.realestate.dto.CacheStatsDTO;
+import com.realestate.entity.Property;
+import com.realestate.event.PropertiesStatusChangedEvent;
+import com.realestate.event.PropertyChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache des pages de résultats de recherche (biens et annonces), indexé par les filtres normalisés
+ * et la pagination. Borné en nombre de lignes mises en cache, avec éviction W-TinyLFU.
+ * Chaque écriture n'invalide que les entrées dont les filtres de ville et de type peuvent
+ * inclure la ligne modifiée, avant comme après modification. Les clés sont rangées par portée et par
+ * filtre de ville : une écriture ne parcourt que les filtres de ville distincts, pas tout le cache.
+ */
+@Component
+public class SearchResultCache {
+
+    public enum Scope {
+        PROPERTY, LISTING
+    }
+
+    // Nombre total de lignes de résultats conservées
+    static final long MAXIMUM_WEIGHT = 50_000;
+    // Les pages profondes sont rarement redemandées : elles ne sont pas mises en cache
+    static final int MAX_CACHED_PAGE = 5;
+
+    // Seau des clés sans filtre de ville ou à filtre tolérant aux fautes : "" est contenu dans toute ville
+    private static final String ANY_CITY = "";
+
+    private final Cache<Key, Page<?>> cache = Caffeine.newBuilder()
+            .maximumWeight(MAXIMUM_WEIGHT)
+            .weigher((Key key, Page<?> page) -> page.getNumberOfElements() + 1)
+            // Filet de sécurité pour les écritures qui ne passent pas par les services
+            .expireAfterWrite(Duration.ofMinutes(10))
+            // Écouteur exécuté hors des verrous du cache (exécuteur par défaut) : l'index peut garder
+            // brièvement une clé déjà retirée, son invalidation est alors sans effet. Une page remplacée
+            // laisse la clé en cache, l'index est mis à jour par l'appel qui l'a remplacée.
+            .removalListener((Key key, Page<?> page, RemovalCause cause) -> {
+                if (key != null && cause != RemovalCause.REPLACED) {
+                    unindex(key, page);
+                }
+            })
+            .recordStats()
+            .build();
+
+    // Portée, puis filtre de ville normalisé : clés en cache et page associée. Structures concurrentes,
+    // sans verrou commun avec le cache : l'index n'est jamais modifié pendant un appel au cache.
+    private final Map<Scope, ConcurrentMap<String, ConcurrentMap<Key, Page<?>>>> keysByCity = newIndex();
+
+    // Ville et type de chaque annonce active, pour invalider aussi les anciennes valeurs
+    private final Map<Long, Tags> listingTags = new ConcurrentHashMap<>();
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final AtomicLong writeGeneration = new AtomicLong();
+
+    /**
+     * Retourne la page en cache ou la calcule avec loader.
+     * filters contient les autres critères de la recherche, déjà normalisés.
+     * fuzzyCity : le filtre de ville tolère les fautes, la page est alors invalidée à chaque écriture
+     * de la portée (le nom saisi ne se compare pas au nom de la ville écrite).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Page<T> get(Scope scope, String city, boolean fuzzyCity, Enum<?> type, List<Object> filters,
+                           Pageable pageable, Supplier<Page<T>> loader) {
+        if (pageable.isUnpaged() || pageable.getPageNumber() >= MAX_CACHED_PAGE) {
+            return loader.get();
+        }
+        Key key = new Key(scope, city, fuzzyCity, type, filters, pageable);
+        Page<T> cached = (Page<T>) cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Chargement hors du cache : la requête en base ne bloque ni le cache ni les autres clés
+        long generation = writeGeneration.get();
+        Page<T> page = loader.get();
+        // Une écriture a eu lieu pendant le chargement : la page peut être périmée, elle n'est pas gardée
+        if (writeGeneration.get() != generation) {
+            return page;
+        }
+        cache.put(key, page);
+        index(key, page);
+        // Écriture survenue entre le contrôle et l'indexation : son parcours a pu manquer la clé
+        if (writeGeneration.get() != generation) {
+            cache.invalidate(key);
+        }
+        return page;
+    }
+
+    // Après PropertySearchIndex : une page recalculée juste après l'invalidation voit l'index à jour
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        Property property = event.getProperty();
+        invalidate(Scope.PROPERTY, new Tags(property.getCity(), property.getType()));
+        if (event.getChangeType() == PropertyChangedEvent.ChangeType.UPDATED) {
+            invalidate(Scope.PROPERTY, new Tags(event.getPreviousCity(), event.getPreviousType()));
+        }
+    }
+
+    // Ville et type des biens modifiés inconnus : toutes les pages de biens sont invalidées
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertiesStatusChanged(PropertiesStatusChangedEvent event) {
+        invalidate(Scope.PROPERTY, new Tags(null, null));
+    }
+
+    /**
+     * Appelé par ListingIndexer après le chargement des index d'annonces
+     */
+    void onListingsLoaded(List<ListingDocument> documents) {
+        listingTags.clear();
+        documents.forEach(document -> listingTags.put(document.getId(), Tags.of(document)));
+        writeGeneration.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Appelé par ListingIndexer une fois les index d'annonces à jour
+     */
+    void onListingPut(ListingDocument document) {
+        Tags previous = listingTags.put(document.getId(), Tags.of(document));
+        if (previous != null) {
+            invalidate(Scope.LISTING, previous);
+        }
+        invalidate(Scope.LISTING, Tags.of(document));
+    }
+
+    /**
+     * Appelé par ListingIndexer après un lot d'import : un seul parcours du cache pour tout le lot
+     */
+    void onListingsPut(List<ListingDocument> documents) {
+        Set<Tags> written = new LinkedHashSet<>();
+        for (ListingDocument document : documents) {
+            Tags previous = listingTags.put(document.getId(), Tags.of(document));
+            if (previous != null) {
+                written.add(previous);
+            }
+            written.add(Tags.of(document));
+        }
+        if (!written.isEmpty()) {
+            invalidate(Scope.LISTING, written);
+        }
+    }
+
+    void onListingRemoved(long listingId) {
+        Tags previous = listingTags.remove(listingId);
+        if (previous != null) {
+            invalidate(Scope.LISTING, previous);
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setEstimatedSize(cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction -> {
+            dto.setWeightedSize(eviction.weightedSize().orElse(0L));
+            dto.setMaximumWeight(eviction.getMaximum());
+        });
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setEvictionCount(stats.evictionCount());
+        dto.setEvictionWeight(stats.evictionWeight());
+        dto.setInvalidationCount(invalidationCount.get());
+        return dto;
+    }
+
+    private void invalidate(Scope scope, Tags written) {
+        invalidate(scope, Set.of(written));
+    }
+
+    private void invalidate(Scope scope, Set<Tags> written) {
+        // Avant le parcours : une page chargée pendant l'écriture n'est pas gardée (voir get)
+        writeGeneration.incrementAndGet();
+        List<Key> affected = new ArrayList<>();
+        keysByCity.get(scope).forEach((city, keys) -> {
+            if (written.stream().anyMatch(tags -> tags.mayContain(city))) {
+                for (Key key : keys.keySet()) {
+                    if (written.stream().anyMatch(key::isAffectedBy)) {
+                        affected.add(key);
+                    }
+                }
+            }
+        });
+        // L'écouteur de retrait met l'index à jour
+        cache.invalidateAll(affected);
+        invalidationCount.addAndGet(affected.size());
+    }
+
+    private void index(Key key, Page<?> page) {
+        // Page déjà évincée ou remplacée par un appel concurrent : rien à indexer
+        if (cache.asMap().get(key) != page) {
+            return;
+        }
+        keysByCity.get(key.scope).compute(key.cityBucket(), (city, keys) -> {
+            ConcurrentMap<Key, Page<?>> bucket = keys != null ? keys : new ConcurrentHashMap<>();
+            bucket.put(key, page);
+            return bucket;
+        });
+    }
+
+    /**
+     * Retrait conditionné à la page retirée : si la clé a été remise en cache entre-temps,
+     * l'index porte la nouvelle page et reste intact. Comparaison par identité : une page rechargée
+     * a souvent le même contenu (PageImpl.equals) que celle évincée.
+     */
+    private void unindex(Key key, Page<?> page) {
+        keysByCity.get(key.scope).computeIfPresent(key.cityBucket(), (city, keys) -> {
+            keys.computeIfPresent(key, (k, indexed) -> indexed == page ? null : indexed);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static Map<Scope, ConcurrentMap<String, ConcurrentMap<Key, Page<?>>>> newIndex() {
+        Map<Scope, ConcurrentMap<String, ConcurrentMap<Key, Page<?>>>> index = new EnumMap<>(Scope.class);
+        for (Scope scope : Scope.values()) {
+            index.put(scope, new ConcurrentHashMap<>());
+        }
+        return index;
+    }
+
+    /**
+     * Ville et type d'une ligne écrite
+     */
+    private static final class Tags {
+        private final String foldedCity;
+        private final String type;
+
+        Tags(String city, Enum<?> type) {
+            this.foldedCity = city != null ? TextAnalyzer.fold(city) : null;
+            this.type = type != null ? type.name() : null;
+        }
+
+        static Tags of(ListingDocument document) {
+            return new Tags(document.getCityName(), document.getPropertyType());
+        }
+
+        /**
+         * Vrai si une clé du seau de ville cityBucket peut être touchée par cette écriture
+         */
+        boolean mayContain(String cityBucket) {
+            return foldedCity == null || foldedCity.contains(cityBucket);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Tags)) {
+                return false;
+            }
+            Tags other = (Tags) o;
+            return Objects.equals(foldedCity, other.foldedCity) && Objects.equals(type, other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(foldedCity, type);
+        }
+    }
+
+    private static final class Key {
+        private final Scope scope;
+        private final String city;
+        private final String foldedCity;
+        private final boolean fuzzyCity;
+        private final String type;
+        private final List<Object> filters;
+        private final int page;
+        private final int size;
+        private final String sort;
+        private final int hash;
+
+        Key(Scope scope, String city, boolean fuzzyCity, Enum<?> type, List<Object> filters, Pageable pageable) {
+            this.scope = scope;
+            this.city = city != null ? city.toLowerCase(Locale.ROOT) : null;
+            this.foldedCity = city != null ? TextAnalyzer.fold(city) : null;
+            this.fuzzyCity = fuzzyCity && city != null;
+            this.type = type != null ? type.name() : null;
+            this.filters = filters;
+            this.page = pageable.getPageNumber();
+            this.size = pageable.getPageSize();
+            this.sort = pageable.getSort().toString();
+            this.hash = Objects.hash(scope, this.city, this.fuzzyCity, this.type, filters, page, size, sort);
+        }
+
+        /**
+         * Le filtre de ville est une recherche par sous-chaîne (ou une égalité, cas particulier) :
+         * une ligne peut apparaître dans les résultats si le nom de sa ville contient le filtre.
+         * Un filtre tolérant aux fautes ("yaonde") peut désigner n'importe quelle ville : toujours touché.
+         */
+        boolean isAffectedBy(Tags written) {
+            boolean cityMatches = foldedCity == null || fuzzyCity || written.foldedCity == null
+                    || written.foldedCity.contains(foldedCity);
+            boolean typeMatches = type == null || written.type == null || type.equals(written.type);
+            return cityMatches && typeMatches;
+        }
+
+        String cityBucket() {
+            return foldedCity == null || fuzzyCity ? ANY_CITY : foldedCity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return scope == other.scope && page == other.page && size == other.size && fuzzyCity == other.fuzzyCity
+                    && Objects.equals(city, other.city) && Objects.equals(type, other.type)
+                    && Objects.equals(filters, other.filters) && Objects.equals(sort, other.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.realestate.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recherche des k annonces actives les plus proches d'une annonce (prix, surface, pièces,
+ * chambres, position, type de bien et de transaction, ville). Les annonces sont indexées dans
+ * un VpTree immuable ; les modifications vont dans un petit tampon parcouru linéairement et
+ * l'arbre est reconstruit quand ce tampon devient trop grand.
+ */
+@Component
+public class SimilarListingIndex implements ListingIndex {
+
+    private static final int MIN_PENDING_BEFORE_REBUILD = 256;
+    // Reconstruction quand le tampon dépasse 5 % des annonces indexées
+    private static final int REBUILD_RATIO = 20;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ListingDocument> documents = new HashMap<>();
+    // Annonces ajoutées ou modifiées depuis la dernière construction de l'arbre
+    private final Set<Long> pending = new HashSet<>();
+    // Entrées de l'arbre devenues invalides (annonce modifiée ou retirée)
+    private final Set<Long> stale = new HashSet<>();
+
+    private VpTree tree;
+    private ListingFeatures features;
+    private volatile boolean ready;
+
+    @Override
+    public void load(List<ListingDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            this.documents.clear();
+            documents.forEach(document -> this.documents.put(document.getId(), document));
+            rebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    @Override
+    public void put(ListingDocument document) {
+        lock.writeLock().lock();
+        try {
+            if (documents.put(document.getId(), document) != null) {
+                stale.add(document.getId());
+            }
+            pending.add(document.getId());
+            rebuildIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long listingId) {
+        lock.writeLock().lock();
+        try {
+            if (documents.remove(listingId) != null) {
+                stale.add(listingId);
+                pending.remove(listingId);
+                rebuildIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Les k annonces les plus proches de l'annonce donnée (exclue du résultat), de la plus à la moins
+     * similaire. Liste vide si l'annonce n'est pas indexée (inactive ou inconnue).
+     */
+    public List<SimilarListing> similarTo(long listingId, int k) {
+        lock.readLock().lock();
+        try {
+            ListingDocument reference = documents.get(listingId);
+            if (reference == null || tree == null) {
+                return new ArrayList<>();
+            }
+            float[] query = features.encode(reference);
+            int queryCity = ListingFeatures.cityCode(reference);
+            VpTree.Neighbours neighbours = new VpTree.Neighbours(k);
+            tree.search(query, queryCity, neighbours, id -> id == listingId || stale.contains(id));
+
+            float[] vector = new float[ListingFeatures.DIMENSIONS];
+            for (Long id : pending) {
+                if (id != listingId) {
+                    ListingDocument document = documents.get(id);
+                    features.encode(document, vector, 0);
+                    neighbours.offer(id, tree.distance(query, queryCity, vector, 0, ListingFeatures.cityCode(document)));
+                }
+            }
+
+            List<SimilarListing> result = new ArrayList<>(neighbours.size());
+            for (int i = 0; i < neighbours.size(); i++) {
+                result.add(new SimilarListing(neighbours.id(i), neighbours.distance(i)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rebuildIfNeeded() {
+        int threshold = Math.max(MIN_PENDING_BEFORE_REBUILD, documents.size() / REBUILD_RATIO);
+        if (pending.size() + stale.size() > threshold) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recalcule la normalisation et reconstruit l'arbre sur toutes les annonces (sous verrou d'écriture)
+     */
+    private void rebuild() {
+        features = ListingFeatures.fit(documents.values());
+        int size = documents.size();
+        long[] ids = new long[size];
+        int[] cities = new int[size];
+        float[] vectors = new float[size * ListingFeatures.DIMENSIONS];
+        int i = 0;
+        for (ListingDocument document : documents.values()) {
+            ids[i] = document.getId();
+            cities[i] = ListingFeatures.cityCode(document);
+            features.encode(document, vectors, i * ListingFeatures.DIMENSIONS);
+            i++;
+        }
+        tree = new VpTree(ids, cities, vectors, ListingFeatures.DIMENSIONS, ListingFeatures.CITY_WEIGHT);
+        pending.clear();
+        stale.clear();
+    }
+
+    /**
+     * Annonce similaire et sa distance à l'annonce de référence (0 = identique)
+     */
+    public static final class SimilarListing {
+        private final long listingId;
+        private final double distance;
+
+        SimilarListing(long listingId, double distance) {
+            this.listingId = listingId;
+            this.distance = distance;
+        }
+
+        public long getListingId() { return listingId; }
+
+        public double getDistance() { return distance; }
+    }
+}
@@ -0,0 +1,85 @@
+package com.realestate.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation du texte pour les index en mémoire : suppression des accents,
+ * passage en minuscules et découpage en termes.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int MIN_TOKEN_LENGTH = 2;
+    // Latin-1 et Latin étendu A/B : au-delà, tout caractère est un séparateur pour foldChar
+    private static final char[] FOLDED_CHARS = buildFoldTable(0x250);
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * "Yaoundé" -> "yaounde", "Cœur" -> "coeur"
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("")
+                .replace("œ", "oe").replace("Œ", "oe")
+                .replace("æ", "ae").replace("Æ", "ae")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Version caractère par caractère de fold, sans allocation : lettre minuscule sans accent ou chiffre,
+     * ' ' pour tout le reste (ponctuation, apostrophes, espaces). Un caractère donne toujours un seul
+     * caractère : "œ" devient 'o'. "²" devient '2' ("m²" -> "m2").
+     */
+    public static char foldChar(char c) {
+        return c < FOLDED_CHARS.length ? FOLDED_CHARS[c] : ' ';
+    }
+
+    private static char[] buildFoldTable(int size) {
+        char[] table = new char[size];
+        for (char c = 0; c < size; c++) {
+            String folded = fold(String.valueOf(c));
+            char first = folded.isEmpty() ? ' ' : folded.charAt(0);
+            table[c] = (first >= 'a' && first <= 'z') || (first >= '0' && first <= '9') ? first : ' ';
+        }
+        table['\u00B2'] = '2';
+        return table;
+    }
+
+    /**
+     * Découpe le texte en termes normalisés (lettres et chiffres uniquement)
+     */
+    public static List<String> tokenize(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < folded.length(); i++) {
+            if (Character.isLetterOrDigit(folded.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                addToken(tokens, folded, start, i);
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            addToken(tokens, folded, start, folded.length());
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String text, int start, int end) {
+        if (end - start >= MIN_TOKEN_LENGTH) {
+            tokens.add(text.substring(start, end));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.realestate.search;
+
+import java.util.Random;
+import java.util.function.LongPredicate;
+
+/**
+ * Arbre de points de vue (vantage-point tree) immuable sur des vecteurs flottants stockés à plat.
+ * Le nœud couvrant l'intervalle [lo, hi) du tableau a son point de vue en lo ; les points plus proches
+ * que thresholds[lo] sont dans [lo + 1, mid), les autres dans [mid, hi). La structure n'utilise que
+ * des tableaux primitifs, sans objet par point.
+ *
+ * Distance : euclidienne sur les vecteurs, plus cityWeight (en quadrature) si les villes diffèrent.
+ */
+final class VpTree {
+
+    private final int dimensions;
+    private final float cityWeight;
+    private final long[] ids;
+    private final int[] cities;
+    private final float[] vectors;
+    private final float[] thresholds;
+
+    /**
+     * vectors contient ids.length vecteurs de dimensions composantes, cities le code ville de chaque point
+     */
+    VpTree(long[] ids, int[] cities, float[] vectors, int dimensions, float cityWeight) {
+        this.dimensions = dimensions;
+        this.cityWeight = cityWeight;
+        int size = ids.length;
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        float[] distances = new float[size];
+        this.thresholds = new float[size];
+        build(order, 0, size, ids, cities, vectors, distances, new Random(42));
+
+        // Réordonne les données dans l'ordre de l'arbre pour des accès contigus pendant la recherche
+        this.ids = new long[size];
+        this.cities = new int[size];
+        this.vectors = new float[size * dimensions];
+        for (int i = 0; i < size; i++) {
+            int source = order[i];
+            this.ids[i] = ids[source];
+            this.cities[i] = cities[source];
+            System.arraycopy(vectors, source * dimensions, this.vectors, i * dimensions, dimensions);
+        }
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Ajoute à neighbours les plus proches voisins du vecteur, en ignorant les identifiants exclus
+     */
+    void search(float[] query, int queryCity, Neighbours neighbours, LongPredicate excluded) {
+        search(0, ids.length, query, queryCity, neighbours, excluded);
+    }
+
+    private void search(int lo, int hi, float[] query, int queryCity, Neighbours neighbours, LongPredicate excluded) {
+        if (lo >= hi) {
+            return;
+        }
+        float distance = distance(query, queryCity, vectors, lo * dimensions, cities[lo]);
+        if (!excluded.test(ids[lo])) {
+            neighbours.offer(ids[lo], distance);
+        }
+        if (hi - lo == 1) {
+            return;
+        }
+        int mid = middle(lo, hi);
+        float threshold = thresholds[lo];
+        if (distance < threshold) {
+            search(lo + 1, mid, query, queryCity, neighbours, excluded);
+            if (distance + neighbours.radius() >= threshold) {
+                search(mid, hi, query, queryCity, neighbours, excluded);
+            }
+        } else {
+            search(mid, hi, query, queryCity, neighbours, excluded);
+            if (distance - neighbours.radius() <= threshold) {
+                search(lo + 1, mid, query, queryCity, neighbours, excluded);
+            }
+        }
+    }
+
+    private void build(int[] order, int lo, int hi, long[] ids, int[] cities, float[] vectors,
+                       float[] distances, Random random) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        swap(order, lo, lo + random.nextInt(hi - lo));
+        int vantage = order[lo];
+        for (int i = lo + 1; i < hi; i++) {
+            int point = order[i];
+            distances[point] = distance(vectors, vantage * dimensions, cities[vantage],
+                    vectors, point * dimensions, cities[point]);
+        }
+        int mid = middle(lo, hi);
+        select(order, distances, lo + 1, hi - 1, mid);
+        thresholds[lo] = distances[order[mid]];
+        build(order, lo + 1, mid, ids, cities, vectors, distances, random);
+        build(order, mid, hi, ids, cities, vectors, distances, random);
+    }
+
+    /**
+     * Sélection rapide : place en position k l'élément de rang k de [lo, hi] selon la distance
+     */
+    private static void select(int[] order, float[] distances, int lo, int hi, int k) {
+        while (lo < hi) {
+            float pivot = distances[order[(lo + hi) >>> 1]];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (distances[order[i]] < pivot) {
+                    i++;
+                }
+                while (distances[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(order, i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static int middle(int lo, int hi) {
+        return lo + 1 + (hi - lo - 1) / 2;
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    float distance(float[] query, int queryCity, float[] data, int offset, int city) {
+        return distance(query, 0, queryCity, data, offset, city);
+    }
+
+    private float distance(float[] a, int offsetA, int cityA, float[] b, int offsetB, int cityB) {
+        float sum = cityA == cityB ? 0f : cityWeight * cityWeight;
+        for (int d = 0; d < dimensions; d++) {
+            float diff = a[offsetA + d] - b[offsetB + d];
+            sum += diff * diff;
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    /**
+     * Les k plus proches voisins trouvés, triés par distance croissante (tableaux de taille k)
+     */
+    static final class Neighbours {
+        private final long[] ids;
+        private final float[] distances;
+        private int size;
+
+        Neighbours(int k) {
+            this.ids = new long[k];
+            this.distances = new float[k];
+        }
+
+        void offer(long id, float distance) {
+            if (size == ids.length && distance >= distances[size - 1]) {
+                return;
+            }
+            int position = size < ids.length ? size++ : size - 1;
+            while (position > 0 && distances[position - 1] > distance) {
+                ids[position] = ids[position - 1];
+                distances[position] = distances[position - 1];
+                position--;
+            }
+            ids[position] = id;
+            distances[position] = distance;
+        }
+
+        /**
+         * Distance du k-ième voisin, infinie tant que k voisins n'ont pas été trouvés
+         */
+        float radius() {
+            return size < ids.length ? Float.POSITIVE_INFINITY : distances[size - 1];
+        }
+
+        int size() {
+            return size;
+        }
+
+        long id(int i) {
+            return ids[i];
+        }
+
+        float distance(int i) {
+            return distances[i];
+        }
+    }
+}
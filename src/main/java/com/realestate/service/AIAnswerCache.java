@@ -0,0 +1,158 @@
+package com.realestate.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.realestate.dto.AIAnswerCacheStatsDTO;
+import com.realestate.dto.ListingDTO;
+import com.realestate.entity.Listing;
+import com.realestate.event.CityChangedEvent;
+import com.realestate.event.ListingChangedEvent;
+import com.realestate.event.ListingsImportedEvent;
+import com.realestate.search.QueryIntent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache des réponses de l'assistant, indexé par les critères extraits de la question (QueryIntent) :
+ * deux formulations d'une même recherche partagent la réponse, sans requête en base ni appel au modèle.
+ * Chaque entrée garde l'empreinte des annonces trouvées (identifiants triés) ; une annonce modifiée
+ * n'invalide que les entrées qui la contiennent ou qu'elle rejoindrait désormais.
+ */
+@Component
+public class AIAnswerCache {
+
+    private final Cache<QueryIntent, Entry> cache;
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final AtomicLong savedModelMillis = new AtomicLong();
+    private final AtomicLong savedTokens = new AtomicLong();
+
+    public AIAnswerCache(@Value("${ai.answer-cache.max-size:1000}") long maximumSize,
+                         @Value("${ai.answer-cache.ttl:30m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * À relever avant la recherche en base, puis à passer à put : une écriture survenue entre les deux
+     * rend le résultat douteux, il n'est alors pas mis en cache
+     */
+    public long generation() {
+        return writeGeneration.get();
+    }
+
+    public Entry get(QueryIntent key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            savedModelMillis.addAndGet(entry.modelMillis);
+            savedTokens.addAndGet(entry.tokens);
+        }
+        return entry;
+    }
+
+    /**
+     * modelMillis et tokens : durée et coût de l'appel au modèle, comptés comme économisés à chaque succès
+     */
+    public void put(QueryIntent key, long generation, List<ListingDTO> listings, String answer, long modelMillis, int tokens) {
+        if (writeGeneration.get() != generation) {
+            return;
+        }
+        cache.put(key, new Entry(listings, answer, modelMillis, tokens));
+        if (writeGeneration.get() != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        Listing listing = event.getListing();
+        boolean matchable = event.getChangeType() != ListingChangedEvent.ChangeType.DELETED;
+
+        writeGeneration.incrementAndGet();
+        cache.asMap().entrySet().removeIf(mapping -> {
+            if (mapping.getValue().contains(listing.getId())
+                    || (matchable && mapping.getKey().matches(listing))) {
+                invalidationCount.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // Annonces nouvelles : seules les entrées qu'elles rejoindraient sont concernées
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingsImported(ListingsImportedEvent event) {
+        List<Listing> listings = event.getListings();
+        writeGeneration.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> {
+            if (listings.stream().anyMatch(key::matches)) {
+                invalidationCount.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // Renommage d'une ville : les réponses déjà rédigées citent l'ancien nom
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCityChanged(CityChangedEvent event) {
+        writeGeneration.incrementAndGet();
+        invalidationCount.addAndGet(cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    public AIAnswerCacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        AIAnswerCacheStatsDTO dto = new AIAnswerCacheStatsDTO();
+        dto.setEstimatedSize(cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction -> dto.setMaximumSize(eviction.getMaximum()));
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setEvictionCount(stats.evictionCount());
+        dto.setInvalidationCount(invalidationCount.get());
+        dto.setSavedModelCalls(stats.hitCount());
+        dto.setSavedModelMillis(savedModelMillis.get());
+        dto.setSavedTokens(savedTokens.get());
+        return dto;
+    }
+
+    public static final class Entry {
+        private final List<ListingDTO> listings;
+        private final String answer;
+        // Empreinte des annonces trouvées, pour l'invalidation
+        private final long[] listingIds;
+        private final long modelMillis;
+        private final int tokens;
+
+        private Entry(List<ListingDTO> listings, String answer, long modelMillis, int tokens) {
+            this.listings = List.copyOf(listings);
+            this.answer = answer;
+            this.listingIds = listings.stream().mapToLong(ListingDTO::getId).sorted().toArray();
+            this.modelMillis = modelMillis;
+            this.tokens = tokens;
+        }
+
+        public List<ListingDTO> getListings() {
+            return listings;
+        }
+
+        public String getAnswer() {
+            return answer;
+        }
+
+        boolean contains(Long listingId) {
+            return listingId != null && Arrays.binarySearch(listingIds, listingId) >= 0;
+        }
+    }
+}
@@ -4,39 +4,89 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.realestate.dto.AIQueryRequest;
 import com.realestate.dto.AIQueryResponse;
+import com.realestate.dto.ListingDTO;
 import com.realestate.dto.OpenAIRequest;
 import com.realestate.dto.OpenAIResponse;
+import com.realestate.config.ExecutorConfig;
 import com.realestate.entity.AIQuery;
-import com.realestate.entity.Listing;
 import com.realestate.entity.User;
+import com.realestate.mapper.ListingMapper;
 import com.realestate.repository.AIQueryRepository;
 import com.realestate.repository.ListingRepository;
+import com.realestate.search.CityAutocomplete;
+import com.realestate.search.CityRegistry;
+import com.realestate.search.IntentExtractor;
+import com.realestate.search.QueryIntent;
+import com.realestate.search.TextAnalyzer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Assistant IA : extraction des critères, recherche des annonces puis réponse du modèle de langage.
+ * Le traitement est asynchrone de bout en bout : les deux accès à la base (recherche, historique) passent
+ * par un petit pool dédié et borné (ExecutorConfig), chacun dans sa propre transaction courte, et l'appel
+ * au modèle est non bloquant. Pool saturé : la demande reçoit aussitôt la réponse d'erreur.
+ * Aucun thread Tomcat ni aucune connexion JDBC n'est retenu pendant l'attente de la réponse du modèle.
+ * Les réponses sont mises en cache par critères extraits (AIAnswerCache).
+ * L'extraction des critères (IntentExtractor) n'alloue que son résultat, sauf quand la question ne cite
+ * aucune ville exactement : la recherche approchée de CityAutocomplete découpe alors le texte et alloue,
+ * y compris pour une question générale sans ville.
+ */
 @Service
-@Transactional
 public class AIQueryService {
 
     private static final Logger logger = LoggerFactory.getLogger(AIQueryService.class);
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> OPENAI_CHUNK_TYPE =
+            new ParameterizedTypeReference<>() {};
+    private static final String ERROR_ANSWER =
+            "Je suis désolé, une erreur s'est produite lors du traitement de votre demande. Veuillez réessayer.";
 
     private final AIQueryRepository aiQueryRepository;
     private final ListingRepository listingRepository;
+    private final IntentExtractor intentExtractor;
+    private final CityAutocomplete cityAutocomplete;
+    private final CityRegistry cityRegistry;
+    private final ListingMapper listingMapper;
+    private final AIAnswerCache answerCache;
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor databaseExecutor;
+    private final ConcurrentMap<InFlightKey, CompletableFuture<AIQueryResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${openai.timeout:30s}")
+    private Duration openaiTimeout;
 
     @Value("${openai.api-key}")
     private String openaiApiKey;
@@ -49,173 +99,359 @@ public class AIQueryService {
 
     public AIQueryService(AIQueryRepository aiQueryRepository,
                          ListingRepository listingRepository,
+                         IntentExtractor intentExtractor,
+                         CityAutocomplete cityAutocomplete,
+                         CityRegistry cityRegistry,
+                         ListingMapper listingMapper,
+                         AIAnswerCache answerCache,
                          WebClient.Builder webClientBuilder,
-                         ObjectMapper objectMapper) {
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Qualifier(ExecutorConfig.AI_DATABASE_EXECUTOR) Executor databaseExecutor) {
         this.aiQueryRepository = aiQueryRepository;
         this.listingRepository = listingRepository;
+        this.intentExtractor = intentExtractor;
+        this.cityAutocomplete = cityAutocomplete;
+        this.cityRegistry = cityRegistry;
+        this.listingMapper = listingMapper;
+        this.answerCache = answerCache;
         this.webClient = webClientBuilder.build();
         this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.databaseExecutor = databaseExecutor;
     }
 
-    public AIQueryResponse processQuery(AIQueryRequest request, User user) {
+    /**
+     * Rend la main immédiatement ; le futur se termine sur un thread du pool dédié, une fois
+     * la réponse du modèle reçue (ou remplacée par la réponse de repli) et l'historique enregistré
+     */
+    public CompletableFuture<AIQueryResponse> processQuery(AIQueryRequest request, User user) {
         long startTime = System.currentTimeMillis();
-        
-        try {
-            logger.info("Processing AI query for user {}: {}", user.getId(), request.getQuestion());
+        String question = request.getQuestion();
+        logger.info("Processing AI query for user {}: {}", user.getId(), question);
+
+        // 1. Analyse de l'intention et extraction des paramètres (en mémoire)
+        QueryIntent intent = extractIntent(question);
+        logger.debug("Extracted intent: {}", intent);
+
+        // 2 et 3. Recherche puis réponse IA, ou réponse déjà en cache pour les mêmes critères
+        return answer(question, intent)
+                // 4. Sauvegarde de la requête
+                .thenCompose(response -> onDatabaseExecutor(() -> {
+                    response.setResponseTimeMs(System.currentTimeMillis() - startTime);
+                    saveQuery(question, response.getListings(), response.getAnswer(), user, response.getResponseTimeMs());
+                    return response;
+                }))
+                .exceptionally(e -> {
+                    long responseTime = System.currentTimeMillis() - startTime;
+                    if (isRejected(e)) {
+                        // Pool saturé : ni attente ni écriture de plus en base
+                        logger.warn("AI database pool saturated, rejecting query for user {}", user.getId());
+                        return new AIQueryResponse(ERROR_ANSWER, List.of(), 0, responseTime);
+                    }
+                    logger.error("Error processing AI query for user {}: {}", user.getId(), e.getMessage(), e);
+                    saveQuery(question, List.of(), ERROR_ANSWER, user, responseTime);
+                    return new AIQueryResponse(ERROR_ANSWER, List.of(), 0, responseTime);
+                });
+    }
 
-            // 1. Analyse de l'intention et extraction des paramètres
-            QueryParameters params = extractParameters(request.getQuestion());
-            logger.debug("Extracted parameters: {}", params);
+    /**
+     * Les demandes identiques simultanées (même question normalisée, mêmes critères) partagent une seule
+     * recherche et un seul appel au modèle ; chacune reçoit sa propre réponse et son propre historique
+     */
+    private CompletableFuture<AIQueryResponse> answer(String question, QueryIntent intent) {
+        AIAnswerCache.Entry cached = answerCache.get(intent);
+        if (cached != null) {
+            logger.debug("AI answer cache hit for {}", intent);
+            return CompletableFuture.completedFuture(
+                    new AIQueryResponse(cached.getAnswer(), cached.getListings(), cached.getListings().size(), 0));
+        }
 
-            // 2. Exécution de la requête sécurisée sur la base de données
-            List<Listing> listings = executeSecureQuery(params);
-            logger.debug("Found {} listings matching the query", listings.size());
+        InFlightKey key = new InFlightKey(question, intent);
+        CompletableFuture<AIQueryResponse> flight = new CompletableFuture<>();
+        CompletableFuture<AIQueryResponse> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            logger.debug("Joining in-flight AI query for {}", intent);
+            return existing.thenApply(AIQueryService::copyOf);
+        }
 
-            // 3. Génération de la réponse IA
-            String aiAnswer = generateAIResponse(request.getQuestion(), listings);
+        fetchAnswer(question, intent).whenComplete((response, e) -> {
+            // Retiré avant de rendre le résultat : une demande arrivée ensuite trouve le cache ou relance
+            inFlight.remove(key, flight);
+            if (e != null) {
+                flight.completeExceptionally(e);
+            } else {
+                flight.complete(response);
+            }
+        });
+        return flight.thenApply(AIQueryService::copyOf);
+    }
 
-            // 4. Calcul du temps de réponse
-            long responseTime = System.currentTimeMillis() - startTime;
+    private static AIQueryResponse copyOf(AIQueryResponse shared) {
+        return new AIQueryResponse(shared.getAnswer(), shared.getListings(), shared.getTotalResults(), 0);
+    }
 
-            // 5. Sauvegarde de la requête
-            saveQuery(request.getQuestion(), listings, aiAnswer, user, responseTime);
+    private CompletableFuture<AIQueryResponse> fetchAnswer(String question, QueryIntent intent) {
+        long generation = answerCache.generation();
+        return findListings(intent).thenCompose(listings -> {
+            long modelStart = System.currentTimeMillis();
+            // Sans transaction ni thread bloqué pendant l'appel ; seule une vraie réponse du modèle est mise en cache
+            return callModel(question, listings)
+                    .map(response -> {
+                        String answer = response.getChoices().get(0).getMessage().getContent();
+                        int tokens = response.getUsage() != null ? response.getUsage().getTotalTokens() : 0;
+                        answerCache.put(intent, generation, listings, answer,
+                                System.currentTimeMillis() - modelStart, tokens);
+                        return answer;
+                    })
+                    .switchIfEmpty(Mono.fromSupplier(() -> fallbackAnswer(listings)))
+                    .toFuture()
+                    .thenApply(answer -> new AIQueryResponse(answer, listings, listings.size(), 0));
+        });
+    }
 
-            return new AIQueryResponse(aiAnswer, listings, listings.size(), responseTime);
+    /**
+     * Variante en flux (Server-Sent Events) : un événement "listings" dès la fin de la recherche, un
+     * événement "token" par fragment de texte du modèle, puis "done" avec la réponse complète une fois
+     * l'historique enregistré. En cas d'échec du modèle avant le premier fragment, la réponse de repli
+     * est envoyée comme fragment unique ; après, la réponse partielle est conservée.
+     * Une réponse en cache est envoyée d'un bloc, comme fragment unique.
+     */
+    public Flux<ServerSentEvent<AIQueryResponse>> streamQuery(AIQueryRequest request, User user) {
+        long startTime = System.currentTimeMillis();
+        String question = request.getQuestion();
+        logger.info("Streaming AI query for user {}: {}", user.getId(), question);
 
-        } catch (Exception e) {
-            logger.error("Error processing AI query for user {}: {}", user.getId(), e.getMessage(), e);
-            long responseTime = System.currentTimeMillis() - startTime;
-            
-            String errorAnswer = "Je suis désolé, une erreur s'est produite lors du traitement de votre demande. Veuillez réessayer.";
-            saveQuery(request.getQuestion(), List.of(), errorAnswer, user, responseTime);
-            
-            return new AIQueryResponse(errorAnswer, List.of(), 0, responseTime);
+        QueryIntent intent = extractIntent(question);
+        logger.debug("Extracted intent: {}", intent);
+
+        AIAnswerCache.Entry cached = answerCache.get(intent);
+        if (cached != null) {
+            logger.debug("AI answer cache hit for {}", intent);
+            return streamEvents(question, user, startTime, cached.getListings(), Flux.just(cached.getAnswer()), answer -> {});
         }
+
+        long generation = answerCache.generation();
+        return Mono.fromFuture(() -> findListings(intent))
+                .flatMapMany(listings -> {
+                    long modelStart = System.currentTimeMillis();
+                    AtomicBoolean received = new AtomicBoolean();
+                    AtomicBoolean fromModel = new AtomicBoolean(true);
+                    Flux<String> tokens = streamAIResponse(question, listings)
+                            .doOnNext(token -> received.set(true))
+                            .onErrorResume(e -> {
+                                logger.error("Error streaming AI response", e);
+                                fromModel.set(false);
+                                return received.get() ? Mono.empty() : Mono.just(fallbackAnswer(listings));
+                            })
+                            .switchIfEmpty(Mono.fromSupplier(() -> {
+                                fromModel.set(false);
+                                return fallbackAnswer(listings);
+                            }));
+                    return streamEvents(question, user, startTime, listings, tokens, answer -> {
+                        if (fromModel.get()) {
+                            // Nombre de tokens non communiqué en mode stream
+                            answerCache.put(intent, generation, listings, answer,
+                                    System.currentTimeMillis() - modelStart, 0);
+                        }
+                    });
+                })
+                .onErrorResume(e -> {
+                    if (isRejected(e)) {
+                        logger.warn("AI database pool saturated, rejecting query for user {}", user.getId());
+                        return Mono.just(streamEvent("error", new AIQueryResponse(ERROR_ANSWER, List.of(), 0,
+                                System.currentTimeMillis() - startTime)));
+                    }
+                    logger.error("Error processing AI query for user {}: {}", user.getId(), e.getMessage(), e);
+                    return Mono.fromFuture(() -> onDatabaseExecutor(() -> {
+                        long responseTime = System.currentTimeMillis() - startTime;
+                        saveQuery(question, List.of(), ERROR_ANSWER, user, responseTime);
+                        return streamEvent("error", new AIQueryResponse(ERROR_ANSWER, List.of(), 0, responseTime));
+                    }));
+                });
     }
 
-    private QueryParameters extractParameters(String question) {
-        QueryParameters params = new QueryParameters();
-        String normalizedQuestion = question.toLowerCase();
+    /**
+     * "listings", un "token" par fragment, puis "done" une fois la réponse complète passée à
+     * onComplete et l'historique enregistré
+     */
+    private Flux<ServerSentEvent<AIQueryResponse>> streamEvents(String question, User user, long startTime,
+                                                                List<ListingDTO> listings, Flux<String> tokens,
+                                                                Consumer<String> onComplete) {
+        StringBuilder answer = new StringBuilder();
+        return Flux.concat(
+                Mono.fromSupplier(() -> streamEvent("listings", new AIQueryResponse(null, listings,
+                        listings.size(), System.currentTimeMillis() - startTime))),
+                tokens.doOnNext(answer::append)
+                        .map(token -> streamEvent("token", new AIQueryResponse(token, null, listings.size(), 0))),
+                Mono.fromFuture(() -> onDatabaseExecutor(() -> {
+                    onComplete.accept(answer.toString());
+                    long responseTime = System.currentTimeMillis() - startTime;
+                    saveQuery(question, listings, answer.toString(), user, responseTime);
+                    return streamEvent("done", new AIQueryResponse(answer.toString(), null,
+                            listings.size(), responseTime));
+                })));
+    }
 
-        // Extraction de la ville
-        String[] cities = {"yaoundé", "yaounde", "douala", "bamenda", "bafoussam", "garoua", "maroua", "ngaoundéré", "bertoua", "ebolowa"};
-        for (String city : cities) {
-            if (normalizedQuestion.contains(city)) {
-                params.cityName = city;
-                break;
-            }
-        }
+    private static ServerSentEvent<AIQueryResponse> streamEvent(String name, AIQueryResponse data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
 
-        // Extraction du prix maximum
-        Pattern pricePattern = Pattern.compile("(moins de|maximum|max|jusqu'à)\\s*(\\d+(?:[\\s.]?\\d+)*)");
-        Matcher priceMatcher = pricePattern.matcher(normalizedQuestion);
-        if (priceMatcher.find()) {
-            String priceStr = priceMatcher.group(2).replaceAll("[\\s.]", "");
-            try {
-                params.maxPrice = new BigDecimal(priceStr);
-            } catch (NumberFormatException e) {
-                logger.warn("Failed to parse price: {}", priceMatcher.group(2));
-            }
+    /**
+     * Critères de la question en un passage (IntentExtractor) ; si aucune ville n'y est citée telle quelle,
+     * recherche approchée pour tolérer fautes de frappe et accents manquants
+     */
+    private QueryIntent extractIntent(String question) {
+        QueryIntent intent = intentExtractor.extract(question);
+        if (intent.getCityId() == null) {
+            return cityRegistry.findByName(cityAutocomplete.findMentionedCity(question))
+                    .map(city -> intent.withCity(city.getId(), city.getName()))
+                    .orElse(intent);
         }
+        return intent;
+    }
 
-        // Extraction du type de propriété
-        if (normalizedQuestion.contains("appartement")) {
-            params.propertyType = Listing.PropertyType.APARTMENT;
-        } else if (normalizedQuestion.contains("maison")) {
-            params.propertyType = Listing.PropertyType.HOUSE;
-        } else if (normalizedQuestion.contains("villa")) {
-            params.propertyType = Listing.PropertyType.VILLA;
-        } else if (normalizedQuestion.contains("studio")) {
-            params.propertyType = Listing.PropertyType.STUDIO;
-        }
+    private CompletableFuture<List<ListingDTO>> findListings(QueryIntent intent) {
+        // Requête sécurisée utilisant JPA - l'IA n'a jamais accès direct à la BD.
+        // Les annonces sont converties avant la fin de la transaction : rien de paresseux n'en sort
+        return onDatabaseExecutor(() -> readOnlyTransaction.execute(status -> {
+            List<ListingDTO> listings = listingRepository.findByAIQuery(
+                intent.getCityId(),
+                intent.getPropertyType(),
+                intent.getTransactionType(),
+                intent.getMinPrice(),
+                intent.getMaxPrice(),
+                intent.getMinSurface(),
+                intent.getMaxSurface(),
+                intent.getMinBedrooms(),
+                intent.getMaxBedrooms(),
+                intent.getMinRooms(),
+                intent.getMaxRooms()
+            ).stream().map(listingMapper::toDto).collect(Collectors.toList());
+            logger.debug("Found {} listings matching the query", listings.size());
+            return listings;
+        }));
+    }
 
-        // Extraction du nombre de chambres
-        Pattern roomPattern = Pattern.compile("(\\d+)\\s*chambre");
-        Matcher roomMatcher = roomPattern.matcher(normalizedQuestion);
-        if (roomMatcher.find()) {
-            try {
-                params.minRooms = Integer.parseInt(roomMatcher.group(1));
-            } catch (NumberFormatException e) {
-                logger.warn("Failed to parse room count: {}", roomMatcher.group(1));
-            }
+    /**
+     * Tâche sur le pool de l'assistant ; pool saturé : futur aussitôt en échec (TaskRejectedException)
+     */
+    private <T> CompletableFuture<T> onDatabaseExecutor(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, databaseExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
         }
-
-        return params;
     }
 
-    private List<Listing> executeSecureQuery(QueryParameters params) {
-        // Requête sécurisée utilisant JPA - l'IA n'a jamais accès direct à la BD
-        return listingRepository.findByAIQuery(
-            params.cityName,
-            params.maxPrice != null ? params.maxPrice : new BigDecimal("999999999"),
-            params.propertyType,
-            params.minRooms
-        );
+    private static boolean isRejected(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof RejectedExecutionException;
     }
 
-    private String generateAIResponse(String question, List<Listing> listings) {
-        try {
-            // Construction du prompt pour l'IA
-            StringBuilder context = new StringBuilder();
-            context.append("Voici les résultats trouvés pour la recherche immobilière:\n\n");
-            
-            if (listings.isEmpty()) {
-                context.append("Aucun bien immobilier ne correspond aux critères spécifiés.\n");
-            } else {
-                context.append("Nombre de biens trouvés: ").append(listings.size()).append("\n\n");
-                for (int i = 0; i < Math.min(listings.size(), 3); i++) {
-                    Listing listing = listings.get(i);
-                    context.append(String.format("- %s à %s: %s FCFA, %d pièces\n",
-                        listing.getTitle(),
-                        listing.getCity().getName(),
-                        listing.getPrice(),
-                        listing.getRooms() != null ? listing.getRooms() : 0
-                    ));
-                }
-                if (listings.size() > 3) {
-                    context.append("... et ").append(listings.size() - 3).append(" autres biens.\n");
-                }
-            }
-
-            // Préparation de la requête OpenAI
-            OpenAIRequest.Message systemMessage = new OpenAIRequest.Message("system",
-                "Tu es un assistant immobilier expert au Cameroun. Réponds de manière amicale et professionnelle " +
-                "en français. Donne des informations claires et utiles sur les biens immobiliers."
-            );
-
-            OpenAIRequest.Message userMessage = new OpenAIRequest.Message("user",
-                String.format("Question du client: %s\n\n%s\n\nRéponds de manière naturelle et engageante.",
-                    question, context.toString())
-            );
-
-            OpenAIRequest openAIRequest = new OpenAIRequest(
-                openaiModel,
-                Arrays.asList(systemMessage, userMessage),
-                500,
-                0.7
-            );
-
-            // Appel à l'API OpenAI
-            OpenAIResponse response = webClient.post()
+    /**
+     * Réponse du modèle, vide en cas d'erreur, de délai dépassé ou de réponse sans contenu
+     */
+    private Mono<OpenAIResponse> callModel(String question, List<ListingDTO> listings) {
+        return Mono.defer(() -> webClient.post()
                 .uri(openaiApiUrl)
                 .header("Authorization", "Bearer " + openaiApiKey)
                 .header("Content-Type", "application/json")
-                .bodyValue(openAIRequest)
+                .bodyValue(buildOpenAIRequest(question, listings))
                 .retrieve()
                 .bodyToMono(OpenAIResponse.class)
-                .block();
-
-            if (response != null && !response.getChoices().isEmpty()) {
-                return response.getChoices().get(0).getMessage().getContent();
-            }
-
-        } catch (WebClientResponseException e) {
+                .timeout(openaiTimeout)
+                .filter(response -> response.getChoices() != null && !response.getChoices().isEmpty()))
+        .onErrorResume(WebClientResponseException.class, e -> {
             logger.error("OpenAI API error: {}", e.getResponseBodyAsString(), e);
-        } catch (Exception e) {
+            return Mono.empty();
+        })
+        .onErrorResume(e -> {
             logger.error("Error generating AI response", e);
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * Même appel en mode stream : fragments de texte au fil de la génération. Le délai openai.timeout
+     * s'applique entre deux fragments ; la fin du flux est marquée par "data: [DONE]"
+     */
+    private Flux<String> streamAIResponse(String question, List<ListingDTO> listings) {
+        return Flux.defer(() -> {
+            OpenAIRequest openAIRequest = buildOpenAIRequest(question, listings);
+            openAIRequest.setStream(true);
+            return webClient.post()
+                .uri(openaiApiUrl)
+                .header("Authorization", "Bearer " + openaiApiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(openAIRequest)
+                .retrieve()
+                .bodyToFlux(OPENAI_CHUNK_TYPE)
+                .timeout(openaiTimeout)
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !"[DONE]".equals(data))
+                .<String>handle((data, sink) -> {
+                    try {
+                        OpenAIResponse chunk = objectMapper.readValue(data, OpenAIResponse.class);
+                        if (chunk.getChoices() != null && !chunk.getChoices().isEmpty()
+                                && chunk.getChoices().get(0).getDelta() != null
+                                && chunk.getChoices().get(0).getDelta().getContent() != null) {
+                            sink.next(chunk.getChoices().get(0).getDelta().getContent());
+                        }
+                    } catch (JsonProcessingException e) {
+                        sink.error(e);
+                    }
+                });
+        });
+    }
+
+    private OpenAIRequest buildOpenAIRequest(String question, List<ListingDTO> listings) {
+        // Construction du prompt pour l'IA
+        StringBuilder context = new StringBuilder();
+        context.append("Voici les résultats trouvés pour la recherche immobilière:\n\n");
+        
+        if (listings.isEmpty()) {
+            context.append("Aucun bien immobilier ne correspond aux critères spécifiés.\n");
+        } else {
+            context.append("Nombre de biens trouvés: ").append(listings.size()).append("\n\n");
+            for (int i = 0; i < Math.min(listings.size(), 3); i++) {
+                ListingDTO listing = listings.get(i);
+                context.append(String.format("- %s à %s: %s FCFA, %d pièces\n",
+                    listing.getTitle(),
+                    listing.getCityName(),
+                    listing.getPrice(),
+                    listing.getRooms() != null ? listing.getRooms() : 0
+                ));
+            }
+            if (listings.size() > 3) {
+                context.append("... et ").append(listings.size() - 3).append(" autres biens.\n");
+            }
         }
 
-        // Réponse de fallback
+        // Préparation de la requête OpenAI
+        OpenAIRequest.Message systemMessage = new OpenAIRequest.Message("system",
+            "Tu es un assistant immobilier expert au Cameroun. Réponds de manière amicale et professionnelle " +
+            "en français. Donne des informations claires et utiles sur les biens immobiliers."
+        );
+
+        OpenAIRequest.Message userMessage = new OpenAIRequest.Message("user",
+            String.format("Question du client: %s\n\n%s\n\nRéponds de manière naturelle et engageante.",
+                question, context.toString())
+        );
+
+        return new OpenAIRequest(
+            openaiModel,
+            Arrays.asList(systemMessage, userMessage),
+            500,
+            0.7
+        );
+    }
+
+    // Réponse de fallback
+    private static String fallbackAnswer(List<ListingDTO> listings) {
         if (listings.isEmpty()) {
             return "Je n'ai trouvé aucun bien immobilier correspondant à vos critères. " +
                    "Vous pourriez essayer d'élargir votre recherche ou me poser une question différente.";
@@ -225,7 +461,7 @@ public class AIQueryService {
         }
     }
 
-    private void saveQuery(String question, List<Listing> listings, String aiAnswer, User user, long responseTime) {
+    private void saveQuery(String question, List<ListingDTO> listings, String aiAnswer, User user, long responseTime) {
         try {
             AIQuery aiQuery = new AIQuery(question, user);
             aiQuery.setAiAnswer(aiAnswer);
@@ -237,7 +473,7 @@ public class AIQueryService {
                 aiQuery.setRawResults(rawResults);
             }
             
-            aiQueryRepository.save(aiQuery);
+            transactionTemplate.executeWithoutResult(status -> aiQueryRepository.save(aiQuery));
             logger.info("Saved AI query for user {}", user.getId());
             
         } catch (JsonProcessingException e) {
@@ -247,25 +483,61 @@ public class AIQueryService {
         }
     }
 
+    @Transactional(readOnly = true)
     public Page<AIQuery> getUserQueryHistory(User user, Pageable pageable) {
         return aiQueryRepository.findByUserOrderByCreatedAtDesc(user, pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<AIQuery> getAllQueriesForAdmin(Pageable pageable) {
         return aiQueryRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
 
-    // Classe interne pour les paramètres extraits
-    private static class QueryParameters {
-        String cityName;
-        BigDecimal maxPrice;
-        Listing.PropertyType propertyType;
-        Integer minRooms;
+    /**
+     * Demande en cours : question sans accents, casse, ponctuation ni espaces multiples, et critères extraits
+     */
+    private static final class InFlightKey {
+        private final String question;
+        private final QueryIntent criteria;
+
+        InFlightKey(String question, QueryIntent criteria) {
+            this.question = normalize(question);
+            this.criteria = criteria;
+        }
+
+        // Un seul passage TextAnalyzer.foldChar : ponctuation et espaces fusionnés en un espace, sans bords
+        private static String normalize(String question) {
+            StringBuilder normalized = new StringBuilder(question.length());
+            for (int i = 0; i < question.length(); i++) {
+                char c = TextAnalyzer.foldChar(question.charAt(i));
+                if (c != ' ') {
+                    normalized.append(c);
+                } else if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ') {
+                    normalized.append(' ');
+                }
+            }
+            int length = normalized.length();
+            if (length > 0 && normalized.charAt(length - 1) == ' ') {
+                normalized.setLength(length - 1);
+            }
+            return normalized.toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof InFlightKey)) {
+                return false;
+            }
+            InFlightKey other = (InFlightKey) o;
+            return question.equals(other.question) && criteria.equals(other.criteria);
+        }
 
         @Override
-        public String toString() {
-            return String.format("QueryParameters{cityName='%s', maxPrice=%s, propertyType=%s, minRooms=%d}",
-                cityName, maxPrice, propertyType, minRooms);
+        public int hashCode() {
+            return Objects.hash(question, criteria);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,24 +1,36 @@
 package com.realestate.service;
 
 import com.realestate.dto.AdminStatsDTO;
+import com.realestate.dto.CacheRegionStatsDTO;
 import com.realestate.dto.PropertyDTO;
 import com.realestate.dto.UserDTO;
 import com.realestate.entity.Property;
 import com.realestate.entity.PropertyStatus;
+import com.realestate.entity.PropertyType;
 import com.realestate.entity.User;
+import com.realestate.event.PropertyChangedEvent;
 import com.realestate.exception.ResourceNotFoundException;
+import com.realestate.mapper.PropertyMapper;
+import com.realestate.mapper.UserMapper;
 import com.realestate.repository.AppointmentRepository;
 import com.realestate.repository.PropertyRepository;
 import com.realestate.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.cache.Cache;
+import javax.cache.CacheManager;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,19 +42,23 @@ public class AdminService {
     private final UserRepository userRepository;
     private final PropertyRepository propertyRepository;
     private final AppointmentRepository appointmentRepository;
-    private final ModelMapper modelMapper;
+    private final PropertyMapper propertyMapper;
+    private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager hibernateCacheManager;
 
     // Gestion des utilisateurs
     public Page<UserDTO> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable)
-                .map(user -> modelMapper.map(user, UserDTO.class));
+                .map(userMapper::toDto);
     }
 
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé avec l'ID : " + id));
-        return modelMapper.map(user, UserDTO.class);
+        return userMapper.toDto(user);
     }
 
     public UserDTO updateUser(Long id, UserDTO userDTO) {
@@ -65,7 +81,7 @@ public class AdminService {
         }
 
         User updatedUser = userRepository.save(existingUser);
-        return modelMapper.map(updatedUser, UserDTO.class);
+        return userMapper.toDto(updatedUser);
     }
 
     public void deleteUser(Long id) {
@@ -90,33 +106,36 @@ public class AdminService {
                     PropertyStatus.valueOf(status.toUpperCase()),
                     ownerId,
                     pageable
-            ).map(property -> modelMapper.map(property, PropertyDTO.class));
+            ).map(propertyMapper::toDto);
         } else if (status != null) {
             return propertyRepository.findByStatus(
                     PropertyStatus.valueOf(status.toUpperCase()),
                     pageable
-            ).map(property -> modelMapper.map(property, PropertyDTO.class));
+            ).map(propertyMapper::toDto);
         } else if (ownerId != null) {
             return propertyRepository.findByOwnerId(
                     ownerId,
                     pageable
-            ).map(property -> modelMapper.map(property, PropertyDTO.class));
+            ).map(propertyMapper::toDto);
         } else {
-            return propertyRepository.findAll(pageable)
-                    .map(property -> modelMapper.map(property, PropertyDTO.class));
+            return propertyRepository.findAllWithOwner(pageable)
+                    .map(propertyMapper::toDto);
         }
     }
 
     public PropertyDTO getPropertyById(Long id) {
-        Property property = propertyRepository.findById(id)
+        Property property = propertyRepository.findWithOwnerById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Propriété non trouvée avec l'ID : " + id));
-        return modelMapper.map(property, PropertyDTO.class);
+        return propertyMapper.toDto(property);
     }
 
     public PropertyDTO updateProperty(Long id, PropertyDTO propertyDTO) {
-        Property existingProperty = propertyRepository.findById(id)
+        Property existingProperty = propertyRepository.findWithOwnerById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Propriété non trouvée avec l'ID : " + id));
 
+        String previousCity = existingProperty.getCity();
+        PropertyType previousType = existingProperty.getType();
+
         // Mise à jour des champs autorisés
         existingProperty.setTitle(propertyDTO.getTitle());
         existingProperty.setDescription(propertyDTO.getDescription());
@@ -151,7 +170,9 @@ public class AdminService {
         }
 
         Property updatedProperty = propertyRepository.save(existingProperty);
-        return modelMapper.map(updatedProperty, PropertyDTO.class);
+        eventPublisher.publishEvent(new PropertyChangedEvent(this, updatedProperty, PropertyChangedEvent.ChangeType.UPDATED,
+                previousCity, previousType));
+        return propertyMapper.toDto(updatedProperty);
     }
 
     public void deleteProperty(Long id) {
@@ -162,6 +183,7 @@ public class AdminService {
         appointmentRepository.cancelFutureAppointmentsByProperty(id);
         
         propertyRepository.delete(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(this, property, PropertyChangedEvent.ChangeType.DELETED));
     }
 
     // Statistiques
@@ -190,4 +212,29 @@ public class AdminService {
         
         return stats;
     }
+
+    // Cache de second niveau : compteurs Hibernate et taille Caffeine, région par région
+    public List<CacheRegionStatsDTO> getEntityCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> {
+                    CacheRegionStatsDTO dto = new CacheRegionStatsDTO();
+                    dto.setRegion(region);
+                    CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+                    if (regionStatistics != null) {
+                        long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+                        dto.setHitCount(regionStatistics.getHitCount());
+                        dto.setMissCount(regionStatistics.getMissCount());
+                        dto.setPutCount(regionStatistics.getPutCount());
+                        dto.setHitRate(lookups == 0 ? 0 : (double) regionStatistics.getHitCount() / lookups);
+                    }
+                    Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+                    if (cache != null) {
+                        dto.setSize(cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize());
+                    }
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
 }
@@ -7,6 +7,7 @@ import com.realestate.entity.Property;
 import com.realestate.entity.User;
 import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.exception.UnauthorizedException;
+import com.realestate.mapper.AppointmentMapper;
 import com.realestate.repository.AppointmentRepository;
 import com.realestate.repository.PropertyRepository;
 import com.realestate.event.AppointmentCreatedEvent;
@@ -14,7 +15,6 @@ import com.realestate.event.AppointmentUpdatedEvent;
 import com.realestate.repository.UserRepository;
 import com.realestate.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,7 +32,7 @@ public class AppointmentService {
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final ModelMapper modelMapper;
+    private final AppointmentMapper appointmentMapper;
     private final ApplicationEventPublisher eventPublisher;
     private static final int APPOINTMENT_DURATION_MINUTES = 60;
 
@@ -96,7 +96,7 @@ public class AppointmentService {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Utilisateur non trouvé"));
 
-        Appointment appointment = appointmentRepository.findById(id)
+        Appointment appointment = appointmentRepository.findWithParticipantsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Rendez-vous non trouvé"));
 
         // Vérifier que l'utilisateur est le propriétaire du bien ou le visiteur
@@ -158,12 +158,6 @@ public class AppointmentService {
     }
 
     private AppointmentDTO convertToDTO(Appointment appointment) {
-        AppointmentDTO dto = modelMapper.map(appointment, AppointmentDTO.class);
-        dto.setPropertyId(appointment.getProperty().getId());
-        dto.setPropertyTitle(appointment.getProperty().getTitle());
-        dto.setVisitorId(appointment.getVisitor().getId());
-        dto.setVisitorName(appointment.getVisitor().getFirstName() + " " + appointment.getVisitor().getLastName());
-        dto.setVisitorEmail(appointment.getVisitor().getEmail());
-        return dto;
+        return appointmentMapper.toDto(appointment);
     }
 }
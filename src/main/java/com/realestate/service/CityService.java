@@ -0,0 +1,50 @@
+package com.realestate.service;
+
+import com.realestate.dto.CityDTO;
+import com.realestate.entity.City;
+import com.realestate.event.CityChangedEvent;
+import com.realestate.repository.CityRepository;
+import com.realestate.search.CityAutocomplete;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class CityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityService.class);
+
+    private final CityRepository cityRepository;
+    private final CityAutocomplete cityAutocomplete;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public List<CityDTO> suggest(String query, int limit) {
+        if (cityAutocomplete.isReady()) {
+            return cityAutocomplete.suggest(query, limit);
+        }
+        // Index en cours de chargement : recherche en base, sans comptage d'annonces
+        return cityRepository.findByNameContainingIgnoreCase(query.trim()).stream()
+                .limit(limit)
+                .map(city -> new CityDTO(city.getId(), city.getName(), city.getCountry(), null))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public CityDTO createCity(CityDTO cityDTO) {
+        if (cityRepository.findByNameIgnoreCase(cityDTO.getName().trim()).isPresent()) {
+            throw new RuntimeException("City already exists: " + cityDTO.getName());
+        }
+        City city = cityRepository.save(new City(cityDTO.getName().trim(), cityDTO.getCountry().trim()));
+        eventPublisher.publishEvent(new CityChangedEvent(this, city));
+        logger.info("Created city {} with id {}", city.getName(), city.getId());
+        return new CityDTO(city.getId(), city.getName(), city.getCountry(), 0);
+    }
+}
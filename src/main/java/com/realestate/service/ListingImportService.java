@@ -0,0 +1,433 @@
+package com.realestate.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.config.ExecutorConfig;
+import com.realestate.dto.ExportFormat;
+import com.realestate.dto.ImportJobDTO;
+import com.realestate.dto.ListingImportRow;
+import com.realestate.entity.City;
+import com.realestate.entity.ImportJob;
+import com.realestate.entity.Listing;
+import com.realestate.entity.User;
+import com.realestate.event.ListingsImportedEvent;
+import com.realestate.exception.InvalidRequestException;
+import com.realestate.exception.ResourceNotFoundException;
+import com.realestate.repository.ImportJobRepository;
+import com.realestate.repository.UserRepository;
+import com.realestate.search.CityRegistry;
+import com.realestate.util.CsvReader;
+import com.realestate.util.JwtUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse d'annonces depuis un fichier CSV ou NDJSON (ou un tableau JSON), exécuté en arrière-plan.
+ * Le fichier est lu en flux par lots de CHUNK_SIZE lignes : validation en parallèle, villes résolues une fois
+ * par lot dans CityRegistry, puis insertion du lot et mise à jour des compteurs de l'import dans une seule
+ * transaction (insertions regroupées en lots JDBC grâce à la séquence de Listing). Après un échec, la reprise
+ * repart de la première ligne qui suit le dernier lot validé. Le fichier est supprimé une fois l'import terminé.
+ */
+@Service
+public class ListingImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingImportService.class);
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final ImportJobRepository importJobRepository;
+    private final UserRepository userRepository;
+    private final CityRegistry cityRegistry;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JwtUtil jwtUtil;
+    private final Path importDirectory;
+    // Un seul import à la fois, file d'attente bornée (ExecutorConfig)
+    private final Executor executor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ListingImportService(ImportJobRepository importJobRepository,
+                                UserRepository userRepository,
+                                CityRegistry cityRegistry,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                JwtUtil jwtUtil,
+                                @Qualifier(ExecutorConfig.LISTING_IMPORT_EXECUTOR) Executor executor,
+                                @Value("${file.import-dir:imports}") String importDir) throws IOException {
+        this.importJobRepository = importJobRepository;
+        this.userRepository = userRepository;
+        this.cityRegistry = cityRegistry;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.jwtUtil = jwtUtil;
+        this.executor = executor;
+        this.importDirectory = Files.createDirectories(Paths.get(importDir).toAbsolutePath().normalize());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Integer interrupted = transactionTemplate.execute(status ->
+                importJobRepository.failInterrupted("Interrupted by application shutdown", LocalDateTime.now()));
+        if (interrupted != null && interrupted > 0) {
+            logger.warn("{} listing imports were interrupted by the last shutdown and can be resumed", interrupted);
+        }
+    }
+
+    public ImportJobDTO startImport(MultipartFile file, ExportFormat format, String token) {
+        User user = getCurrentUser(token);
+        if (file.isEmpty()) {
+            throw new InvalidRequestException("Import file is empty");
+        }
+        Path target = importDirectory.resolve(UUID.randomUUID() + "." + format.getExtension());
+        try (InputStream input = file.getInputStream()) {
+            Files.copy(input, target);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store import file", ex);
+        }
+
+        String originalFileName = file.getOriginalFilename() != null ? StringUtils.cleanPath(file.getOriginalFilename()) : null;
+        ImportJob job = importJobRepository.save(new ImportJob(user, format, target.toString(), originalFileName));
+        logger.info("Listing import {} queued by user {} ({} bytes, {})", job.getId(), user.getId(), file.getSize(), format);
+        return submit(job);
+    }
+
+    public ImportJobDTO getImport(Long id, String token) {
+        return convertToDto(findJob(id, token));
+    }
+
+    public ImportJobDTO resumeImport(Long id, String token) {
+        ImportJob job = findJob(id, token);
+        if (job.getStatus() != ImportJob.Status.FAILED) {
+            throw new InvalidRequestException("Only failed imports can be resumed, import " + id + " is " + job.getStatus());
+        }
+        job.setStatus(ImportJob.Status.PENDING);
+        job.setErrorMessage(null);
+        job.setFinishedAt(null);
+        ImportJob savedJob = importJobRepository.save(job);
+        logger.info("Listing import {} resumed after {} rows", id, savedJob.getProcessedRows());
+        return submit(savedJob);
+    }
+
+    /**
+     * File d'attente pleine : l'import passe aussitôt en échec, il pourra être repris plus tard
+     */
+    private ImportJobDTO submit(ImportJob job) {
+        try {
+            executor.execute(() -> run(job.getId()));
+            return convertToDto(job);
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Listing import queue is full, import {} not started", job.getId());
+            return convertToDto(finish(job.getId(), ImportJob.Status.FAILED, "Import queue is full, resume it later"));
+        }
+    }
+
+    private void run(Long jobId) {
+        ImportJob job = transactionTemplate.execute(status -> {
+            ImportJob current = entityManager.find(ImportJob.class, jobId);
+            current.setStatus(ImportJob.Status.RUNNING);
+            return current;
+        });
+        long start = System.currentTimeMillis();
+        long rowNumber = job.getProcessedRows();
+
+        try (RowSource source = open(job.getFormat(), Files.newInputStream(Paths.get(job.getFilePath())))) {
+            // Lignes déjà validées lors d'une exécution précédente
+            long skipped = 0;
+            while (skipped < rowNumber && source.read(skipped + 1) != null) {
+                skipped++;
+            }
+
+            List<RawRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            boolean exhausted = false;
+            while (!exhausted) {
+                chunk.clear();
+                while (chunk.size() < CHUNK_SIZE) {
+                    RawRow raw = source.read(rowNumber + 1);
+                    if (raw == null) {
+                        exhausted = true;
+                        break;
+                    }
+                    chunk.add(raw);
+                    rowNumber++;
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                List<ParsedRow> parsed = chunk.parallelStream().map(this::parse).collect(Collectors.toList());
+                transactionTemplate.executeWithoutResult(status -> importChunk(jobId, parsed));
+            }
+
+            ImportJob finished = finish(jobId, ImportJob.Status.COMPLETED, null);
+            logger.info("Listing import {} completed: {} imported, {} rejected in {} ms",
+                    jobId, finished.getImportedRows(), finished.getRejectedRows(), System.currentTimeMillis() - start);
+            // Un import en échec garde son fichier pour la reprise
+            deleteFile(finished.getFilePath());
+        } catch (IOException | RuntimeException ex) {
+            logger.error("Listing import {} failed near row {}", jobId, rowNumber, ex);
+            finish(jobId, ImportJob.Status.FAILED, ex.getMessage());
+        }
+    }
+
+    private void importChunk(Long jobId, List<ParsedRow> rows) {
+        ImportJob job = entityManager.find(ImportJob.class, jobId);
+        User owner = job.getUser();
+
+        // Villes du lot résolues une seule fois, sans requête : CityRegistry puis simple référence
+        Map<String, City> cities = new HashMap<>();
+        rows.stream()
+                .filter(row -> row.row != null)
+                .map(row -> row.row.getCityName().trim().toLowerCase(Locale.ROOT))
+                .distinct()
+                .forEach(name -> cityRegistry.findByName(name)
+                        .ifPresent(city -> cities.put(name, entityManager.getReference(City.class, city.getId()))));
+
+        List<String> rejections = new ArrayList<>();
+        List<Listing> imported = new ArrayList<>(rows.size());
+        for (ParsedRow parsed : rows) {
+            if (parsed.rejection != null) {
+                rejections.add("row " + parsed.rowNumber + ": " + parsed.rejection);
+                continue;
+            }
+            City city = cities.get(parsed.row.getCityName().trim().toLowerCase(Locale.ROOT));
+            if (city == null) {
+                rejections.add("row " + parsed.rowNumber + ": unknown city " + parsed.row.getCityName());
+                continue;
+            }
+            Listing listing = toListing(parsed.row);
+            listing.setUser(owner);
+            listing.setCity(city);
+            entityManager.persist(listing);
+            imported.add(listing);
+        }
+        if (!imported.isEmpty()) {
+            eventPublisher.publishEvent(new ListingsImportedEvent(this, imported));
+        }
+
+        job.setProcessedRows(job.getProcessedRows() + rows.size());
+        job.setImportedRows(job.getImportedRows() + imported.size());
+        job.setRejectedRows(job.getRejectedRows() + rejections.size());
+        appendRejections(job, rejections);
+    }
+
+    private ParsedRow parse(RawRow raw) {
+        if (raw.rejection != null) {
+            return ParsedRow.rejected(raw.rowNumber, raw.rejection);
+        }
+        ListingImportRow row;
+        try {
+            row = objectMapper.convertValue(raw.value, ListingImportRow.class);
+        } catch (IllegalArgumentException ex) {
+            if (ex.getCause() instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+                return ParsedRow.rejected(raw.rowNumber, "invalid value for " + mapping.getPath().get(0).getFieldName());
+            }
+            return ParsedRow.rejected(raw.rowNumber, "unreadable row");
+        }
+        Set<ConstraintViolation<ListingImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return ParsedRow.rejected(raw.rowNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return new ParsedRow(raw.rowNumber, row, null);
+    }
+
+    private static Listing toListing(ListingImportRow row) {
+        Listing listing = new Listing();
+        listing.setTitle(row.getTitle().trim());
+        listing.setDescription(row.getDescription());
+        listing.setPrice(row.getPrice());
+        listing.setSurfaceArea(row.getSurfaceArea());
+        listing.setRooms(row.getRooms());
+        listing.setBedrooms(row.getBedrooms());
+        listing.setBathrooms(row.getBathrooms());
+        listing.setPropertyType(row.getPropertyType());
+        listing.setTransactionType(row.getTransactionType());
+        listing.setStatus(Listing.Status.ACTIVE);
+        listing.setAddress(row.getAddress());
+        listing.setLatitude(row.getLatitude());
+        listing.setLongitude(row.getLongitude());
+        return listing;
+    }
+
+    private static void appendRejections(ImportJob job, List<String> rejections) {
+        List<String> reported = job.getRejections() == null ? new ArrayList<>()
+                : new ArrayList<>(Arrays.asList(job.getRejections().split("\n")));
+        for (String rejection : rejections) {
+            if (reported.size() >= MAX_REPORTED_REJECTIONS) {
+                break;
+            }
+            reported.add(rejection);
+        }
+        job.setRejections(reported.isEmpty() ? null : String.join("\n", reported));
+    }
+
+    private ImportJob finish(Long jobId, ImportJob.Status status, String errorMessage) {
+        return transactionTemplate.execute(transaction -> {
+            ImportJob job = entityManager.find(ImportJob.class, jobId);
+            job.setStatus(status);
+            job.setErrorMessage(errorMessage);
+            job.setFinishedAt(LocalDateTime.now());
+            return job;
+        });
+    }
+
+    private void deleteFile(String filePath) {
+        try {
+            Files.deleteIfExists(Paths.get(filePath));
+        } catch (IOException ex) {
+            logger.warn("Could not delete import file {}", filePath, ex);
+        }
+    }
+
+    private RowSource open(ExportFormat format, InputStream input) throws IOException {
+        if (format == ExportFormat.CSV) {
+            CsvReader reader = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            return new RowSource() {
+                @Override
+                public Object next() throws IOException {
+                    return reader.next();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    reader.close();
+                }
+            };
+        }
+        // Un objet JSON par ligne ou un tableau JSON : MappingIterator lit les deux en flux
+        MappingIterator<JsonNode> iterator = objectMapper.readerFor(JsonNode.class).readValues(input);
+        return new RowSource() {
+            @Override
+            public Object next() throws IOException {
+                return iterator.hasNextValue() ? iterator.nextValue() : null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                iterator.close();
+                input.close();
+            }
+        };
+    }
+
+    private ImportJob findJob(Long id, String token) {
+        User user = getCurrentUser(token);
+        return importJobRepository.findByIdAndUserId(id, user.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Import not found with id: " + id));
+    }
+
+    private User getCurrentUser(String token) {
+        String email = jwtUtil.getEmailFromToken(token.substring(7));
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+    }
+
+    private static ImportJobDTO convertToDto(ImportJob job) {
+        ImportJobDTO dto = new ImportJobDTO();
+        dto.setId(job.getId());
+        dto.setStatus(job.getStatus());
+        dto.setFormat(job.getFormat());
+        dto.setFileName(job.getOriginalFileName());
+        dto.setProcessedRows(job.getProcessedRows());
+        dto.setImportedRows(job.getImportedRows());
+        dto.setRejectedRows(job.getRejectedRows());
+        dto.setRejections(job.getRejections() == null ? List.of() : Arrays.asList(job.getRejections().split("\n")));
+        dto.setErrorMessage(job.getErrorMessage());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setUpdatedAt(job.getUpdatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        return dto;
+    }
+
+    /**
+     * Lignes brutes du fichier : Map de colonnes (CSV) ou JsonNode, null en fin de fichier
+     */
+    private interface RowSource extends Closeable {
+
+        Object next() throws IOException;
+
+        // Une ligne CSV mal formée est rejetée seule ; une erreur de syntaxe JSON arrête l'import
+        default RawRow read(long rowNumber) throws IOException {
+            try {
+                Object value = next();
+                return value == null ? null : new RawRow(rowNumber, value, null);
+            } catch (IllegalArgumentException ex) {
+                return new RawRow(rowNumber, null, ex.getMessage());
+            }
+        }
+    }
+
+    private static final class RawRow {
+        private final long rowNumber;
+        private final Object value;
+        private final String rejection;
+
+        RawRow(long rowNumber, Object value, String rejection) {
+            this.rowNumber = rowNumber;
+            this.value = value;
+            this.rejection = rejection;
+        }
+    }
+
+    private static final class ParsedRow {
+        private final long rowNumber;
+        private final ListingImportRow row;
+        private final String rejection;
+
+        ParsedRow(long rowNumber, ListingImportRow row, String rejection) {
+            this.rowNumber = rowNumber;
+            this.row = row;
+            this.rejection = rejection;
+        }
+
+        static ParsedRow rejected(long rowNumber, String rejection) {
+            return new ParsedRow(rowNumber, null, rejection);
+        }
+    }
+}
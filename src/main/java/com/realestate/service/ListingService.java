@@ -1,17 +1,69 @@
 package com.realestate.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.realestate.dto.ExportFormat;
+import com.realestate.dto.ListingDTO;
+import com.realestate.dto.ListingSearchResponse;
+import com.realestate.dto.ListingSummaryDTO;
+import com.realestate.dto.MapClustersDTO;
+import com.realestate.dto.ScrollResponse;
+import com.realestate.dto.ScrollSort;
+import com.realestate.dto.SearchFacetsDTO;
 import com.realestate.entity.Listing;
 import com.realestate.entity.User;
+import com.realestate.event.ListingChangedEvent;
+import com.realestate.exception.InvalidRequestException;
+import com.realestate.exception.ResourceNotFoundException;
+import com.realestate.mapper.ListingMapper;
+import com.realestate.repository.KeysetSpecifications;
 import com.realestate.repository.ListingRepository;
+import com.realestate.repository.ListingSpecifications;
+import com.realestate.search.CityRegistry;
+import com.realestate.search.GeoHit;
+import com.realestate.search.GeoMath;
+import com.realestate.search.ListingClusterIndex;
+import com.realestate.search.ListingDocument;
+import com.realestate.search.ListingFilter;
+import com.realestate.search.ListingFilterIndex;
+import com.realestate.search.ListingGeoIndex;
+import com.realestate.search.SearchResultCache;
+import com.realestate.search.SimilarListingIndex;
+import com.realestate.util.ExportWriter;
+import com.realestate.util.KeysetCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -20,15 +72,50 @@ public class ListingService {
     private static final Logger logger = LoggerFactory.getLogger(ListingService.class);
 
     private final ListingRepository listingRepository;
+    private final ListingFilterIndex listingFilterIndex;
+    private final ListingGeoIndex listingGeoIndex;
+    private final ListingClusterIndex listingClusterIndex;
+    private final SearchResultCache searchResultCache;
+    private final SimilarListingIndex similarListingIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ListingMapper listingMapper;
+    private final CityRegistry cityRegistry;
+    private final Map<String, Function<Listing, Object>> exportColumns;
 
-    public ListingService(ListingRepository listingRepository) {
+    private final Cache<List<Object>, Long> approximateCounts = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    public ListingService(ListingRepository listingRepository,
+                          ListingFilterIndex listingFilterIndex,
+                          ListingGeoIndex listingGeoIndex,
+                          ListingClusterIndex listingClusterIndex,
+                          SearchResultCache searchResultCache,
+                          SimilarListingIndex similarListingIndex,
+                          ApplicationEventPublisher eventPublisher,
+                          ObjectMapper objectMapper,
+                          ListingMapper listingMapper,
+                          CityRegistry cityRegistry) {
         this.listingRepository = listingRepository;
+        this.listingFilterIndex = listingFilterIndex;
+        this.listingGeoIndex = listingGeoIndex;
+        this.listingClusterIndex = listingClusterIndex;
+        this.searchResultCache = searchResultCache;
+        this.similarListingIndex = similarListingIndex;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.listingMapper = listingMapper;
+        this.cityRegistry = cityRegistry;
+        this.exportColumns = exportColumns();
     }
 
     public Listing createListing(Listing listing, User user) {
         listing.setUser(user);
         listing.setStatus(Listing.Status.ACTIVE);
         Listing savedListing = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(this, savedListing, ListingChangedEvent.ChangeType.CREATED));
         logger.info("Listing created successfully: {} by user {}", savedListing.getId(), user.getId());
         return savedListing;
     }
@@ -45,7 +132,48 @@ public class ListingService {
         return listingRepository.findById(id);
     }
 
-    public Page<Listing> searchWithFilters(
+    @Transactional(readOnly = true)
+    public Page<Listing> searchWithFilters(ListingFilter filter, Pageable pageable) {
+        return searchWithFilters(filter, pageable, null);
+    }
+
+    /**
+     * facetsConsumer (facultatif) reçoit les facettes calculées avec la page, quand l'index la sert
+     */
+    private Page<Listing> searchWithFilters(ListingFilter filter, Pageable pageable,
+                                            Consumer<SearchFacetsDTO> facetsConsumer) {
+        // Filtrage par l'index bitmap, la base ne sert qu'à charger la page finale
+        Page<Long> idPage = listingFilterIndex.search(filter, pageable, facetsConsumer);
+        if (idPage != null) {
+            return loadPage(idPage);
+        }
+
+        if (StringUtils.hasText(filter.getText())) {
+            // Index pas encore chargé : sous-chaîne du titre, sans tolérance aux fautes
+            Specification<Listing> specification = ListingSpecifications.matchesFilters(
+                    Listing.Status.ACTIVE, filter.getCityName(), filter.getPropertyType(),
+                    filter.getTransactionType(), filter.getMinPrice(), filter.getMaxPrice(),
+                    filter.getMinSurface(), filter.getMaxSurface(), filter.getMinRooms(), filter.getMaxRooms());
+            return listingRepository.findAll(
+                    specification.and(ListingSpecifications.titleContains(filter.getText())), pageable);
+        }
+
+        return listingRepository.findWithFilters(
+                Listing.Status.ACTIVE,
+                filter.getCityName(),
+                filter.getPropertyType(),
+                filter.getTransactionType(),
+                filter.getMinPrice(),
+                filter.getMaxPrice(),
+                filter.getMinSurface(),
+                filter.getMaxSurface(),
+                filter.getMinRooms(),
+                filter.getMaxRooms(),
+                pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public ScrollResponse<ListingDTO> scrollWithFilters(
             String cityName,
             Listing.PropertyType propertyType,
             Listing.TransactionType transactionType,
@@ -55,20 +183,169 @@ public class ListingService {
             Integer maxSurface,
             Integer minRooms,
             Integer maxRooms,
-            Pageable pageable) {
-        
-        return listingRepository.findWithFilters(
-                Listing.Status.ACTIVE,
-                cityName,
-                propertyType,
-                transactionType,
-                minPrice,
-                maxPrice,
-                minSurface,
-                maxSurface,
-                minRooms,
-                maxRooms,
-                pageable);
+            ScrollSort sort,
+            String cursor,
+            int size,
+            boolean includeTotal) {
+
+        Specification<Listing> specification = ListingSpecifications.matchesFilters(
+                Listing.Status.ACTIVE, cityName, propertyType, transactionType,
+                minPrice, maxPrice, minSurface, maxSurface, minRooms, maxRooms);
+
+        Specification<Listing> pageSpecification = specification;
+        if (StringUtils.hasText(cursor)) {
+            pageSpecification = specification.and(KeysetSpecifications.after(KeysetCursor.decode(cursor, sort)));
+        }
+
+        Slice<Listing> slice = listingRepository.findSlice(pageSpecification, sort.toSort(), size);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Listing last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.of(sort, last.getPrice(), last.getId()).encode();
+        }
+
+        Long approximateTotal = null;
+        if (includeTotal) {
+            // Comptage mis en cache brièvement : le défilement infini ne le recalcule pas à chaque tranche
+            List<Object> countKey = Arrays.asList("listing", cityName != null ? cityName.toLowerCase(Locale.ROOT) : null,
+                    propertyType, transactionType, minPrice, maxPrice, minSurface, maxSurface, minRooms, maxRooms);
+            approximateTotal = approximateCounts.get(countKey, key -> listingRepository.count(specification));
+        }
+
+        List<ListingDTO> content = slice.getContent().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return new ScrollResponse<>(content, content.size(), slice.hasNext(), nextCursor, approximateTotal);
+    }
+
+    /**
+     * Export de toutes les annonces actives correspondant aux critères, écrit au fil de la lecture
+     * du curseur. Le texte est cherché par sous-chaîne dans le titre (pas de mode fuzzy à l'export).
+     */
+    @Transactional(readOnly = true)
+    public long exportListings(ListingFilter filter, ExportFormat format, OutputStream output) throws IOException {
+        Specification<Listing> specification = ListingSpecifications.matchesFilters(
+                Listing.Status.ACTIVE, filter.getCityName(), filter.getPropertyType(),
+                filter.getTransactionType(), filter.getMinPrice(), filter.getMaxPrice(),
+                filter.getMinSurface(), filter.getMaxSurface(), filter.getMinRooms(), filter.getMaxRooms());
+        if (StringUtils.hasText(filter.getText())) {
+            specification = specification.and(ListingSpecifications.titleContains(filter.getText()));
+        }
+
+        ExportWriter<Listing> writer = ExportWriter.open(format, exportColumns, output, objectMapper);
+        try (Stream<Listing> listings = listingRepository.streamAll(specification, Sort.by("id"))) {
+            Iterator<Listing> iterator = listings.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
+        long count = writer.finish();
+        logger.info("Exported {} listings as {}", count, format);
+        return count;
+    }
+
+    @Transactional(readOnly = true)
+    public ListingSearchResponse searchListings(ListingFilter filter, Pageable pageable, boolean includeFacets) {
+        List<Object> filters = Arrays.asList(filter.getTransactionType(), filter.getMinPrice(), filter.getMaxPrice(),
+                filter.getMinSurface(), filter.getMaxSurface(), filter.getMinRooms(), filter.getMaxRooms(),
+                filter.getText(), filter.isFuzzy());
+        AtomicReference<SearchFacetsDTO> facets = new AtomicReference<>();
+        Page<ListingDTO> results = searchResultCache.get(SearchResultCache.Scope.LISTING,
+                filter.getCityName(), filter.isFuzzy(), filter.getPropertyType(), filters, pageable,
+                () -> searchWithFilters(filter, pageable, includeFacets ? facets::set : null).map(this::convertToDto));
+        if (includeFacets && facets.get() == null) {
+            // Page venue du cache ou de la base : facettes calculées à part, sur l'état courant de l'index
+            facets.set(listingFilterIndex.facets(filter));
+        }
+        return new ListingSearchResponse(results, facets.get());
+    }
+
+    /**
+     * Annonces actives à moins de radiusKm du point, les plus proches en premier
+     */
+    @Transactional(readOnly = true)
+    public List<ListingDTO> findNearby(double lat, double lng, double radiusKm, int limit) {
+        GeoMath.checkCoordinates(lat, lng);
+        if (!(radiusKm > 0)) {
+            throw new InvalidRequestException("Radius must be positive");
+        }
+
+        if (listingGeoIndex.isReady()) {
+            return loadHits(listingGeoIndex.nearby(lat, lng, radiusKm, limit));
+        }
+
+        double latDelta = GeoMath.latDelta(radiusKm);
+        double lngDelta = GeoMath.lonDelta(lat, radiusKm);
+        List<Listing> candidates = listingRepository.findActiveWithinBox(
+                Math.max(-90, lat - latDelta), Math.max(-180, lng - lngDelta),
+                Math.min(90, lat + latDelta), Math.min(180, lng + lngDelta));
+        return sortByDistance(candidates, lat, lng, radiusKm, limit);
+    }
+
+    /**
+     * Annonces actives situées dans la zone de carte, triées par distance au point de référence
+     * (centre de la zone par défaut)
+     */
+    @Transactional(readOnly = true)
+    public List<ListingDTO> findWithinBounds(double south, double west, double north, double east,
+                                             Double refLat, Double refLng, int limit) {
+        checkBounds(south, west, north, east);
+        double lat = refLat != null ? refLat : (south + north) / 2;
+        double lng = refLng != null ? refLng : (west + east) / 2;
+        GeoMath.checkCoordinates(lat, lng);
+
+        if (listingGeoIndex.isReady()) {
+            return loadHits(listingGeoIndex.within(south, west, north, east, lat, lng, limit));
+        }
+        return sortByDistance(listingRepository.findActiveWithinBox(south, west, north, east),
+                lat, lng, Double.POSITIVE_INFINITY, limit);
+    }
+
+    /**
+     * Annonces actives les plus similaires à l'annonce, de la plus à la moins proche
+     */
+    @Transactional(readOnly = true)
+    public List<ListingSummaryDTO> findSimilarListings(Long id, int limit) {
+        if (!similarListingIndex.isReady()) {
+            return new ArrayList<>();
+        }
+        List<SimilarListingIndex.SimilarListing> similar = similarListingIndex.similarTo(id, limit);
+        if (similar.isEmpty()) {
+            if (!listingRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Listing not found with id: " + id);
+            }
+            return new ArrayList<>();
+        }
+
+        Map<Long, ListingSummaryDTO> summariesById = listingRepository.findSummariesByIdIn(
+                        similar.stream().map(SimilarListingIndex.SimilarListing::getListingId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(ListingSummaryDTO::getId, Function.identity()));
+        List<ListingSummaryDTO> result = new ArrayList<>(similar.size());
+        for (SimilarListingIndex.SimilarListing neighbour : similar) {
+            ListingSummaryDTO summary = summariesById.get(neighbour.getListingId());
+            if (summary != null) {
+                summary.setSimilarity(1.0 / (1.0 + neighbour.getDistance()));
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Marqueurs agrégés par cellule de grille pour la zone de carte et le niveau de zoom
+     */
+    @Transactional(readOnly = true)
+    public MapClustersDTO getMapClusters(double south, double west, double north, double east, int zoom) {
+        checkBounds(south, west, north, east);
+        if (listingClusterIndex.isReady()) {
+            return listingClusterIndex.clusters(south, west, north, east, zoom);
+        }
+        List<ListingDocument> documents = listingRepository.findActiveWithinBox(south, west, north, east).stream()
+                .map(listing -> ListingDocument.of(listing, cityRegistry.cityNameOf(listing)))
+                .collect(Collectors.toList());
+        return ListingClusterIndex.clusters(documents, south, west, north, east, zoom);
     }
 
     public Listing updateListing(Listing listing, User user) {
@@ -77,6 +354,7 @@ public class ListingService {
         }
         
         Listing updatedListing = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(this, updatedListing, ListingChangedEvent.ChangeType.UPDATED));
         logger.info("Listing updated successfully: {} by user {}", updatedListing.getId(), user.getId());
         return updatedListing;
     }
@@ -92,6 +370,7 @@ public class ListingService {
         }
         
         listingRepository.deleteById(id);
+        eventPublisher.publishEvent(new ListingChangedEvent(this, listing.get(), ListingChangedEvent.ChangeType.DELETED));
         logger.info("Listing deleted: {} by user {}", id, user.getId());
     }
 
@@ -108,7 +387,88 @@ public class ListingService {
         
         listing.setStatus(status);
         Listing updatedListing = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(this, updatedListing, ListingChangedEvent.ChangeType.STATUS_CHANGED));
         logger.info("Listing status changed to {} for listing {} by user {}", status, id, user.getId());
         return updatedListing;
     }
-}
\ No newline at end of file
+
+    /**
+     * Charge les annonces d'une page d'identifiants en conservant l'ordre de l'index
+     */
+    private Page<Listing> loadPage(Page<Long> idPage) {
+        Map<Long, Listing> listingsById = listingRepository.findAllById(idPage.getContent()).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+        List<Listing> content = idPage.getContent().stream()
+                .map(listingsById::get)
+                .filter(listing -> listing != null && listing.getStatus() == Listing.Status.ACTIVE)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    private static void checkBounds(double south, double west, double north, double east) {
+        GeoMath.checkCoordinates(south, west);
+        GeoMath.checkCoordinates(north, east);
+        if (south > north || west > east) {
+            throw new InvalidRequestException("Invalid bounds: expected south <= north and west <= east");
+        }
+    }
+
+    /**
+     * Charge les annonces trouvées par l'index géographique dans l'ordre des distances
+     */
+    private List<ListingDTO> loadHits(List<GeoHit> hits) {
+        List<Long> ids = hits.stream().map(GeoHit::getListingId).collect(Collectors.toList());
+        Map<Long, Listing> listingsById = listingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+        List<ListingDTO> result = new ArrayList<>(hits.size());
+        for (GeoHit hit : hits) {
+            Listing listing = listingsById.get(hit.getListingId());
+            if (listing != null && listing.getStatus() == Listing.Status.ACTIVE) {
+                ListingDTO dto = convertToDto(listing);
+                dto.setDistanceKm(hit.getDistanceKm());
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+
+    private List<ListingDTO> sortByDistance(List<Listing> candidates, double lat, double lng,
+                                            double maxDistanceKm, int limit) {
+        return candidates.stream()
+                .map(listing -> {
+                    ListingDTO dto = convertToDto(listing);
+                    dto.setDistanceKm(GeoMath.distanceKm(lat, lng, listing.getLatitude(), listing.getLongitude()));
+                    return dto;
+                })
+                .filter(dto -> dto.getDistanceKm() <= maxDistanceKm)
+                .sorted(Comparator.comparingDouble(ListingDTO::getDistanceKm))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private ListingDTO convertToDto(Listing listing) {
+        return listingMapper.toDto(listing);
+    }
+
+    // Colonnes scalaires et ville (lue dans CityRegistry) : les entités exportées sont détachées
+    private Map<String, Function<Listing, Object>> exportColumns() {
+        Map<String, Function<Listing, Object>> columns = new LinkedHashMap<>();
+        columns.put("id", Listing::getId);
+        columns.put("title", Listing::getTitle);
+        columns.put("description", Listing::getDescription);
+        columns.put("propertyType", Listing::getPropertyType);
+        columns.put("transactionType", Listing::getTransactionType);
+        columns.put("price", Listing::getPrice);
+        columns.put("surfaceArea", Listing::getSurfaceArea);
+        columns.put("rooms", Listing::getRooms);
+        columns.put("bedrooms", Listing::getBedrooms);
+        columns.put("bathrooms", Listing::getBathrooms);
+        columns.put("address", Listing::getAddress);
+        columns.put("cityId", Listing::getCityId);
+        columns.put("cityName", cityRegistry::cityNameOf);
+        columns.put("latitude", Listing::getLatitude);
+        columns.put("longitude", Listing::getLongitude);
+        columns.put("createdAt", Listing::getCreatedAt);
+        return Collections.unmodifiableMap(columns);
+    }
+}
@@ -0,0 +1,129 @@
+package com.realestate.service;
+
+import com.realestate.entity.MaintenanceCheckpoint;
+import com.realestate.entity.PropertyStatus;
+import com.realestate.event.PropertiesStatusChangedEvent;
+import com.realestate.repository.MaintenanceCheckpointRepository;
+import com.realestate.repository.PropertyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintenance nocturne des biens : les biens disponibles ou en négociation non modifiés depuis
+ * app.maintenance.stale-after passent à UNAVAILABLE. La table est parcourue par lots de CHUNK_SIZE
+ * identifiants croissants, chaque lot étant modifié par une seule requête UPDATE ; l'avancement est
+ * enregistré avec le lot (MaintenanceCheckpoint), un parcours interrompu reprend là où il s'est arrêté.
+ */
+@Component
+public class PropertyMaintenanceJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyMaintenanceJob.class);
+    private static final int CHUNK_SIZE = 500;
+
+    static final String STALE_TASK = "expire-stale-properties";
+
+    private final PropertyRepository propertyRepository;
+    private final MaintenanceCheckpointRepository checkpointRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration staleAfter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public PropertyMaintenanceJob(PropertyRepository propertyRepository,
+                                  MaintenanceCheckpointRepository checkpointRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.maintenance.stale-after:180d}") Duration staleAfter) {
+        this.propertyRepository = propertyRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.staleAfter = staleAfter;
+    }
+
+    @Scheduled(cron = "${app.maintenance.cron:0 30 3 * * *}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Property maintenance is already running, skipping this trigger");
+            return;
+        }
+        try {
+            Integer backfilled = transactionTemplate.execute(status ->
+                    propertyRepository.backfillTimestamps(LocalDateTime.now()));
+            if (backfilled != null && backfilled > 0) {
+                logger.info("Set missing creation and update dates on {} properties", backfilled);
+            }
+
+            process(STALE_TASK, staleAfter, EnumSet.of(PropertyStatus.AVAILABLE, PropertyStatus.PENDING),
+                    propertyRepository::findOutdatedIdsAfter);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void process(String task, Duration age, Collection<PropertyStatus> statuses, ChunkQuery query) {
+        MaintenanceCheckpoint start = transactionTemplate.execute(status -> {
+            MaintenanceCheckpoint checkpoint = checkpointRepository.findById(task)
+                    .orElseGet(() -> new MaintenanceCheckpoint(task));
+            if (checkpoint.isInProgress()) {
+                logger.info("Resuming {} after property {} ({} already updated)",
+                        task, checkpoint.getLastId(), checkpoint.getUpdatedRows());
+            } else {
+                LocalDateTime now = LocalDateTime.now();
+                checkpoint.restart(now.minus(age), now);
+            }
+            return checkpointRepository.save(checkpoint);
+        });
+
+        long begin = System.currentTimeMillis();
+        boolean done = false;
+        while (!done) {
+            done = Boolean.TRUE.equals(transactionTemplate.execute(status -> processChunk(task, statuses, query)));
+        }
+        logger.info("{} finished: {} properties set to {} since {} (this run took {} ms)",
+                task, checkpointRepository.findById(task).map(MaintenanceCheckpoint::getUpdatedRows).orElse(0L),
+                PropertyStatus.UNAVAILABLE, start.getStartedAt(), System.currentTimeMillis() - begin);
+    }
+
+    /**
+     * Un lot : identifiants suivants, UPDATE groupé et avancement dans la même transaction.
+     * Renvoie true quand la table a été entièrement parcourue.
+     */
+    private boolean processChunk(String task, Collection<PropertyStatus> statuses, ChunkQuery query) {
+        MaintenanceCheckpoint checkpoint = checkpointRepository.findById(task).orElseThrow();
+        List<Long> ids = query.nextIds(checkpoint.getLastId(), statuses, checkpoint.getCutoff(),
+                PageRequest.of(0, CHUNK_SIZE));
+        if (ids.isEmpty()) {
+            checkpoint.setCompletedAt(LocalDateTime.now());
+            return true;
+        }
+
+        int updated = propertyRepository.updateStatusByIdIn(ids, statuses, PropertyStatus.UNAVAILABLE, LocalDateTime.now());
+        checkpoint.setLastId(ids.get(ids.size() - 1));
+        checkpoint.setUpdatedRows(checkpoint.getUpdatedRows() + updated);
+        if (updated > 0) {
+            eventPublisher.publishEvent(new PropertiesStatusChangedEvent(this, ids, PropertyStatus.UNAVAILABLE));
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface ChunkQuery {
+        List<Long> nextIds(Long afterId, Collection<PropertyStatus> statuses, LocalDateTime cutoff, Pageable pageable);
+    }
+}
@@ -1,39 +1,89 @@
 package com.realestate.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.realestate.dto.ExportFormat;
 import com.realestate.dto.PropertyDTO;
+import com.realestate.dto.PropertySummaryDTO;
+import com.realestate.dto.ScrollResponse;
+import com.realestate.dto.ScrollSort;
 import com.realestate.entity.Property;
 import com.realestate.entity.PropertyType;
 import com.realestate.entity.User;
+import com.realestate.event.PropertyChangedEvent;
 import com.realestate.exception.ResourceNotFoundException;
+import com.realestate.mapper.PropertyMapper;
+import com.realestate.repository.KeysetSpecifications;
 import com.realestate.repository.PropertyRepository;
+import com.realestate.repository.PropertySpecifications;
+import com.realestate.search.PropertySearchIndex;
+import com.realestate.search.SearchResultCache;
+import com.realestate.search.TextAnalyzer;
+import com.realestate.util.ExportWriter;
 import com.realestate.util.JwtUtil;
+import com.realestate.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PropertyService {
     
     private static final Logger logger = LoggerFactory.getLogger(PropertyService.class);
+
+    // Liste d'identifiants liée une seule fois par requête, loin de la limite de 32 767 paramètres de PostgreSQL
+    // (les filtres s'y ajoutent) ; au-delà, une liste IN aussi longue coûte plus cher que le LIKE en base
+    private static final int MAX_KEYWORD_CANDIDATES = 5000;
+    private static final String RELEVANCE_SORT = "relevance";
+    
+    private static final Map<String, Function<Property, Object>> EXPORT_COLUMNS = exportColumns();
     
     private final PropertyRepository propertyRepository;
     private final UserService userService;
     private final JwtUtil jwtUtil;
-    private final ModelMapper modelMapper;
+    private final PropertyMapper propertyMapper;
     private final FileStorageService fileStorageService;
+    private final PropertySearchIndex propertySearchIndex;
+    private final SearchResultCache searchResultCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    
+    private final Cache<List<Object>, Long> approximateCounts = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
 
     @Transactional(readOnly = true)
     public Page<PropertyDTO> searchProperties(
@@ -43,14 +93,168 @@ public class PropertyService {
         logger.info("Searching properties with query: {}, city: {}, minPrice: {}, maxPrice: {}, minSurface: {}, rooms: {}, type: {}",
                 query, city, minPrice, maxPrice, minSurface, rooms, type);
         
+        List<Object> filters = searchFilters(PropertyDTO.class, query, minPrice, maxPrice, minSurface, rooms);
+        return searchResultCache.get(SearchResultCache.Scope.PROPERTY, city, false, type, filters, pageable,
+                () -> toPropertyDtos(findProperties(query, city, minPrice, maxPrice, minSurface, rooms, type, pageable)));
+    }
+
+    /**
+     * Même recherche que searchProperties, rendue sous forme de résumés (colonnes des listes,
+     * première image), sans charger les entités
+     */
+    @Transactional(readOnly = true)
+    public Page<PropertySummaryDTO> searchPropertySummaries(
+            String query, String city, BigDecimal minPrice, BigDecimal maxPrice,
+            Double minSurface, Integer rooms, PropertyType type, Pageable pageable) {
+        
+        List<Object> filters = searchFilters(PropertySummaryDTO.class, query, minPrice, maxPrice, minSurface, rooms);
+        return searchResultCache.get(SearchResultCache.Scope.PROPERTY, city, false, type, filters, pageable,
+                () -> findProperties(query, city, minPrice, maxPrice, minSurface, rooms, type, pageable));
+    }
+
+    // Le type de DTO fait partie de la clé : les deux formes d'une même page sont mises en cache séparément
+    private static List<Object> searchFilters(Class<?> view, String query, BigDecimal minPrice, BigDecimal maxPrice,
+                                              Double minSurface, Integer rooms) {
+        return Arrays.asList(view.getSimpleName(), query != null ? query.toLowerCase(Locale.ROOT) : null,
+                minPrice, maxPrice, minSurface, rooms);
+    }
+
+    /**
+     * Page complète (PropertyDTO) à partir de la page de résumés : une requête pour les biens de la page,
+     * dans l'ordre de la recherche
+     */
+    private Page<PropertyDTO> toPropertyDtos(Page<PropertySummaryDTO> summaries) {
+        List<Long> ids = summaries.getContent().stream()
+                .map(PropertySummaryDTO::getId)
+                .collect(Collectors.toList());
+        Map<Long, Property> byId = propertyRepository.findWithOwnerByIdIn(ids).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        List<PropertyDTO> content = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, summaries.getPageable(), summaries.getTotalElements());
+    }
+
+    private Page<PropertySummaryDTO> findProperties(
+            String query, String city, BigDecimal minPrice, BigDecimal maxPrice,
+            Double minSurface, Integer rooms, PropertyType type, Pageable pageable) {
+        // Partie mots-clés résolue par l'index inversé, les filtres restent en base
+        boolean byRelevance = pageable.getSort().getOrderFor(RELEVANCE_SORT) != null;
+        List<Long> candidateIds = resolveKeywordCandidates(query);
+        if (candidateIds != null) {
+            if (candidateIds.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            if (byRelevance) {
+                return findByRelevance(TextAnalyzer.tokenize(query), candidateIds,
+                        city, minPrice, maxPrice, minSurface, rooms, type, pageable);
+            }
+            return findByIds(candidateIds, city, minPrice, maxPrice, minSurface, rooms, type, pageable);
+        }
+        
+        // Sans index (ou sans mots-clés) le tri par pertinence n'a pas de sens : ordre par défaut
+        Pageable databasePageable = byRelevance
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+                : pageable;
         return propertyRepository.searchProperties(
-                query, city, minPrice, maxPrice, minSurface, null, rooms, null, type, null, null, pageable)
-                .map(this::convertToDto);
+                query, city, minPrice, maxPrice, minSurface, null, rooms, null, type, null, null, databasePageable);
+    }
+
+    /**
+     * Sans autre filtre, le total est le nombre de candidats ; sinon il n'est compté en base que si
+     * la page est complète : une page incomplète donne directement le total
+     */
+    private Page<PropertySummaryDTO> findByIds(
+            List<Long> candidateIds, String city, BigDecimal minPrice, BigDecimal maxPrice,
+            Double minSurface, Integer rooms, PropertyType type, Pageable pageable) {
+        List<PropertySummaryDTO> content = propertyRepository.searchPropertiesByIds(
+                candidateIds, city, minPrice, maxPrice, minSurface, null, rooms, null, type, null, null, pageable);
+        if (!hasFilters(city, minPrice, maxPrice, minSurface, rooms, type)) {
+            return new PageImpl<>(content, pageable, candidateIds.size());
+        }
+        return PageableExecutionUtils.getPage(content, pageable, () -> propertyRepository.countByIdsAndFilters(
+                candidateIds, city, minPrice, maxPrice, minSurface, rooms, type));
+    }
+
+    /**
+     * Tri BM25 : la base ne renvoie que les identifiants passant les filtres, le classement
+     * se fait en mémoire en ne gardant que les offset + size meilleurs, puis seule la page est chargée
+     */
+    private Page<PropertySummaryDTO> findByRelevance(
+            List<String> terms, List<Long> candidateIds, String city, BigDecimal minPrice, BigDecimal maxPrice,
+            Double minSurface, Integer rooms, PropertyType type, Pageable pageable) {
+        List<Long> matchingIds = hasFilters(city, minPrice, maxPrice, minSurface, rooms, type)
+                ? propertyRepository.findIdsByIdsAndFilters(candidateIds, city, minPrice, maxPrice, minSurface, rooms, type)
+                : candidateIds;
+        if (pageable.getOffset() >= matchingIds.size()) {
+            return new PageImpl<>(List.of(), pageable, matchingIds.size());
+        }
+        
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), matchingIds.size());
+        List<Long> ranked = propertySearchIndex.rankByRelevance(terms, matchingIds, limit);
+        List<Long> pageIds = ranked.subList((int) Math.min(pageable.getOffset(), ranked.size()), ranked.size());
+        
+        Map<Long, PropertySummaryDTO> byId = propertyRepository.findSummariesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(PropertySummaryDTO::getId, Function.identity()));
+        List<PropertySummaryDTO> content = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, matchingIds.size());
+    }
+
+    @Transactional(readOnly = true)
+    public ScrollResponse<PropertySummaryDTO> scrollProperties(
+            String query, String city, BigDecimal minPrice, BigDecimal maxPrice,
+            Double minSurface, Integer rooms, PropertyType type,
+            ScrollSort sort, String cursor, int size, boolean includeTotal) {
+        
+        Specification<Property> specification = PropertySpecifications
+                .matchesFilters(city, minPrice, maxPrice, minSurface, rooms, type)
+                .and(KeysetSpecifications.hasSortKey(sort));
+        
+        List<Long> candidateIds = resolveKeywordCandidates(query);
+        if (candidateIds != null) {
+            if (candidateIds.isEmpty()) {
+                return ScrollResponse.empty();
+            }
+            specification = specification.and(PropertySpecifications.idIn(candidateIds));
+        } else if (StringUtils.hasText(query)) {
+            specification = specification.and(PropertySpecifications.keywordLike(query));
+        }
+        
+        Specification<Property> pageSpecification = specification;
+        if (StringUtils.hasText(cursor)) {
+            pageSpecification = specification.and(KeysetSpecifications.after(KeysetCursor.decode(cursor, sort)));
+        }
+        
+        Slice<PropertySummaryDTO> slice = propertyRepository.findSummarySlice(pageSpecification, sort.toSort(), size);
+        
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            PropertySummaryDTO last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.of(sort, last.getPrice(), last.getId()).encode();
+        }
+        
+        Long approximateTotal = null;
+        if (includeTotal) {
+            // Comptage mis en cache brièvement : le défilement infini ne le recalcule pas à chaque tranche
+            Specification<Property> countSpecification = specification;
+            List<Object> countKey = Arrays.asList("property", TextAnalyzer.tokenize(query),
+                    city != null ? city.toLowerCase(Locale.ROOT) : null, minPrice, maxPrice, minSurface, rooms, type,
+                    sort.getKeyAttribute());
+            approximateTotal = approximateCounts.get(countKey, key -> propertyRepository.count(countSpecification));
+        }
+        
+        List<PropertySummaryDTO> content = slice.getContent();
+        return new ScrollResponse<>(content, content.size(), slice.hasNext(), nextCursor, approximateTotal);
     }
 
     @Transactional(readOnly = true)
     public PropertyDTO getPropertyById(Long id) {
-        return propertyRepository.findById(id)
+        return propertyRepository.findWithOwnerById(id)
                 .map(this::convertToDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
     }
@@ -64,6 +268,7 @@ public class PropertyService {
         property.setOwner(owner);
         
         Property savedProperty = propertyRepository.save(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(this, savedProperty, PropertyChangedEvent.ChangeType.CREATED));
         logger.info("Created new property with id: {}", savedProperty.getId());
         
         return convertToDto(savedProperty);
@@ -72,7 +277,7 @@ public class PropertyService {
     @Transactional
     public PropertyDTO updateProperty(Long id, PropertyDTO propertyDTO, String token) {
         String email = jwtUtil.getEmailFromToken(token.substring(7));
-        Property existingProperty = propertyRepository.findById(id)
+        Property existingProperty = propertyRepository.findWithOwnerById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         
         // Vérifier que l'utilisateur est le propriétaire
@@ -80,9 +285,14 @@ public class PropertyService {
             throw new SecurityException("You are not authorized to update this property");
         }
         
+        String previousCity = existingProperty.getCity();
+        PropertyType previousType = existingProperty.getType();
+
         // Mettre à jour les champs modifiables
-        modelMapper.map(propertyDTO, existingProperty);
+        propertyMapper.updateEntity(propertyDTO, existingProperty);
         Property updatedProperty = propertyRepository.save(existingProperty);
+        eventPublisher.publishEvent(new PropertyChangedEvent(this, updatedProperty, PropertyChangedEvent.ChangeType.UPDATED,
+                previousCity, previousType));
         
         logger.info("Updated property with id: {}", id);
         return convertToDto(updatedProperty);
@@ -91,7 +301,7 @@ public class PropertyService {
     @Transactional
     public void deleteProperty(Long id, String token) {
         String email = jwtUtil.getEmailFromToken(token.substring(7));
-        Property property = propertyRepository.findById(id)
+        Property property = propertyRepository.findWithOwnerById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         
         // Vérifier que l'utilisateur est le propriétaire
@@ -100,13 +310,14 @@ public class PropertyService {
         }
         
         propertyRepository.delete(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(this, property, PropertyChangedEvent.ChangeType.DELETED));
         logger.info("Deleted property with id: {}", id);
     }
 
     @Transactional
     public PropertyDTO addImagesToProperty(Long id, List<MultipartFile> files, String token) {
         String email = jwtUtil.getEmailFromToken(token.substring(7));
-        Property property = propertyRepository.findById(id)
+        Property property = propertyRepository.findWithOwnerById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property not found with id: " + id));
         
         // Vérifier que l'utilisateur est le propriétaire
@@ -121,11 +332,47 @@ public class PropertyService {
                 
         property.getImageUrls().addAll(newImageUrls);
         Property updatedProperty = propertyRepository.save(property);
+        // Image de couverture des pages de recherche en cache : même invalidation qu'une modification
+        eventPublisher.publishEvent(new PropertyChangedEvent(this, updatedProperty, PropertyChangedEvent.ChangeType.UPDATED,
+                updatedProperty.getCity(), updatedProperty.getType()));
         
         logger.info("Added {} images to property with id: {}", newImageUrls.size(), id);
         return convertToDto(updatedProperty);
     }
 
+    /**
+     * Export de tous les biens correspondant aux critères, écrit au fil de la lecture du curseur :
+     * la mémoire utilisée ne dépend pas du nombre de lignes exportées
+     */
+    @Transactional(readOnly = true)
+    public long exportProperties(
+            String query, String city, BigDecimal minPrice, BigDecimal maxPrice,
+            Double minSurface, Integer rooms, PropertyType type,
+            ExportFormat format, OutputStream output) throws IOException {
+        
+        Specification<Property> specification = PropertySpecifications
+                .matchesFilters(city, minPrice, maxPrice, minSurface, rooms, type);
+        List<Long> candidateIds = resolveKeywordCandidates(query);
+        if (candidateIds != null) {
+            specification = specification.and(PropertySpecifications.idIn(candidateIds));
+        } else if (StringUtils.hasText(query)) {
+            specification = specification.and(PropertySpecifications.keywordLike(query));
+        }
+        
+        ExportWriter<Property> writer = ExportWriter.open(format, EXPORT_COLUMNS, output, objectMapper);
+        if (candidateIds == null || !candidateIds.isEmpty()) {
+            try (Stream<Property> properties = propertyRepository.streamAll(specification, Sort.by("id"))) {
+                Iterator<Property> iterator = properties.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                }
+            }
+        }
+        long count = writer.finish();
+        logger.info("Exported {} properties as {}", count, format);
+        return count;
+    }
+
     @Transactional(readOnly = true)
     public List<PropertyDTO> getUserProperties(String token) {
         String email = jwtUtil.getEmailFromToken(token.substring(7));
@@ -136,17 +383,68 @@ public class PropertyService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<PropertySummaryDTO> getUserPropertySummaries(String token) {
+        String email = jwtUtil.getEmailFromToken(token.substring(7));
+        User user = (User) userService.loadUserByUsername(email);
+        
+        return propertyRepository.findSummariesByOwnerId(user.getId());
+    }
+
+    private static boolean hasFilters(String city, BigDecimal minPrice, BigDecimal maxPrice,
+                                      Double minSurface, Integer rooms, PropertyType type) {
+        return city != null || minPrice != null || maxPrice != null || minSurface != null
+                || rooms != null || type != null;
+    }
+
+    /**
+     * Identifiants des biens correspondant aux mots-clés d'après l'index plein texte,
+     * ou null si la requête doit retomber sur la recherche SQL par sous-chaîne.
+     * Sémantique de l'index : chaque mot de la requête est un début de mot du titre ou de la description,
+     * tous les mots sont exigés dans n'importe quel ordre, sans tenir compte des accents ("appart meuble"
+     * trouve "Appartement meublé"). La recherche SQL cherche la requête entière comme sous-chaîne ; elle ne
+     * sert que tant que l'index n'est pas chargé ou si les mots sont trop fréquents (plus de
+     * MAX_KEYWORD_CANDIDATES biens).
+     */
+    private List<Long> resolveKeywordCandidates(String query) {
+        List<String> terms = TextAnalyzer.tokenize(query);
+        if (terms.isEmpty() || !propertySearchIndex.isReady()) {
+            return null;
+        }
+        List<Long> candidateIds = propertySearchIndex.search(terms);
+        return candidateIds.size() <= MAX_KEYWORD_CANDIDATES ? candidateIds : null;
+    }
+
     // Méthodes de conversion entre entité et DTO
     private PropertyDTO convertToDto(Property property) {
-        PropertyDTO dto = modelMapper.map(property, PropertyDTO.class);
-        if (property.getOwner() != null) {
-            dto.setOwnerId(property.getOwner().getId());
-            dto.setOwnerName(property.getOwner().getFirstName() + " " + property.getOwner().getLastName());
-        }
-        return dto;
+        return propertyMapper.toDto(property);
     }
 
     private Property convertToEntity(PropertyDTO dto) {
-        return modelMapper.map(dto, Property.class);
+        return propertyMapper.toEntity(dto);
+    }
+
+    // Colonnes scalaires uniquement : les entités exportées sont détachées, leurs collections ne sont pas chargées
+    private static Map<String, Function<Property, Object>> exportColumns() {
+        Map<String, Function<Property, Object>> columns = new LinkedHashMap<>();
+        columns.put("id", Property::getId);
+        columns.put("title", Property::getTitle);
+        columns.put("description", Property::getDescription);
+        columns.put("type", Property::getType);
+        columns.put("status", Property::getStatus);
+        columns.put("price", Property::getPrice);
+        columns.put("surface", Property::getSurface);
+        columns.put("rooms", Property::getRooms);
+        columns.put("bedrooms", Property::getBedrooms);
+        columns.put("bathrooms", Property::getBathrooms);
+        columns.put("address", Property::getAddress);
+        columns.put("city", Property::getCity);
+        columns.put("postalCode", Property::getPostalCode);
+        columns.put("country", Property::getCountry);
+        columns.put("latitude", Property::getLatitude);
+        columns.put("longitude", Property::getLongitude);
+        columns.put("ownerId", property -> property.getOwner() != null ? property.getOwner().getId() : null);
+        columns.put("createdAt", Property::getCreatedAt);
+        return Collections.unmodifiableMap(columns);
     }
 }
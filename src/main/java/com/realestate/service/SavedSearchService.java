@@ -0,0 +1,234 @@
+package com.realestate.service;
+
+import com.realestate.dto.SavedSearchAlertDTO;
+import com.realestate.dto.SavedSearchDTO;
+import com.realestate.dto.SavedSearchDigestDTO;
+import com.realestate.entity.City;
+import com.realestate.entity.Listing;
+import com.realestate.entity.SavedSearch;
+import com.realestate.entity.User;
+import com.realestate.event.ListingChangedEvent;
+import com.realestate.event.ListingsImportedEvent;
+import com.realestate.event.SavedSearchChangedEvent;
+import com.realestate.exception.InvalidRequestException;
+import com.realestate.exception.ResourceNotFoundException;
+import com.realestate.repository.CityRepository;
+import com.realestate.repository.SavedSearchRepository;
+import com.realestate.repository.UserRepository;
+import com.realestate.search.CityRegistry;
+import com.realestate.search.ListingDocument;
+import com.realestate.search.SavedSearchPercolator;
+import com.realestate.search.SavedSearchQuery;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class SavedSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchService.class);
+    private static final int MAX_SAVED_SEARCHES_PER_USER = 20;
+    // Annonces détaillées par recherche dans la notification groupée d'un import
+    private static final int MAX_DIGEST_LISTINGS = 10;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final CityRepository cityRepository;
+    private final CityRegistry cityRegistry;
+    private final UserRepository userRepository;
+    private final SavedSearchPercolator savedSearchPercolator;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchDTO> getUserSavedSearches(User user) {
+        return savedSearchRepository.findByUserOrderByCreatedAtDesc(user).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public SavedSearchDTO createSavedSearch(SavedSearchDTO savedSearchDTO, User user) {
+        if (savedSearchRepository.countByUser(user) >= MAX_SAVED_SEARCHES_PER_USER) {
+            throw new InvalidRequestException("Saved search limit reached: " + MAX_SAVED_SEARCHES_PER_USER);
+        }
+        SavedSearch savedSearch = new SavedSearch();
+        savedSearch.setUser(user);
+        applyCriteria(savedSearchDTO, savedSearch);
+
+        SavedSearch saved = savedSearchRepository.save(savedSearch);
+        eventPublisher.publishEvent(new SavedSearchChangedEvent(this, saved, SavedSearchChangedEvent.ChangeType.CREATED));
+        logger.info("Saved search {} created by user {}", saved.getId(), user.getId());
+        return convertToDto(saved);
+    }
+
+    @Transactional
+    public SavedSearchDTO updateSavedSearch(Long id, SavedSearchDTO savedSearchDTO, User user) {
+        SavedSearch savedSearch = findOwned(id, user);
+        applyCriteria(savedSearchDTO, savedSearch);
+
+        SavedSearch saved = savedSearchRepository.save(savedSearch);
+        eventPublisher.publishEvent(new SavedSearchChangedEvent(this, saved, SavedSearchChangedEvent.ChangeType.UPDATED));
+        logger.info("Saved search {} updated by user {}", id, user.getId());
+        return convertToDto(saved);
+    }
+
+    @Transactional
+    public void deleteSavedSearch(Long id, User user) {
+        SavedSearch savedSearch = findOwned(id, user);
+        savedSearchRepository.delete(savedSearch);
+        eventPublisher.publishEvent(new SavedSearchChangedEvent(this, savedSearch, SavedSearchChangedEvent.ChangeType.DELETED));
+        logger.info("Saved search {} deleted by user {}", id, user.getId());
+    }
+
+    /**
+     * Alerte les utilisateurs dont une recherche sauvegardée correspond à une annonce qui vient d'être créée
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        Listing listing = event.getListing();
+        if (event.getChangeType() != ListingChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+
+        ListingDocument document = ListingDocument.of(listing, cityRegistry.cityNameOf(listing));
+        Map<Long, List<Long>> savedSearchIdsByUser = matchingSearchesByUser(listing, document);
+        if (savedSearchIdsByUser.isEmpty()) {
+            return;
+        }
+
+        String message = String.format("Nouvelle annonce correspondant à votre recherche : %s", listing.getTitle());
+        for (User user : userRepository.findAllById(savedSearchIdsByUser.keySet())) {
+            SavedSearchAlertDTO alert = toAlert(listing, document, savedSearchIdsByUser.get(user.getId()));
+            notificationService.sendUserNotification(user, "SAVED_SEARCH_MATCH", message, alert);
+        }
+        logger.info("Listing {} matched saved searches of {} users", listing.getId(), savedSearchIdsByUser.size());
+    }
+
+    /**
+     * Une seule notification par utilisateur pour un lot importé, regroupant par recherche sauvegardée
+     * les annonces qui y correspondent
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onListingsImported(ListingsImportedEvent event) {
+        Map<Long, Map<Long, List<SavedSearchAlertDTO>>> alertsByUser = new LinkedHashMap<>();
+        for (Listing listing : event.getListings()) {
+            ListingDocument document = ListingDocument.of(listing, cityRegistry.cityNameOf(listing));
+            matchingSearchesByUser(listing, document).forEach((userId, savedSearchIds) -> {
+                SavedSearchAlertDTO alert = toAlert(listing, document, savedSearchIds);
+                Map<Long, List<SavedSearchAlertDTO>> alertsBySearch =
+                        alertsByUser.computeIfAbsent(userId, u -> new LinkedHashMap<>());
+                savedSearchIds.forEach(id -> alertsBySearch.computeIfAbsent(id, s -> new ArrayList<>()).add(alert));
+            });
+        }
+        if (alertsByUser.isEmpty()) {
+            return;
+        }
+
+        for (User user : userRepository.findAllById(alertsByUser.keySet())) {
+            List<SavedSearchDigestDTO> digests = new ArrayList<>();
+            alertsByUser.get(user.getId()).forEach((savedSearchId, alerts) -> digests.add(new SavedSearchDigestDTO(
+                    savedSearchId, alerts.size(), new ArrayList<>(alerts.subList(0, Math.min(alerts.size(), MAX_DIGEST_LISTINGS))))));
+            String message = String.format("Nouvelles annonces correspondant à %d de vos recherches", digests.size());
+            notificationService.sendUserNotification(user, "SAVED_SEARCH_DIGEST", message, digests);
+        }
+        logger.info("Imported batch of {} listings matched saved searches of {} users",
+                event.getListings().size(), alertsByUser.size());
+    }
+
+    /**
+     * Recherches sauvegardées correspondant à une annonce active, par utilisateur, sans celles de son auteur
+     */
+    private Map<Long, List<Long>> matchingSearchesByUser(Listing listing, ListingDocument document) {
+        Map<Long, List<Long>> savedSearchIdsByUser = new LinkedHashMap<>();
+        if (listing.getStatus() != Listing.Status.ACTIVE) {
+            return savedSearchIdsByUser;
+        }
+        Long ownerId = listing.getUser() != null ? listing.getUser().getId() : null;
+        for (SavedSearchQuery query : savedSearchPercolator.percolate(document)) {
+            if (!Long.valueOf(query.getUserId()).equals(ownerId)) {
+                savedSearchIdsByUser.computeIfAbsent(query.getUserId(), u -> new ArrayList<>()).add(query.getId());
+            }
+        }
+        return savedSearchIdsByUser;
+    }
+
+    private static SavedSearchAlertDTO toAlert(Listing listing, ListingDocument document, List<Long> savedSearchIds) {
+        return new SavedSearchAlertDTO(listing.getId(), listing.getTitle(), listing.getPrice(),
+                document.getCityName(), listing.getPropertyType(), listing.getTransactionType(), savedSearchIds);
+    }
+
+    private SavedSearch findOwned(Long id, User user) {
+        SavedSearch savedSearch = savedSearchRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Saved search not found with id: " + id));
+        if (!savedSearch.getUser().getId().equals(user.getId())) {
+            throw new SecurityException("You are not authorized to modify this saved search");
+        }
+        return savedSearch;
+    }
+
+    private void applyCriteria(SavedSearchDTO dto, SavedSearch savedSearch) {
+        checkRange(dto.getMinPrice(), dto.getMaxPrice(), "price");
+        checkRange(dto.getMinSurface(), dto.getMaxSurface(), "surface");
+        checkRange(dto.getMinRooms(), dto.getMaxRooms(), "rooms");
+
+        City city = null;
+        if (StringUtils.hasText(dto.getCityName())) {
+            city = cityRegistry.findByName(dto.getCityName())
+                    .map(entry -> cityRepository.getReferenceById(entry.getId()))
+                    .orElseThrow(() -> new InvalidRequestException("Unknown city: " + dto.getCityName()));
+        }
+        savedSearch.setName(dto.getName());
+        savedSearch.setCity(city);
+        savedSearch.setPropertyType(dto.getPropertyType());
+        savedSearch.setTransactionType(dto.getTransactionType());
+        savedSearch.setMinPrice(dto.getMinPrice());
+        savedSearch.setMaxPrice(dto.getMaxPrice());
+        savedSearch.setMinSurface(dto.getMinSurface());
+        savedSearch.setMaxSurface(dto.getMaxSurface());
+        savedSearch.setMinRooms(dto.getMinRooms());
+        savedSearch.setMaxRooms(dto.getMaxRooms());
+        if (dto.getAlertsEnabled() != null) {
+            savedSearch.setAlertsEnabled(dto.getAlertsEnabled());
+        }
+    }
+
+    private static <T extends Comparable<T>> void checkRange(T min, T max, String field) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new InvalidRequestException("Invalid " + field + " range: min is greater than max");
+        }
+    }
+
+    private SavedSearchDTO convertToDto(SavedSearch savedSearch) {
+        SavedSearchDTO dto = new SavedSearchDTO();
+        dto.setId(savedSearch.getId());
+        dto.setName(savedSearch.getName());
+        dto.setCityName(savedSearch.getCity() != null ? savedSearch.getCity().getName() : null);
+        dto.setPropertyType(savedSearch.getPropertyType());
+        dto.setTransactionType(savedSearch.getTransactionType());
+        dto.setMinPrice(savedSearch.getMinPrice());
+        dto.setMaxPrice(savedSearch.getMaxPrice());
+        dto.setMinSurface(savedSearch.getMinSurface());
+        dto.setMaxSurface(savedSearch.getMaxSurface());
+        dto.setMinRooms(savedSearch.getMinRooms());
+        dto.setMaxRooms(savedSearch.getMaxRooms());
+        dto.setAlertsEnabled(savedSearch.getAlertsEnabled());
+        dto.setCreatedAt(savedSearch.getCreatedAt());
+        return dto;
+    }
+}
@@ -8,12 +8,15 @@ import com.realestate.entity.Listing;
 import com.realestate.entity.User;
 import com.realestate.exception.ResourceNotFoundException;
 import com.realestate.exception.UnauthorizedException;
+import com.realestate.mapper.PropertyMapper;
+import com.realestate.mapper.UserMapper;
+import com.realestate.repository.FavoriteRepository;
 import com.realestate.repository.ListingRepository;
 import com.realestate.repository.PropertyRepository;
 import com.realestate.repository.UserRepository;
+import com.realestate.search.CityRegistry;
 import com.realestate.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
@@ -37,8 +40,11 @@ public class UserService implements AuthUserDetailsService {
     private final UserRepository userRepository;
     private final PropertyRepository propertyRepository;
     private final ListingRepository listingRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final CityRegistry cityRegistry;
     private final JwtUtil jwtUtil;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
+    private final PropertyMapper propertyMapper;
     
     @Lazy
     private final PasswordEncoder passwordEncoder;
@@ -68,7 +74,7 @@ public class UserService implements AuthUserDetailsService {
 
     public UserProfileDTO getCurrentUserProfile(String token) {
         User user = getCurrentUser(token);
-        return modelMapper.map(user, UserProfileDTO.class);
+        return userMapper.toProfileDto(user);
     }
 
     public UserProfileDTO updateCurrentUserProfile(UserProfileDTO userProfileDTO, String token) {
@@ -84,20 +90,20 @@ public class UserService implements AuthUserDetailsService {
         }
         
         User updatedUser = userRepository.save(user);
-        return modelMapper.map(updatedUser, UserProfileDTO.class);
+        return userMapper.toProfileDto(updatedUser);
     }
 
     public List<PropertyDTO> getUserProperties(String token) {
         User user = getCurrentUser(token);
         return propertyRepository.findByOwnerId(user.getId())
                 .stream()
-                .map(property -> modelMapper.map(property, PropertyDTO.class))
+                .map(propertyMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     public List<PropertyDTO> getUserFavorites(String token) {
         User user = getCurrentUser(token);
-        return user.getFavorites()
+        return favoriteRepository.findWithListingByUserId(user.getId())
                 .stream()
                 .map(favorite -> {
                     Listing listing = favorite.getListing();
@@ -111,7 +117,7 @@ public class UserService implements AuthUserDetailsService {
                     dto.setBedrooms(listing.getBedrooms());
                     dto.setBathrooms(listing.getBathrooms());
                     dto.setAddress(listing.getAddress());
-                    dto.setCity(listing.getCity() != null ? listing.getCity().getName() : null);
+                    dto.setCity(cityRegistry.cityNameOf(listing));
                     return dto;
                 })
                 .collect(Collectors.toList());
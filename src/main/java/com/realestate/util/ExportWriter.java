@@ -0,0 +1,99 @@
+package com.realestate.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.dto.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Écrit des lignes une à une en CSV (en-tête puis une ligne par élément) ou en NDJSON
+ * (un objet JSON par ligne, champs nuls omis). Rien n'est conservé entre deux lignes.
+ */
+public final class ExportWriter<T> {
+
+    private final Map<String, Function<T, Object>> columns;
+    private final Writer writer;
+    private final JsonGenerator generator;
+    private long count;
+
+    private ExportWriter(ExportFormat format, Map<String, Function<T, Object>> columns,
+                         OutputStream output, ObjectMapper objectMapper) throws IOException {
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == ExportFormat.NDJSON) {
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            this.generator.setRootValueSeparator(null);
+        } else {
+            this.generator = null;
+            writer.write(String.join(",", columns.keySet()));
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * @param columns nom de colonne -> valeur, dans l'ordre d'export (LinkedHashMap)
+     */
+    public static <T> ExportWriter<T> open(ExportFormat format, Map<String, Function<T, Object>> columns,
+                                           OutputStream output, ObjectMapper objectMapper) throws IOException {
+        return new ExportWriter<>(format, columns, output, objectMapper);
+    }
+
+    public void write(T row) throws IOException {
+        if (generator != null) {
+            generator.writeStartObject();
+            for (Map.Entry<String, Function<T, Object>> column : columns.entrySet()) {
+                Object value = column.getValue().apply(row);
+                if (value != null) {
+                    generator.writeObjectField(column.getKey(), value);
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        } else {
+            boolean first = true;
+            for (Function<T, Object> column : columns.values()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                writer.write(csvValue(column.apply(row)));
+                first = false;
+            }
+            writer.write("\r\n");
+        }
+        count++;
+    }
+
+    /**
+     * Vide les tampons vers la réponse (sans la fermer) et renvoie le nombre de lignes écrites
+     */
+    public long finish() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
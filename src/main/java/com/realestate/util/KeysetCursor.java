@@ -0,0 +1,72 @@
+package com.realestate.util;
+
+import com.realestate.dto.ScrollSort;
+import com.realestate.exception.InvalidCursorException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Jeton de continuation opaque : ordre de tri + valeur de la clé de tri + identifiant
+ * du dernier élément renvoyé.
+ */
+public class KeysetCursor {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private final ScrollSort sort;
+    private final BigDecimal key;
+    private final Long id;
+
+    private KeysetCursor(ScrollSort sort, BigDecimal key, Long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    public static KeysetCursor of(ScrollSort sort, BigDecimal key, Long id) {
+        return new KeysetCursor(sort, sort.getKeyAttribute() != null ? key : null, id);
+    }
+
+    public static KeysetCursor decode(String token, ScrollSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            ScrollSort sort = ScrollSort.valueOf(parts[1]);
+            if (sort != expectedSort) {
+                throw new InvalidCursorException("Cursor was issued for sort " + sort);
+            }
+            BigDecimal key = parts[2].isEmpty() ? null : new BigDecimal(parts[2]);
+            if (sort.getKeyAttribute() != null && key == null) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return new KeysetCursor(sort, key, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException et erreurs Base64 comprises
+            throw new InvalidCursorException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + SEPARATOR + sort.name() + SEPARATOR
+                + (key != null ? key.toPlainString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ScrollSort getSort() {
+        return sort;
+    }
+
+    public BigDecimal getKey() {
+        return key;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
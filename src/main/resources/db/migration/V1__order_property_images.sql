@@ -0,0 +1,17 @@
+-- Ordre des images d'un bien (Property.imageUrls, @OrderColumn) : la première sert de couverture.
+-- Sur une base neuve la table n'existe pas encore et Hibernate la crée avec la colonne.
+DO $$
+BEGIN
+    IF to_regclass('property_image_urls') IS NOT NULL THEN
+        ALTER TABLE property_image_urls ADD COLUMN IF NOT EXISTS image_order integer;
+
+        -- Ordre physique des lignes : Hibernate réinsérait toute la collection à chaque ajout d'images
+        UPDATE property_image_urls images
+           SET image_order = numbered.position
+          FROM (SELECT ctid, row_number() OVER (PARTITION BY property_id ORDER BY ctid) - 1 AS position
+                  FROM property_image_urls) numbered
+         WHERE images.ctid = numbered.ctid;
+
+        ALTER TABLE property_image_urls ALTER COLUMN image_order SET NOT NULL;
+    END IF;
+END $$;
@@ -0,0 +1,12 @@
+-- Identifiants d'annonces tirés de la séquence listings_seq (Listing, allocationSize 50) au lieu de la colonne IDENTITY.
+-- Sur une base neuve seule la séquence est créée, Hibernate crée ensuite la table sans IDENTITY.
+CREATE SEQUENCE IF NOT EXISTS listings_seq START WITH 1 INCREMENT BY 50;
+
+DO $$
+BEGIN
+    IF to_regclass('listings') IS NOT NULL THEN
+        ALTER TABLE listings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+        -- Optimiseur "pooled" : le bloc suivant commence au-delà de la valeur courante, donc des identifiants existants
+        PERFORM setval('listings_seq', (SELECT COALESCE(MAX(id), 0) FROM listings) + 50);
+    END IF;
+END $$;
@@ -0,0 +1,66 @@
+package com.realestate.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.realestate.entity.City;
+import com.realestate.entity.Listing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.converter.json.SpringHandlerInstantiator;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class CityJsonSerializerTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        CityRegistry cityRegistry = new CityRegistry(null);
+        cityRegistry.load(List.of(new CityRegistry.Entry(1L, "Douala", "Cameroun")));
+        // Comme l'ObjectMapper de Spring Boot : sérialiseurs instanciés par le contexte
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("cityRegistry", cityRegistry);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        objectMapper.setHandlerInstantiator(new SpringHandlerInstantiator(beanFactory));
+    }
+
+    @Test
+    void writesTheListingCityFromTheRegistry() {
+        City reference = new City();
+        reference.setId(1L);
+
+        JsonNode city = objectMapper.valueToTree(listing(reference)).get("city");
+
+        assertEquals(1L, city.get("id").asLong());
+        assertEquals("Douala", city.get("name").asText());
+        assertEquals("Cameroun", city.get("country").asText());
+        assertFalse(city.has("listings"));
+    }
+
+    @Test
+    void fallsBackToTheLoadedCityWhenTheRegistryDoesNotKnowIt() {
+        City created = new City("Kribi", "Cameroun");
+        created.setId(2L);
+
+        JsonNode city = objectMapper.valueToTree(listing(created)).get("city");
+
+        assertEquals(2L, city.get("id").asLong());
+        assertEquals("Kribi", city.get("name").asText());
+    }
+
+    private static Listing listing(City city) {
+        Listing listing = new Listing();
+        listing.setId(10L);
+        listing.setTitle("Appartement");
+        listing.setCity(city);
+        listing.setPrice(BigDecimal.valueOf(150_000));
+        return listing;
+    }
+}
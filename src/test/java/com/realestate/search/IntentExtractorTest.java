@@ -0,0 +1,110 @@
+package com.realestate.search;
+
+import com.realestate.entity.Listing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IntentExtractorTest {
+
+    private IntentExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        CityRegistry cityRegistry = new CityRegistry(null);
+        cityRegistry.load(List.of(
+                new CityRegistry.Entry(1L, "Douala", "Cameroun"),
+                new CityRegistry.Entry(2L, "Yaoundé", "Cameroun"),
+                new CityRegistry.Entry(3L, "Ngaoundéré", "Cameroun")));
+        extractor = new IntentExtractor(cityRegistry);
+        extractor.rebuild();
+    }
+
+    @Test
+    void readsAPriceRangeWithGroupedThousands() {
+        QueryIntent intent = extractor.extract("Appartement à louer à Yaoundé entre 100 000 et 200 000 FCFA");
+
+        assertEquals(2L, intent.getCityId());
+        assertEquals(Listing.PropertyType.APARTMENT, intent.getPropertyType());
+        assertEquals(Listing.TransactionType.RENT, intent.getTransactionType());
+        assertEquals(new BigDecimal(100_000), intent.getMinPrice());
+        assertEquals(new BigDecimal(200_000), intent.getMaxPrice());
+    }
+
+    @Test
+    void appliesTheUnitOfTheSecondBoundToTheWholeRange() {
+        QueryIntent intent = extractor.extract("maison entre 2 et 4 chambres à Douala");
+
+        assertEquals(2, intent.getMinBedrooms());
+        assertEquals(4, intent.getMaxBedrooms());
+        assertNull(intent.getMinPrice());
+        assertNull(intent.getMaxPrice());
+    }
+
+    @Test
+    void readsDecimalMillions() {
+        QueryIntent intent = extractor.extract("Villa à vendre à Douala, budget 1,5 million");
+
+        assertEquals(Listing.PropertyType.VILLA, intent.getPropertyType());
+        assertEquals(Listing.TransactionType.SALE, intent.getTransactionType());
+        assertNull(intent.getMinPrice());
+        assertEquals(new BigDecimal(1_500_000), intent.getMaxPrice());
+    }
+
+    @Test
+    void readsThousandsSuffixGluedToTheNumber() {
+        QueryIntent intent = extractor.extract("studio max 150k à Douala");
+
+        assertEquals(Listing.PropertyType.STUDIO, intent.getPropertyType());
+        assertEquals(new BigDecimal(150_000), intent.getMaxPrice());
+    }
+
+    @Test
+    void readsSurfaceUnitGluedToTheNumber() {
+        QueryIntent intent = extractor.extract("maison d'au moins 80m² à Douala");
+
+        assertEquals(80, intent.getMinSurface());
+        assertNull(intent.getMaxSurface());
+        assertNull(intent.getMaxPrice());
+    }
+
+    @Test
+    void readsDottedThousandsAfterABound() {
+        QueryIntent intent = extractor.extract("appartement moins de 75.000 FCFA à Ngaoundere");
+
+        assertEquals(3L, intent.getCityId());
+        assertEquals(new BigDecimal(75_000), intent.getMaxPrice());
+    }
+
+    @Test
+    void ignoresNumbersWithoutUnitOrBound() {
+        QueryIntent intent = extractor.extract("maison avec 2 salles de bain à Douala");
+
+        assertNull(intent.getMinPrice());
+        assertNull(intent.getMaxPrice());
+        assertNull(intent.getMinRooms());
+        assertNull(intent.getMinBedrooms());
+    }
+
+    @Test
+    void leavesMisspelledCitiesToTheFuzzyFallback() {
+        QueryIntent intent = extractor.extract("appartement à Yaonde");
+
+        assertNull(intent.getCityId());
+        assertEquals(Listing.PropertyType.APARTMENT, intent.getPropertyType());
+    }
+
+    @Test
+    void givesTheSameIntentForTwoPhrasingsOfOneSearch() {
+        QueryIntent first = extractor.extract("Appartement à Douala à moins de 150 000 FCFA");
+        QueryIntent second = extractor.extract("appart douala, max 150k");
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+}
@@ -0,0 +1,64 @@
+package com.realestate.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sémantique de la recherche par mots-clés des biens : chaque mot est un préfixe, tous les mots sont exigés
+ */
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.put(1L, "Appartement meublé à Bonapriso", "Proche du centre, vue sur le fleuve");
+        index.put(2L, "Maison avec jardin", "Quartier calme, appartement indépendant à l'étage");
+        index.put(3L, "Studio meublé", null);
+    }
+
+    @Test
+    void treatsEachTermAsAWordPrefix() {
+        assertArrayEquals(new long[]{1L, 2L}, search("appart"));
+        assertArrayEquals(new long[]{1L, 3L}, search("meub"));
+    }
+
+    @Test
+    void requiresEveryTermInAnyOrderAndField() {
+        assertArrayEquals(new long[]{1L}, search("meuble appart"));
+        assertArrayEquals(new long[]{2L}, search("jardin appartement"));
+        assertArrayEquals(new long[0], search("studio jardin"));
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        assertArrayEquals(new long[]{1L, 3L}, search("MEUBLÉ"));
+        assertArrayEquals(new long[]{2L}, search("etage"));
+    }
+
+    @Test
+    void doesNotMatchInsideAWord() {
+        // La recherche SQL de repli (LIKE '%partement%') trouverait les biens 1 et 2
+        assertArrayEquals(new long[0], search("partement"));
+    }
+
+    @Test
+    void forgetsTheTermsOfAReindexedOrRemovedDocument() {
+        index.put(3L, "Studio rénové", null);
+        index.remove(2L);
+
+        assertArrayEquals(new long[]{1L}, search("meuble"));
+        assertArrayEquals(new long[]{1L}, search("appartement"));
+        assertArrayEquals(new long[]{3L}, search("renove"));
+        assertEquals(2, index.size());
+    }
+
+    private long[] search(String query) {
+        return index.search(TextAnalyzer.tokenize(query));
+    }
+}
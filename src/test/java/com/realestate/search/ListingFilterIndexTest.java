@@ -0,0 +1,119 @@
+package com.realestate.search;
+
+import com.realestate.dto.SearchFacetsDTO;
+import com.realestate.entity.City;
+import com.realestate.entity.Listing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ListingFilterIndexTest {
+
+    private ListingFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Aucun filtre texte dans ces tests : l'index texte n'est pas sollicité
+        index = new ListingFilterIndex(null);
+        index.load(List.of(
+                document(1L, "Douala", Listing.PropertyType.APARTMENT, Listing.TransactionType.RENT, 150_000L),
+                document(2L, "Douala", Listing.PropertyType.HOUSE, Listing.TransactionType.SALE, 40_000_000L),
+                document(3L, "Yaoundé", Listing.PropertyType.APARTMENT, Listing.TransactionType.RENT, 90_000L),
+                document(4L, "Douala", Listing.PropertyType.APARTMENT, Listing.TransactionType.RENT, null),
+                document(5L, "Yaoundé", Listing.PropertyType.STUDIO, Listing.TransactionType.RENT, 150_000L),
+                document(6L, "Douala", Listing.PropertyType.APARTMENT, Listing.TransactionType.RENT, 60_000L)));
+    }
+
+    @Test
+    void pagesByAscendingPriceWithMissingPricesLast() {
+        Sort byPrice = Sort.by(Sort.Direction.ASC, "price");
+
+        assertEquals(List.of(6L, 3L, 1L), ids(index.search(filter(null, null), PageRequest.of(0, 3, byPrice))));
+        assertEquals(List.of(5L, 2L, 4L), ids(index.search(filter(null, null), PageRequest.of(1, 3, byPrice))));
+    }
+
+    @Test
+    void pagesByDescendingPriceWithMissingPricesFirst() {
+        Sort byPrice = Sort.by(Sort.Direction.DESC, "price");
+
+        Page<Long> page = index.search(filter(null, null), PageRequest.of(0, 4, byPrice));
+
+        // Prix égaux : identifiant décroissant, ordre stable d'une page à l'autre
+        assertEquals(List.of(4L, 2L, 5L, 1L), ids(page));
+        assertEquals(6, page.getTotalElements());
+    }
+
+    @Test
+    void excludesListingsWithoutPriceFromPriceFilters() {
+        Page<Long> page = index.search(filter(new BigDecimal(50_000), new BigDecimal(150_000)),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "price")));
+
+        assertEquals(List.of(6L, 3L, 1L, 5L), ids(page));
+    }
+
+    @Test
+    void pagesByNewestFirstByDefault() {
+        Page<Long> page = index.search(filter(null, null), PageRequest.of(1, 4));
+
+        assertEquals(List.of(2L, 1L), ids(page));
+        assertEquals(6, page.getTotalElements());
+    }
+
+    @Test
+    void countsEachFacetWithoutItsOwnFilter() {
+        ListingFilter apartmentsInDouala = new ListingFilter("Douala", Listing.PropertyType.APARTMENT,
+                null, null, null, null, null, null, null, null, false);
+        AtomicReference<SearchFacetsDTO> facets = new AtomicReference<>();
+
+        Page<Long> page = index.search(apartmentsInDouala, PageRequest.of(0, 10), facets::set);
+
+        assertEquals(List.of(6L, 4L, 1L), ids(page));
+        // Villes : appartements de toutes les villes ; types : toutes les annonces de Douala
+        assertEquals(Map.of("Douala", 3L, "Yaoundé", 1L), facets.get().getCities());
+        assertEquals(Map.of("APARTMENT", 3L, "HOUSE", 1L), facets.get().getPropertyTypes());
+        assertEquals(Map.of("RENT", 3L), facets.get().getTransactionTypes());
+        assertEquals(List.of(
+                new SearchFacetsDTO.RangeCount(new BigDecimal(50_000), new BigDecimal(100_000), 1),
+                new SearchFacetsDTO.RangeCount(new BigDecimal(100_000), new BigDecimal(200_000), 1)),
+                facets.get().getPriceRanges());
+    }
+
+    @Test
+    void leavesUnsupportedSortsToTheDatabase() {
+        assertNull(index.search(filter(null, null), PageRequest.of(0, 10, Sort.by("surfaceArea"))));
+        assertNull(index.search(filter(null, null), PageRequest.of(0, 10, Sort.by("price", "id"))));
+    }
+
+    private static ListingFilter filter(BigDecimal minPrice, BigDecimal maxPrice) {
+        return new ListingFilter(null, null, null, minPrice, maxPrice, null, null, null, null, null, false);
+    }
+
+    private static List<Long> ids(Page<Long> page) {
+        return new ArrayList<>(page.getContent());
+    }
+
+    private static ListingDocument document(long id, String cityName, Listing.PropertyType propertyType,
+                                            Listing.TransactionType transactionType, Long price) {
+        City city = new City(cityName, "Cameroun");
+        city.setId("Douala".equals(cityName) ? 1L : 2L);
+        Listing listing = new Listing();
+        listing.setId(id);
+        listing.setCity(city);
+        listing.setPropertyType(propertyType);
+        listing.setTransactionType(transactionType);
+        listing.setPrice(price != null ? BigDecimal.valueOf(price) : null);
+        listing.setStatus(Listing.Status.ACTIVE);
+        return ListingDocument.of(listing, cityName);
+    }
+}
@@ -0,0 +1,84 @@
+package com.realestate.search;
+
+import com.realestate.entity.City;
+import com.realestate.entity.Listing;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryIntentTest {
+
+    @Test
+    void matchesAnActiveListingWithinEveryBound() {
+        QueryIntent intent = apartmentInDouala(100_000, 200_000, QueryIntent.NONE);
+
+        assertTrue(intent.matches(listing(1L, Listing.PropertyType.APARTMENT, 150_000, Listing.Status.ACTIVE)));
+        assertTrue(intent.matches(listing(1L, Listing.PropertyType.APARTMENT, 200_000, Listing.Status.ACTIVE)));
+    }
+
+    @Test
+    void rejectsAListingOutsideOneCriterion() {
+        QueryIntent intent = apartmentInDouala(100_000, 200_000, QueryIntent.NONE);
+
+        assertFalse(intent.matches(listing(2L, Listing.PropertyType.APARTMENT, 150_000, Listing.Status.ACTIVE)));
+        assertFalse(intent.matches(listing(1L, Listing.PropertyType.HOUSE, 150_000, Listing.Status.ACTIVE)));
+        assertFalse(intent.matches(listing(1L, Listing.PropertyType.APARTMENT, 250_000, Listing.Status.ACTIVE)));
+        assertFalse(intent.matches(listing(1L, Listing.PropertyType.APARTMENT, 150_000, Listing.Status.RENTED)));
+    }
+
+    @Test
+    void rejectsAListingWithoutTheBoundedValue() {
+        QueryIntent intent = apartmentInDouala(QueryIntent.NONE, QueryIntent.NONE, 80);
+
+        assertFalse(intent.matches(listing(1L, Listing.PropertyType.APARTMENT, 150_000, Listing.Status.ACTIVE)));
+    }
+
+    @Test
+    void matchesNothingWithoutACity() {
+        QueryIntent intent = QueryIntent.builder().propertyType(Listing.PropertyType.APARTMENT).build();
+
+        assertFalse(intent.matches(listing(1L, Listing.PropertyType.APARTMENT, 150_000, Listing.Status.ACTIVE)));
+    }
+
+    @Test
+    void withCityLeavesTheOriginalUnchanged() {
+        QueryIntent withoutCity = QueryIntent.builder()
+                .propertyType(Listing.PropertyType.APARTMENT)
+                .price(QueryIntent.NONE, 200_000)
+                .build();
+
+        QueryIntent withCity = withoutCity.withCity(1L, "Douala");
+
+        assertNull(withoutCity.getCityId());
+        assertEquals(apartmentInDouala(QueryIntent.NONE, 200_000, QueryIntent.NONE), withCity);
+        assertNotEquals(withoutCity, withCity);
+    }
+
+    private static QueryIntent apartmentInDouala(long minPrice, long maxPrice, long minSurface) {
+        return QueryIntent.builder()
+                .city(1L, "Douala")
+                .propertyType(Listing.PropertyType.APARTMENT)
+                .price(minPrice, maxPrice)
+                .surface(minSurface, QueryIntent.NONE)
+                .build();
+    }
+
+    private static Listing listing(Long cityId, Listing.PropertyType type, long price, Listing.Status status) {
+        City city = new City("Ville " + cityId, "Cameroun");
+        city.setId(cityId);
+        Listing listing = new Listing();
+        listing.setId(10L);
+        listing.setCity(city);
+        listing.setPropertyType(type);
+        listing.setTransactionType(Listing.TransactionType.RENT);
+        listing.setPrice(BigDecimal.valueOf(price));
+        listing.setStatus(status);
+        return listing;
+    }
+}
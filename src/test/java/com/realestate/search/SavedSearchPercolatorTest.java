@@ -0,0 +1,161 @@
+package com.realestate.search;
+
+import com.realestate.entity.City;
+import com.realestate.entity.Listing;
+import com.realestate.entity.SavedSearch;
+import com.realestate.entity.User;
+import com.realestate.event.SavedSearchChangedEvent;
+import com.realestate.repository.SavedSearchRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SavedSearchPercolatorTest {
+
+    private static final long DOUALA = 1L;
+    private static final long YAOUNDE = 2L;
+
+    private final SavedSearchRepository repository = mock(SavedSearchRepository.class);
+    private final SavedSearchPercolator percolator = new SavedSearchPercolator(repository);
+
+    @Test
+    void matchesOnlySearchesWhoseEveryCriterionHolds() {
+        register(search(1L, DOUALA, Listing.PropertyType.APARTMENT, null, null));
+        register(search(2L, DOUALA, null, 100_000L, 200_000L));
+        register(search(3L, YAOUNDE, Listing.PropertyType.APARTMENT, null, null));
+        register(search(4L, null, null, null, 120_000L));
+        register(search(5L, DOUALA, Listing.PropertyType.HOUSE, null, null));
+
+        assertEquals(List.of(1L, 2L), matches(listing(DOUALA, Listing.PropertyType.APARTMENT, 150_000)));
+        assertEquals(List.of(1L, 2L, 4L), matches(listing(DOUALA, Listing.PropertyType.APARTMENT, 110_000)));
+    }
+
+    @Test
+    void leavesAListingWithoutPriceToSearchesWithoutPriceBounds() {
+        register(search(1L, DOUALA, null, null, null));
+        register(search(2L, DOUALA, null, null, 200_000L));
+
+        Listing listing = listing(DOUALA, Listing.PropertyType.APARTMENT, 0);
+        listing.setPrice(null);
+
+        assertEquals(List.of(1L), matches(listing));
+    }
+
+    @Test
+    void stopsMatchingADeletedOrDisabledSearch() {
+        SavedSearch deleted = search(1L, DOUALA, null, null, null);
+        SavedSearch disabled = search(2L, DOUALA, null, null, null);
+        register(deleted);
+        register(disabled);
+
+        percolator.onSavedSearchChanged(new SavedSearchChangedEvent(this, deleted, SavedSearchChangedEvent.ChangeType.DELETED));
+        disabled.setAlertsEnabled(false);
+        percolator.onSavedSearchChanged(new SavedSearchChangedEvent(this, disabled, SavedSearchChangedEvent.ChangeType.UPDATED));
+
+        assertEquals(List.of(), matches(listing(DOUALA, Listing.PropertyType.APARTMENT, 150_000)));
+    }
+
+    @Test
+    void movesAnUpdatedSearchToItsNewCriteria() {
+        SavedSearch savedSearch = search(1L, DOUALA, null, null, null);
+        register(savedSearch);
+
+        savedSearch.setCity(city(YAOUNDE));
+        percolator.onSavedSearchChanged(new SavedSearchChangedEvent(this, savedSearch, SavedSearchChangedEvent.ChangeType.UPDATED));
+
+        assertEquals(List.of(), matches(listing(DOUALA, Listing.PropertyType.APARTMENT, 150_000)));
+        assertEquals(List.of(1L), matches(listing(YAOUNDE, Listing.PropertyType.APARTMENT, 150_000)));
+    }
+
+    @Test
+    void keepsASearchCreatedWhileARebuildIsLoading() {
+        SavedSearch loaded = search(1L, DOUALA, null, null, null);
+        SavedSearch created = search(2L, DOUALA, null, null, null);
+        // La création est validée après la lecture de la base par la reconstruction
+        when(repository.findByAlertsEnabledTrue(any(Pageable.class))).thenAnswer(invocation -> {
+            register(created);
+            return new PageImpl<>(List.of(loaded), invocation.getArgument(0), 1);
+        });
+
+        percolator.rebuild();
+
+        assertEquals(List.of(1L, 2L), matches(listing(DOUALA, Listing.PropertyType.APARTMENT, 150_000)));
+    }
+
+    @Test
+    void appliesADeletionReceivedWhileARebuildIsLoading() {
+        SavedSearch deleted = search(1L, DOUALA, null, null, null);
+        register(deleted);
+        when(repository.findByAlertsEnabledTrue(any(Pageable.class))).thenAnswer(invocation -> {
+            percolator.onSavedSearchChanged(new SavedSearchChangedEvent(this, deleted, SavedSearchChangedEvent.ChangeType.DELETED));
+            return new PageImpl<>(List.of(deleted), invocation.getArgument(0), 1);
+        });
+
+        percolator.rebuild();
+
+        assertEquals(List.of(), matches(listing(DOUALA, Listing.PropertyType.APARTMENT, 150_000)));
+    }
+
+    @Test
+    void replacesTheIndexOnRebuild() {
+        register(search(1L, DOUALA, null, null, null));
+        when(repository.findByAlertsEnabledTrue(any(Pageable.class))).thenAnswer(invocation ->
+                new PageImpl<>(List.of(search(2L, DOUALA, null, null, null)), invocation.getArgument(0), 1));
+
+        percolator.rebuild();
+        register(search(3L, DOUALA, null, null, null));
+
+        assertEquals(List.of(2L, 3L), matches(listing(DOUALA, Listing.PropertyType.APARTMENT, 150_000)));
+    }
+
+    private void register(SavedSearch savedSearch) {
+        percolator.onSavedSearchChanged(new SavedSearchChangedEvent(this, savedSearch, SavedSearchChangedEvent.ChangeType.CREATED));
+    }
+
+    private List<Long> matches(Listing listing) {
+        return percolator.percolate(ListingDocument.of(listing, listing.getCity().getName())).stream()
+                .map(SavedSearchQuery::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static SavedSearch search(long id, Long cityId, Listing.PropertyType type, Long minPrice, Long maxPrice) {
+        User user = new User();
+        user.setId(100L + id);
+        SavedSearch savedSearch = new SavedSearch();
+        savedSearch.setId(id);
+        savedSearch.setName("Recherche " + id);
+        savedSearch.setUser(user);
+        savedSearch.setCity(cityId != null ? city(cityId) : null);
+        savedSearch.setPropertyType(type);
+        savedSearch.setMinPrice(minPrice != null ? BigDecimal.valueOf(minPrice) : null);
+        savedSearch.setMaxPrice(maxPrice != null ? BigDecimal.valueOf(maxPrice) : null);
+        return savedSearch;
+    }
+
+    private static Listing listing(long cityId, Listing.PropertyType type, long price) {
+        Listing listing = new Listing();
+        listing.setId(10L);
+        listing.setCity(city(cityId));
+        listing.setPropertyType(type);
+        listing.setTransactionType(Listing.TransactionType.RENT);
+        listing.setPrice(BigDecimal.valueOf(price));
+        listing.setStatus(Listing.Status.ACTIVE);
+        return listing;
+    }
+
+    private static City city(long id) {
+        City city = new City("Ville " + id, "Cameroun");
+        city.setId(id);
+        return city;
+    }
+}
@@ -0,0 +1,214 @@
+package com.realestate.search;
+
+import com.realestate.entity.City;
+import com.realestate.entity.Listing;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchResultCacheTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private final SearchResultCache cache = new SearchResultCache();
+
+    @Test
+    void servesARepeatedSearchFromTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        search("Douala", false, null, FIRST_PAGE, loads);
+        search("Douala", false, null, FIRST_PAGE, loads);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void keepsPagesOfOtherCitiesOnWrite() {
+        AtomicInteger doualaLoads = new AtomicInteger();
+        AtomicInteger yaoundeLoads = new AtomicInteger();
+        search("Douala", false, null, FIRST_PAGE, doualaLoads);
+        search("Yaoundé", false, null, FIRST_PAGE, yaoundeLoads);
+
+        cache.onListingPut(document(1L, "Douala", Listing.PropertyType.APARTMENT));
+        search("Douala", false, null, FIRST_PAGE, doualaLoads);
+        search("Yaoundé", false, null, FIRST_PAGE, yaoundeLoads);
+
+        assertEquals(2, doualaLoads.get());
+        assertEquals(1, yaoundeLoads.get());
+    }
+
+    @Test
+    void invalidatesSubstringAndAccentInsensitiveCityFilters() {
+        AtomicInteger partialLoads = new AtomicInteger();
+        AtomicInteger unaccentedLoads = new AtomicInteger();
+        search("doua", false, null, FIRST_PAGE, partialLoads);
+        search("yaounde", false, null, FIRST_PAGE, unaccentedLoads);
+
+        cache.onListingPut(document(1L, "Douala", Listing.PropertyType.APARTMENT));
+        cache.onListingPut(document(2L, "Yaoundé", Listing.PropertyType.APARTMENT));
+        search("doua", false, null, FIRST_PAGE, partialLoads);
+        search("yaounde", false, null, FIRST_PAGE, unaccentedLoads);
+
+        assertEquals(2, partialLoads.get());
+        assertEquals(2, unaccentedLoads.get());
+    }
+
+    @Test
+    void keepsPagesOfOtherTypesOnWrite() {
+        AtomicInteger houseLoads = new AtomicInteger();
+        AtomicInteger anyTypeLoads = new AtomicInteger();
+        search("Douala", false, Listing.PropertyType.HOUSE, FIRST_PAGE, houseLoads);
+        search("Douala", false, null, FIRST_PAGE, anyTypeLoads);
+
+        cache.onListingPut(document(1L, "Douala", Listing.PropertyType.APARTMENT));
+        search("Douala", false, Listing.PropertyType.HOUSE, FIRST_PAGE, houseLoads);
+        search("Douala", false, null, FIRST_PAGE, anyTypeLoads);
+
+        assertEquals(1, houseLoads.get());
+        assertEquals(2, anyTypeLoads.get());
+    }
+
+    @Test
+    void invalidatesFuzzyCityFiltersOnAnyWrite() {
+        AtomicInteger fuzzyLoads = new AtomicInteger();
+        AtomicInteger exactLoads = new AtomicInteger();
+        search("yaonde", true, null, FIRST_PAGE, fuzzyLoads);
+        search("yaonde", false, null, FIRST_PAGE, exactLoads);
+
+        cache.onListingPut(document(1L, "Yaoundé", Listing.PropertyType.APARTMENT));
+        search("yaonde", true, null, FIRST_PAGE, fuzzyLoads);
+        search("yaonde", false, null, FIRST_PAGE, exactLoads);
+
+        assertEquals(2, fuzzyLoads.get());
+        assertEquals(1, exactLoads.get());
+    }
+
+    @Test
+    void invalidatesThePreviousCityOfAMovedListing() {
+        AtomicInteger doualaLoads = new AtomicInteger();
+        cache.onListingPut(document(1L, "Douala", Listing.PropertyType.APARTMENT));
+        search("Douala", false, null, FIRST_PAGE, doualaLoads);
+
+        cache.onListingPut(document(1L, "Yaoundé", Listing.PropertyType.APARTMENT));
+        search("Douala", false, null, FIRST_PAGE, doualaLoads);
+        cache.onListingRemoved(1L);
+        search("Douala", false, null, FIRST_PAGE, doualaLoads);
+
+        assertEquals(2, doualaLoads.get());
+    }
+
+    @Test
+    void keepsPropertyPagesOnListingWrites() {
+        AtomicInteger loads = new AtomicInteger();
+        load(SearchResultCache.Scope.PROPERTY, "Douala", false, null, FIRST_PAGE, loads);
+
+        cache.onListingPut(document(1L, "Douala", Listing.PropertyType.APARTMENT));
+        load(SearchResultCache.Scope.PROPERTY, "Douala", false, null, FIRST_PAGE, loads);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void doesNotCacheDeepPages() {
+        AtomicInteger loads = new AtomicInteger();
+        Pageable deepPage = PageRequest.of(SearchResultCache.MAX_CACHED_PAGE, 20);
+
+        search("Douala", false, null, deepPage, loads);
+        search("Douala", false, null, deepPage, loads);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void doesNotCacheAPageLoadedDuringAWrite() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(SearchResultCache.Scope.LISTING, "Douala", false, null, List.of(), FIRST_PAGE, () -> {
+            loads.incrementAndGet();
+            cache.onListingPut(document(1L, "Douala", Listing.PropertyType.APARTMENT));
+            return new PageImpl<>(List.of(), FIRST_PAGE, 0);
+        });
+
+        search("Douala", false, null, FIRST_PAGE, loads);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void neverServesAStalePageUnderConcurrentEviction() throws Exception {
+        int threads = 8;
+        // Pages lourdes : le cache ne garde qu'une cinquantaine d'entrées, chaque thread provoque des évictions
+        List<Long> heavyContent = LongStream.range(0, 1_000).boxed().collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                workers.add(executor.submit(() -> {
+                    String city = "Ville " + thread;
+                    AtomicLong version = new AtomicLong();
+                    for (int i = 0; i < 2_000; i++) {
+                        cache.get(SearchResultCache.Scope.LISTING, "Filler " + (i % 100), false, null, List.of(thread),
+                                FIRST_PAGE, () -> new PageImpl<>(heavyContent, FIRST_PAGE, heavyContent.size()));
+                        long current = version.get();
+                        Page<Long> page = cache.get(SearchResultCache.Scope.LISTING, city, false, null, List.of(),
+                                FIRST_PAGE, () -> new PageImpl<>(List.of(current), FIRST_PAGE, 1));
+                        assertEquals(List.of(current), page.getContent());
+                        if (i % 10 == 0) {
+                            version.incrementAndGet();
+                            cache.onListingPut(document(thread, city, Listing.PropertyType.APARTMENT));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Un interblocage entre l'index et les verrous du cache ferait expirer l'attente
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void search(String city, boolean fuzzyCity, Listing.PropertyType type, Pageable pageable,
+                        AtomicInteger loads) {
+        load(SearchResultCache.Scope.LISTING, city, fuzzyCity, type, pageable, loads);
+    }
+
+    private Page<Long> load(SearchResultCache.Scope scope, String city, boolean fuzzyCity, Listing.PropertyType type,
+                            Pageable pageable, AtomicInteger loads) {
+        return cache.get(scope, city, fuzzyCity, type, List.of(), pageable, () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(List.of(1L, 2L), pageable, 2);
+        });
+    }
+
+    private static ListingDocument document(long id, String cityName, Listing.PropertyType type) {
+        City city = new City(cityName, "Cameroun");
+        city.setId(id);
+        Listing listing = new Listing();
+        listing.setId(id);
+        listing.setCity(city);
+        listing.setPropertyType(type);
+        listing.setTransactionType(Listing.TransactionType.RENT);
+        listing.setPrice(BigDecimal.valueOf(100_000));
+        listing.setStatus(Listing.Status.ACTIVE);
+        return ListingDocument.of(listing, cityName);
+    }
+}
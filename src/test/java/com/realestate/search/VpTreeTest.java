@@ -0,0 +1,84 @@
+package com.realestate.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * L'arbre doit rendre exactement les mêmes voisins qu'un parcours exhaustif : l'élagage ne doit écarter
+ * aucun point plus proche que le k-ième voisin trouvé
+ */
+class VpTreeTest {
+
+    private static final int SIZE = 20_000;
+    private static final int CITIES = 8;
+    private static final float CITY_WEIGHT = 1.5f;
+    private static final int K = 10;
+
+    @Test
+    void findsTheSameNeighboursAsBruteForce() {
+        Random random = new Random(7);
+        int dimensions = ListingFeatures.DIMENSIONS;
+        long[] ids = new long[SIZE];
+        int[] cities = new int[SIZE];
+        float[] vectors = new float[SIZE * dimensions];
+        for (int i = 0; i < SIZE; i++) {
+            ids[i] = i + 1;
+            cities[i] = random.nextInt(CITIES);
+            for (int d = 0; d < dimensions; d++) {
+                vectors[i * dimensions + d] = (float) random.nextGaussian();
+            }
+        }
+        VpTree tree = new VpTree(ids, cities, vectors, dimensions, CITY_WEIGHT);
+
+        for (int q = 0; q < 200; q++) {
+            int reference = random.nextInt(SIZE);
+            float[] query = Arrays.copyOfRange(vectors, reference * dimensions, (reference + 1) * dimensions);
+            long excludedId = ids[reference];
+
+            VpTree.Neighbours fromTree = new VpTree.Neighbours(K);
+            tree.search(query, cities[reference], fromTree, id -> id == excludedId);
+
+            VpTree.Neighbours bruteForce = new VpTree.Neighbours(K);
+            for (int i = 0; i < SIZE; i++) {
+                if (ids[i] != excludedId) {
+                    bruteForce.offer(ids[i], tree.distance(query, cities[reference], vectors, i * dimensions, cities[i]));
+                }
+            }
+
+            // Distances comparées plutôt que les identifiants : deux points à égale distance peuvent s'échanger
+            assertEquals(K, fromTree.size());
+            assertArrayEquals(distances(bruteForce), distances(fromTree));
+            for (int i = 0; i < K; i++) {
+                assertFalse(fromTree.id(i) == excludedId);
+            }
+        }
+    }
+
+    @Test
+    void returnsFewerNeighboursThanRequestedOnASmallTree() {
+        VpTree tree = new VpTree(new long[]{1, 2, 3}, new int[]{0, 0, 1}, new float[]{0f, 1f, 2f}, 1, CITY_WEIGHT);
+
+        VpTree.Neighbours neighbours = new VpTree.Neighbours(K);
+        tree.search(new float[]{0f}, 0, neighbours, id -> id == 1);
+
+        assertEquals(2, neighbours.size());
+        assertEquals(2L, neighbours.id(0));
+        assertEquals(1f, neighbours.distance(0));
+        assertEquals(3L, neighbours.id(1));
+        assertEquals((float) Math.sqrt(4 + CITY_WEIGHT * CITY_WEIGHT), neighbours.distance(1));
+    }
+
+    private static float[] distances(VpTree.Neighbours neighbours) {
+        float[] distances = new float[neighbours.size()];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = neighbours.distance(i);
+        }
+        return distances;
+    }
+}
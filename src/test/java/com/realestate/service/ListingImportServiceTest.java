@@ -0,0 +1,152 @@
+package com.realestate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realestate.dto.ExportFormat;
+import com.realestate.dto.ImportJobDTO;
+import com.realestate.entity.City;
+import com.realestate.entity.ImportJob;
+import com.realestate.entity.Listing;
+import com.realestate.entity.User;
+import com.realestate.event.ListingsImportedEvent;
+import com.realestate.repository.CityRepository;
+import com.realestate.repository.ImportJobRepository;
+import com.realestate.repository.UserRepository;
+import com.realestate.search.CityRegistry;
+import com.realestate.util.JwtUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ListingImportServiceTest {
+
+    private static final String TOKEN = "Bearer token";
+    // Plus de deux lots de 500 lignes
+    private static final int ROWS = 1_200;
+
+    @TempDir
+    Path importDirectory;
+
+    private final ImportJobRepository importJobRepository = mock(ImportJobRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final List<String> importedTitles = new ArrayList<>();
+    private ValidatorFactory validatorFactory;
+    private ListingImportService service;
+    private ImportJob job;
+    // Titre dont l'insertion échoue une fois, au milieu du deuxième lot
+    private String failingTitle;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("owner@example.com");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail("owner@example.com")).thenReturn(Optional.of(user));
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.getEmailFromToken(anyString())).thenReturn("owner@example.com");
+
+        City douala = new City("Douala", "Cameroun");
+        douala.setId(1L);
+        CityRepository cityRepository = mock(CityRepository.class);
+        when(cityRepository.findAll()).thenReturn(List.of(douala));
+        CityRegistry cityRegistry = new CityRegistry(cityRepository);
+        cityRegistry.refresh();
+
+        Path file = importDirectory.resolve("listings.ndjson");
+        Files.write(file, IntStream.rangeClosed(1, ROWS)
+                .mapToObj(i -> "{\"title\":\"Annonce " + i + "\",\"price\":150000,\"propertyType\":\"APARTMENT\","
+                        + "\"transactionType\":\"RENT\",\"cityName\":\"Douala\"}")
+                .collect(Collectors.toList()), StandardCharsets.UTF_8);
+        job = new ImportJob(user, ExportFormat.NDJSON, file.toString(), "listings.ndjson");
+        job.setId(7L);
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(importJobRepository.findByIdAndUserId(7L, 1L)).thenReturn(Optional.of(job));
+
+        when(entityManager.find(ImportJob.class, 7L)).thenReturn(job);
+        when(entityManager.getReference(eq(City.class), anyLong())).thenReturn(douala);
+        doAnswer(invocation -> {
+            Listing listing = invocation.getArgument(0);
+            if (listing.getTitle().equals(failingTitle)) {
+                failingTitle = null;
+                throw new IllegalStateException("Connection lost");
+            }
+            return null;
+        }).when(entityManager).persist(any(Listing.class));
+        // Seules les annonces d'un lot validé sont publiées : l'événement suit la dernière insertion du lot
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        doAnswer(invocation -> {
+            ListingsImportedEvent event = invocation.getArgument(0);
+            event.getListings().forEach(listing -> importedTitles.add(listing.getTitle()));
+            return null;
+        }).when(eventPublisher).publishEvent(any(ListingsImportedEvent.class));
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        Validator validator = validatorFactory.getValidator();
+        service = new ListingImportService(importJobRepository, userRepository, cityRegistry, new ObjectMapper(),
+                validator, mock(PlatformTransactionManager.class), eventPublisher, jwtUtil, Runnable::run,
+                importDirectory.toString());
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void resumesAfterTheLastCommittedChunk() {
+        failingTitle = "Annonce 700";
+        job.setStatus(ImportJob.Status.FAILED);
+
+        ImportJobDTO failed = service.resumeImport(7L, TOKEN);
+
+        assertEquals(ImportJob.Status.FAILED, job.getStatus(), failed.getErrorMessage());
+        assertEquals(500, job.getProcessedRows());
+        assertEquals(500, job.getImportedRows());
+        assertEquals(titles(1, 500), importedTitles);
+        assertTrue(Files.exists(Path.of(job.getFilePath())));
+
+        service.resumeImport(7L, TOKEN);
+
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(ROWS, job.getProcessedRows());
+        assertEquals(ROWS, job.getImportedRows());
+        assertEquals(0, job.getRejectedRows());
+        // Chaque ligne importée une seule fois, dans l'ordre du fichier
+        assertEquals(titles(1, ROWS), importedTitles);
+        assertFalse(Files.exists(Path.of(job.getFilePath())));
+    }
+
+    private static List<String> titles(int first, int last) {
+        return IntStream.rangeClosed(first, last).mapToObj(i -> "Annonce " + i).collect(Collectors.toList());
+    }
+}
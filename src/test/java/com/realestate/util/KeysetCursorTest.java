@@ -0,0 +1,79 @@
+package com.realestate.util;
+
+import com.realestate.dto.ScrollSort;
+import com.realestate.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        String token = KeysetCursor.of(ScrollSort.PRICE_ASC, new BigDecimal("150000.50"), 42L).encode();
+
+        KeysetCursor cursor = KeysetCursor.decode(token, ScrollSort.PRICE_ASC);
+
+        assertEquals(ScrollSort.PRICE_ASC, cursor.getSort());
+        assertEquals(new BigDecimal("150000.50"), cursor.getKey());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    void keepsLargeKeysWithoutExponent() {
+        String token = KeysetCursor.of(ScrollSort.PRICE_DESC, new BigDecimal("2.5E+8"), 7L).encode();
+
+        assertEquals(0, new BigDecimal("250000000").compareTo(KeysetCursor.decode(token, ScrollSort.PRICE_DESC).getKey()));
+    }
+
+    @Test
+    void dropsTheKeyWhenTheSortHasNone() {
+        String token = KeysetCursor.of(ScrollSort.NEWEST, new BigDecimal("100"), 7L).encode();
+
+        KeysetCursor cursor = KeysetCursor.decode(token, ScrollSort.NEWEST);
+
+        assertNull(cursor.getKey());
+        assertEquals(7L, cursor.getId());
+    }
+
+    @Test
+    void encodesAsUrlSafeBase64WithoutPadding() {
+        String token = KeysetCursor.of(ScrollSort.PRICE_ASC, new BigDecimal("99.99"), 123456789L).encode();
+
+        assertEquals(-1, token.indexOf('='));
+        assertEquals(-1, token.indexOf('+'));
+        assertEquals(-1, token.indexOf('/'));
+    }
+
+    @Test
+    void rejectsACursorIssuedForAnotherSort() {
+        String token = KeysetCursor.of(ScrollSort.PRICE_ASC, new BigDecimal("1000"), 1L).encode();
+
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(token, ScrollSort.PRICE_DESC));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor!", ScrollSort.NEWEST));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(raw("v2|NEWEST||1"), ScrollSort.NEWEST));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(raw("v1|NEWEST|1"), ScrollSort.NEWEST));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(raw("v1|OLDEST||1"), ScrollSort.NEWEST));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(raw("v1|NEWEST||abc"), ScrollSort.NEWEST));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(raw("v1|PRICE_ASC|12x|1"), ScrollSort.PRICE_ASC));
+    }
+
+    @Test
+    void rejectsAPriceCursorWithoutKey() {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(raw("v1|PRICE_ASC||1"), ScrollSort.PRICE_ASC));
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}